@@ -0,0 +1,67 @@
+package com.siddesh.expensetracker.entity;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Jackson (de)serialization of expense lists, configured like the application's ObjectMapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExpenseSerializationBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter listWriter;
+    private List<Expense> expenses;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        listWriter = objectMapper.writerFor(new TypeReference<List<Expense>>() {});
+        expenses = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            expenses.add(new Expense(
+                    (long) i,
+                    "Expense " + i,
+                    new BigDecimal("12.34").add(BigDecimal.valueOf(i)),
+                    LocalDate.of(2024, 1 + i % 12, 1 + i % 28),
+                    "Category " + i % 8,
+                    null));
+        }
+        json = listWriter.writeValueAsBytes(expenses);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return listWriter.writeValueAsBytes(expenses);
+    }
+
+    @Benchmark
+    public List<Expense> deserialize() throws IOException {
+        return objectMapper.readValue(json, new TypeReference<List<Expense>>() {});
+    }
+}
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.siddesh.expensetracker.mongo.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Id allocation against an embedded mongod. A block size of 1 is the old one-round-trip-per-id
+ * behaviour; larger blocks show the cost once ids are served from memory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class SequenceGeneratorBenchmark {
+
+    @Param({"1", "100"})
+    public int blockSize;
+
+    private TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private MongoClient mongoClient;
+    private SequenceGeneratorService sequenceGeneratorService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mongod = Mongod.instance().start(Version.Main.V7_0);
+        mongoClient = MongoClients.create("mongodb://" + mongod.current().getServerAddress());
+        MongoTemplate mongoTemplate = new MongoTemplate(mongoClient, "sequence_benchmark");
+        mongoTemplate.getDb().drop();
+        sequenceGeneratorService = new SequenceGeneratorService(mongoTemplate, new SimpleMeterRegistry(), blockSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mongoClient.close();
+        mongod.close();
+    }
+
+    @Benchmark
+    public long getNextSequence() {
+        return sequenceGeneratorService.getNextSequence("benchmark_sequence");
+    }
+}
\ No newline at end of file
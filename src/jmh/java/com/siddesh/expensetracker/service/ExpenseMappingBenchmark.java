@@ -0,0 +1,65 @@
+package com.siddesh.expensetracker.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.siddesh.expensetracker.entity.Expense;
+import com.siddesh.expensetracker.mongo.document.CategoryDocument;
+import com.siddesh.expensetracker.mongo.document.ExpenseDocument;
+import com.siddesh.expensetracker.service.cache.NoOpExpenseReadCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Cost of mapping stored documents to API entities, as done for every listed expense.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExpenseMappingBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int size;
+
+    private CategoryDictionary categoryDictionary;
+    private ExpenseServiceImpl expenseService;
+    private List<ExpenseDocument> documents;
+
+    @Setup
+    public void setUp() {
+        // Categories are stored by id and resolved through the dictionary, as after the category migration
+        categoryDictionary = new CategoryDictionary(null, null, new SimpleMeterRegistry(), 1000);
+        expenseService = new ExpenseServiceImpl(null, null, null, categoryDictionary, null, new NoOpExpenseReadCache(), null, null, null, 50, 500, 0, 1000);
+        for (long category = 0; category < 8; category++) {
+            categoryDictionary.remember(new CategoryDocument(category, 1L, "Category " + category, "category " + category));
+        }
+        documents = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            documents.add(ExpenseDocument.builder()
+                    .expenseId((long) i)
+                    .userId(1L)
+                    .description("Expense " + i)
+                    .amount(new BigDecimal("12.34").add(BigDecimal.valueOf(i)))
+                    .date(LocalDate.of(2024, 1 + i % 12, 1 + i % 28))
+                    .categoryId((long) (i % 8))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public List<Expense> mapList() {
+        return documents.stream().map(expenseService::toExpense).toList();
+    }
+}
\ No newline at end of file
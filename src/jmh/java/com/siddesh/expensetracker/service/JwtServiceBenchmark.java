@@ -0,0 +1,55 @@
+package com.siddesh.expensetracker.service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.siddesh.expensetracker.config.AuthenticatedUser;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Token generation and the verification work done by JwtAuthFilter on every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private AuthenticatedUser user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        // Includes the cost of the jwt.sign / jwt.parse timers, as in production
+        jwtService = new JwtService("c2VjcmV0LWtleS1mb3ItYmVuY2htYXJraW5nLWp3dC1zaWduaW5nLTEyMzQ1Njc4OTA=",
+                Duration.ofMinutes(15), new SimpleMeterRegistry());
+        user = new AuthenticatedUser(42L, "bench@example.com", null);
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public Claims parseClaims() {
+        return jwtService.parseClaims(token);
+    }
+
+    @Benchmark
+    public boolean parseAndValidate() {
+        Claims claims = jwtService.parseClaims(token);
+        return jwtService.isTokenValid(claims, user);
+    }
+}
\ No newline at end of file
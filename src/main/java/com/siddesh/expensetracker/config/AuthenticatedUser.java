@@ -0,0 +1,51 @@
+package com.siddesh.expensetracker.config;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Security principal that carries the numeric user id alongside the email, so controllers
+ * and services never have to look the user up again once the request is authenticated.
+ */
+public final class AuthenticatedUser implements UserDetails {
+
+    private final Long id;
+    private final String email;
+    private final String password;
+
+    public AuthenticatedUser(Long id, String email, String password) {
+        this.id = id;
+        this.email = email;
+        this.password = password;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return Collections.emptyList(); // We aren't using roles/authorities for now
+    }
+
+    /**
+     * Copy of this principal without the password hash, safe to keep in caches and in the
+     * security context.
+     */
+    public AuthenticatedUser withoutPassword() {
+        return password == null ? this : new AuthenticatedUser(id, email, null);
+    }
+}
@@ -0,0 +1,40 @@
+package com.siddesh.expensetracker.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Bounded, time-limited cache of authenticated principals keyed by email. The JWT filter
+ * resolves the principal through this cache so a burst of requests from the same user
+ * costs at most one {@code users} lookup per TTL window.
+ */
+@Component
+public class AuthenticatedUserCache {
+
+    private final UserDetailsServiceImpl userDetailsService;
+    private final Cache<String, AuthenticatedUser> cache;
+
+    public AuthenticatedUserCache(UserDetailsServiceImpl userDetailsService,
+                                  @Value("${auth.principal-cache.max-size:10000}") long maxSize,
+                                  @Value("${auth.principal-cache.ttl:5m}") Duration ttl) {
+        this.userDetailsService = userDetailsService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public AuthenticatedUser get(String email) throws UsernameNotFoundException {
+        return cache.get(email, key -> userDetailsService.loadUserByUsername(key).withoutPassword());
+    }
+
+    public void evict(String email) {
+        cache.invalidate(email);
+    }
+}
@@ -1,15 +1,17 @@
 package com.siddesh.expensetracker.config;
 
+import com.siddesh.expensetracker.config.VerifiedTokenCache.VerifiedToken;
 import com.siddesh.expensetracker.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Profile;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -17,14 +19,19 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 
 @Component
+@Profile("!reactive")
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final AuthenticatedUserCache authenticatedUserCache;
+    private final VerifiedTokenCache verifiedTokenCache;
 
-    public JwtAuthFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    public JwtAuthFilter(JwtService jwtService,
+                         AuthenticatedUserCache authenticatedUserCache,
+                         VerifiedTokenCache verifiedTokenCache) {
         this.jwtService = jwtService;
-        this.userDetailsService = userDetailsService;
+        this.authenticatedUserCache = authenticatedUserCache;
+        this.verifiedTokenCache = verifiedTokenCache;
     }
 
     @Override
@@ -36,7 +43,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
+        final VerifiedToken verifiedToken;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -44,11 +51,12 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUsername(jwt);
+        verifiedToken = verify(jwt);
 
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+        if (verifiedToken != null && verifiedToken.subject() != null
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            AuthenticatedUser userDetails = this.authenticatedUserCache.get(verifiedToken.subject());
+            if (verifiedToken.isFor(userDetails)) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -60,4 +68,28 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
+
+    // Returns null when the token fails signature or expiry checks
+    private VerifiedToken verify(String jwt) {
+        VerifiedToken cached = verifiedTokenCache.get(jwt);
+        if (cached != null) {
+            return cached;
+        }
+
+        final Claims claims;
+        try {
+            // Verify the signature once and read every claim from the parsed result
+            claims = jwtService.parseClaims(jwt);
+        } catch (JwtException | IllegalArgumentException ex) {
+            return null;
+        }
+
+        VerifiedToken verified = new VerifiedToken(
+                claims.getSubject(),
+                jwtService.extractUserId(claims),
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null
+        );
+        verifiedTokenCache.put(jwt, verified);
+        return verified;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.siddesh.expensetracker.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * The password encoder shared by {@link SecurityConfig} and {@link ReactiveSecurityConfig}.
+ */
+@Configuration
+public class PasswordEncoderConfig {
+
+    @Bean
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${auth.password-hashing.threads:0}") int threads,
+                                           @Value("${auth.password-hashing.queue-capacity:64}") int queueCapacity) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(),
+                threads > 0 ? threads : BoundedPasswordEncoder.defaultThreads(), queueCapacity, meterRegistry);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,88 @@
+package com.siddesh.expensetracker.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.siddesh.expensetracker.config.VerifiedTokenCache.VerifiedToken;
+import com.siddesh.expensetracker.repository.ReactiveUserRepository;
+import com.siddesh.expensetracker.service.JwtService;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link JwtAuthFilter}: authenticates a bearer token, resolving the
+ * principal through a non-blocking cache backed by {@link ReactiveUserRepository}.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveJwtAuthenticationManager implements ReactiveAuthenticationManager {
+
+    private final JwtService jwtService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final ReactiveUserRepository userRepository;
+    private final AsyncCache<String, AuthenticatedUser> principals;
+
+    public ReactiveJwtAuthenticationManager(JwtService jwtService,
+                                            VerifiedTokenCache verifiedTokenCache,
+                                            ReactiveUserRepository userRepository,
+                                            @Value("${auth.principal-cache.max-size:10000}") long maxSize,
+                                            @Value("${auth.principal-cache.ttl:5m}") Duration ttl) {
+        this.jwtService = jwtService;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.userRepository = userRepository;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .buildAsync();
+    }
+
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        VerifiedToken verifiedToken = verify((String) authentication.getCredentials());
+        if (verifiedToken == null || verifiedToken.subject() == null) {
+            return Mono.error(new BadCredentialsException("Invalid bearer token."));
+        }
+
+        return Mono.fromFuture(() -> principals.get(verifiedToken.subject(), (email, executor) ->
+                        userRepository.findFirstByEmail(email)
+                                .map(user -> new AuthenticatedUser(user.getId(), user.getEmail(), null))
+                                .toFuture()))
+                .filter(verifiedToken::isFor)
+                .switchIfEmpty(Mono.error(new BadCredentialsException("Invalid bearer token.")))
+                .map(user -> UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()));
+    }
+
+    // Returns null when the token fails signature or expiry checks
+    private VerifiedToken verify(String jwt) {
+        VerifiedToken cached = verifiedTokenCache.get(jwt);
+        if (cached != null) {
+            return cached;
+        }
+
+        final Claims claims;
+        try {
+            claims = jwtService.parseClaims(jwt);
+        } catch (JwtException | IllegalArgumentException ex) {
+            return null;
+        }
+
+        VerifiedToken verified = new VerifiedToken(
+                claims.getSubject(),
+                jwtService.extractUserId(claims),
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null
+        );
+        verifiedTokenCache.put(jwt, verified);
+        return verified;
+    }
+}
\ No newline at end of file
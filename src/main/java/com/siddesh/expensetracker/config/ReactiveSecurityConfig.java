@@ -0,0 +1,79 @@
+package com.siddesh.expensetracker.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux security for the {@code reactive} profile; mirrors {@link SecurityConfig}.
+ */
+@Configuration
+@Profile("reactive")
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+
+    private final ReactiveJwtAuthenticationManager jwtAuthenticationManager;
+
+    public ReactiveSecurityConfig(ReactiveJwtAuthenticationManager jwtAuthenticationManager) {
+        this.jwtAuthenticationManager = jwtAuthenticationManager;
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .cors(cors -> cors.configurationSource(reactiveCorsConfigurationSource()))
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(exchange -> exchange
+                        .pathMatchers(
+                                "/",
+                                "/index.html",
+                                "/static/**",
+                                "/app.js",
+                                "/style.css",
+                                "/favicon.ico",
+                                "/assets/**",
+                                "/api/auth/**",
+                                "/actuator/health",
+                                "/actuator/prometheus"
+                        ).permitAll()
+                        .anyExchange().authenticated()
+                )
+                .addFilterAt(bearerTokenFilter(), SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    private AuthenticationWebFilter bearerTokenFilter() {
+        AuthenticationWebFilter filter = new AuthenticationWebFilter(jwtAuthenticationManager);
+        filter.setServerAuthenticationConverter(exchange -> {
+            String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                return Mono.empty();
+            }
+            String jwt = authHeader.substring(7);
+            return Mono.just(UsernamePasswordAuthenticationToken.unauthenticated(jwt, jwt));
+        });
+        return filter;
+    }
+
+    @Bean
+    public CorsConfigurationSource reactiveCorsConfigurationSource() {
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", SecurityConfig.corsConfiguration());
+        return source;
+    }
+}
\ No newline at end of file
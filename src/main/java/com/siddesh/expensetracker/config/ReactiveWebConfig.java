@@ -0,0 +1,18 @@
+package com.siddesh.expensetracker.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+@Profile("reactive")
+public class ReactiveWebConfig {
+
+    // Tomcat is also on the classpath for the servlet stack and Boot would prefer it; the
+    // reactive profile is meant to be measured on Netty's event loop
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
\ No newline at end of file
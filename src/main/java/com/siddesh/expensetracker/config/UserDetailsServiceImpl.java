@@ -1,32 +1,50 @@
 package com.siddesh.expensetracker.config;
 
-import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
-import org.springframework.security.core.userdetails.User;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import com.siddesh.expensetracker.entity.User;
 import com.siddesh.expensetracker.repository.UserRepository;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final Timer foundTimer;
+    private final Timer notFoundTimer;
 
-    public UserDetailsServiceImpl(UserRepository userRepository) {
+    public UserDetailsServiceImpl(UserRepository userRepository, MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
+        this.foundTimer = lookupTimer(meterRegistry, "found");
+        this.notFoundTimer = lookupTimer(meterRegistry, "not_found");
+    }
+
+    private static Timer lookupTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("auth.user.lookup")
+                .description("Time to load a user by email for authentication")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 
     @Override
-    public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+    public AuthenticatedUser loadUserByUsername(String email) throws UsernameNotFoundException {
+        long start = System.nanoTime();
         // We are using email as the username
-    return userRepository.findFirstByEmail(email)
-                .map(user -> new User(
-                        user.getEmail(),
-                        user.getPassword(),
-                        Collections.emptyList() // We aren't using roles/authorities for now
+        Optional<User> user = userRepository.findFirstByEmail(email);
+        (user.isPresent() ? foundTimer : notFoundTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        return user
+                .map(found -> new AuthenticatedUser(
+                        found.getId(),
+                        found.getEmail(),
+                        found.getPassword()
                 ))
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
     }
@@ -0,0 +1,108 @@
+package com.siddesh.expensetracker.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Optional cache of bearer tokens whose signature has already been verified, keyed by a
+ * SHA-256 digest of the token so raw tokens never sit in memory. Entries expire together
+ * with the token itself. Enable with {@code jwt.token-cache.enabled=true}; hit and miss
+ * counts are published as {@code cache.gets{cache=jwt.token-cache}}.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final String CACHE_NAME = "jwt.token-cache";
+
+    private final boolean enabled;
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(@Value("${jwt.token-cache.enabled:false}") boolean enabled,
+                              @Value("${jwt.token-cache.max-size:10000}") long maxSize,
+                              MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        if (enabled) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public VerifiedToken get(String token) {
+        if (!enabled) {
+            return null;
+        }
+        VerifiedToken verified = cache.getIfPresent(digest(token));
+        return verified == null || verified.isExpired() ? null : verified;
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        if (enabled && !verified.isExpired()) {
+            cache.put(digest(token), verified);
+        }
+    }
+
+    private String digest(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm is not available in this environment", e);
+        }
+    }
+
+    /**
+     * The parts of a verified token the filter needs to authenticate a request.
+     */
+    public record VerifiedToken(String subject, Long userId, Instant expiresAt) {
+
+        public boolean isExpired() {
+            return expiresAt == null || !expiresAt.isAfter(Instant.now());
+        }
+
+        public boolean isFor(AuthenticatedUser user) {
+            return subject.equals(user.getUsername())
+                    && (userId == null || userId.equals(user.getId()))
+                    && !isExpired();
+        }
+    }
+
+    private static final class TokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
\ No newline at end of file
@@ -2,8 +2,14 @@ package com.siddesh.expensetracker.controller;
 
 import com.siddesh.expensetracker.dto.AuthResponse;
 import com.siddesh.expensetracker.dto.LoginRequest;
+import com.siddesh.expensetracker.dto.RefreshRequest;
 import com.siddesh.expensetracker.dto.RegisterRequest;
 import com.siddesh.expensetracker.service.AuthService;
+import com.siddesh.expensetracker.service.AuthThrottledException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -11,6 +17,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/auth")
 public class AuthController {
 
@@ -20,13 +27,43 @@ public class AuthController {
         this.authService = authService;
     }
 
+    // Behind a proxy the remote address is only the client's with server.forward-headers-strategy set
     @PostMapping("/register")
-    public ResponseEntity<AuthResponse> register(@RequestBody RegisterRequest request) {
-        return ResponseEntity.ok(authService.register(request));
+    public ResponseEntity<AuthResponse> register(@RequestBody RegisterRequest request, HttpServletRequest httpRequest) {
+        try {
+            return ResponseEntity.ok(authService.register(request, httpRequest.getRemoteAddr()));
+        } catch (AuthThrottledException ex) {
+            return tooManyRequests(ex);
+        }
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@RequestBody LoginRequest request) {
-        return ResponseEntity.ok(authService.login(request));
+    public ResponseEntity<AuthResponse> login(@RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        try {
+            return ResponseEntity.ok(authService.login(request, httpRequest.getRemoteAddr()));
+        } catch (AuthThrottledException ex) {
+            return tooManyRequests(ex);
+        }
+    }
+
+    // Exchanges a refresh token for a new access/refresh pair; no password hashing involved
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@RequestBody RefreshRequest request) {
+        return authService.refresh(request.refreshToken())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody RefreshRequest request) {
+        authService.logout(request.refreshToken());
+        return ResponseEntity.noContent().build();
+    }
+
+    // Shared with ReactiveAuthController
+    static <T> ResponseEntity<T> tooManyRequests(AuthThrottledException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .build();
     }
 }
\ No newline at end of file
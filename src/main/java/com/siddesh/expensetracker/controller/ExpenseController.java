@@ -1,44 +1,199 @@
 package com.siddesh.expensetracker.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.siddesh.expensetracker.config.AuthenticatedUser;
+import com.siddesh.expensetracker.dto.BatchItemResult;
+import com.siddesh.expensetracker.dto.ExpenseChanges;
+import com.siddesh.expensetracker.dto.ExpensePage;
+import com.siddesh.expensetracker.dto.ExpenseSearchRequest;
+import com.siddesh.expensetracker.dto.ExpenseSearchResult;
 import com.siddesh.expensetracker.entity.Expense;
-import com.siddesh.expensetracker.entity.User;
-import com.siddesh.expensetracker.repository.UserRepository;
+import com.siddesh.expensetracker.mongo.service.UserDataVersionService;
+import com.siddesh.expensetracker.service.ExpenseSearchService;
 import com.siddesh.expensetracker.service.ExpenseService;
+import com.siddesh.expensetracker.service.ExpenseSyncService;
+import com.siddesh.expensetracker.service.events.ExpenseEventBroadcaster;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/expenses")
 public class ExpenseController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    // Clients may keep the response but must revalidate it with If-None-Match before reuse
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final ExpenseService expenseService;
-    private final UserRepository userRepository; // Inject UserRepository
+    private final UserDataVersionService userDataVersionService;
+    private final ExpenseSyncService expenseSyncService;
+    private final ExpenseSearchService expenseSearchService;
+    private final ExpenseEventBroadcaster expenseEventBroadcaster;
+    private final ObjectMapper objectMapper;
 
-    public ExpenseController(ExpenseService expenseService, UserRepository userRepository) {
+    public ExpenseController(ExpenseService expenseService,
+                             UserDataVersionService userDataVersionService,
+                             ExpenseSyncService expenseSyncService,
+                             ExpenseSearchService expenseSearchService,
+                             ExpenseEventBroadcaster expenseEventBroadcaster,
+                             ObjectMapper objectMapper) {
         this.expenseService = expenseService;
-        this.userRepository = userRepository;
+        this.userDataVersionService = userDataVersionService;
+        this.expenseSyncService = expenseSyncService;
+        this.expenseSearchService = expenseSearchService;
+        this.expenseEventBroadcaster = expenseEventBroadcaster;
+        this.objectMapper = objectMapper;
     }
 
-    // Helper method to get the current user's ID
-    private Long getCurrentUserId(UserDetails userDetails) {
-    return userRepository.findFirstByEmail(userDetails.getUsername())
-                .map(User::getId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    // The id travels with the principal resolved by JwtAuthFilter, so no lookup is needed here
+    private Long getCurrentUserId(AuthenticatedUser userDetails) {
+        return userDetails.getId();
+    }
+
+    /**
+     * Answers with 304 when the client's ETag still names the user's current data version,
+     * otherwise with the loaded response tagged with that version. The version is read before
+     * the data, so a concurrent write can only make the tag older than the body, never newer.
+     */
+    private <T> ResponseEntity<T> ifModified(Long userId, HttpHeaders requestHeaders, Supplier<ResponseEntity<T>> loader) {
+        // The user id is part of the tag so a shared client can't mistake another user's data for its own
+        String etag = "\"" + userId + "-" + userDataVersionService.currentVersion(userId) + "\"";
+        if (matches(requestHeaders.getIfNoneMatch(), etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+        }
+
+        ResponseEntity<T> response = loader.get();
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            return response;
+        }
+        return ResponseEntity.status(response.getStatusCode()).eTag(etag).cacheControl(REVALIDATE).body(response.getBody());
+    }
+
+    // If-None-Match uses the weak comparison, so a tag weakened by an intermediary still matches
+    private boolean matches(List<String> ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @GetMapping
-    public List<Expense> getAllExpenses(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<List<Expense>> getAllExpenses(@RequestHeader HttpHeaders headers,
+                                                        @AuthenticationPrincipal AuthenticatedUser userDetails) {
+        Long userId = getCurrentUserId(userDetails);
+        return ifModified(userId, headers, () -> ResponseEntity.ok(expenseService.getAllExpensesByUserId(userId)));
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<ExpensePage> getExpensePage(@RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false) Integer size,
+                                                      @AuthenticationPrincipal AuthenticatedUser userDetails) {
+        Long userId = getCurrentUserId(userDetails);
+        try {
+            return ResponseEntity.ok(expenseService.getExpensePage(userId, cursor, size));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Writes each expense as it comes off the Mongo cursor, so memory use does not grow with history size
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportExpenses(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @AuthenticationPrincipal AuthenticatedUser userDetails) {
+        Long userId = getCurrentUserId(userDetails);
+        boolean jsonArray = "json".equalsIgnoreCase(format);
+        if (!jsonArray && !"ndjson".equalsIgnoreCase(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            ObjectWriter writer = objectMapper.writerFor(Expense.class);
+            try (Stream<Expense> expenses = expenseService.streamExpenses(userId, from, to);
+                 SequenceWriter sequence = jsonArray
+                         ? writer.writeValuesAsArray(outputStream)
+                         : writer.withRootValueSeparator("\n").writeValues(outputStream)) {
+                Iterator<Expense> iterator = expenses.iterator();
+                while (iterator.hasNext()) {
+                    sequence.write(iterator.next());
+                }
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(jsonArray ? MediaType.APPLICATION_JSON : NDJSON)
+                .body(body);
+    }
+
+    // Delta sync: omit since for a full snapshot, then pass back the returned watermark
+    @GetMapping("/changes")
+    public ResponseEntity<ExpenseChanges> getChanges(@RequestParam(required = false) String since,
+                                                     @RequestParam(required = false) Integer limit,
+                                                     @AuthenticationPrincipal AuthenticatedUser userDetails) {
+        Long userId = getCurrentUserId(userDetails);
+        try {
+            return expenseSyncService.changesSince(userId, since, limit)
+                    .map(ResponseEntity::ok)
+                    // Deletions the client missed may have been forgotten; it has to start from a snapshot
+                    .orElse(ResponseEntity.status(HttpStatus.GONE).build());
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<ExpenseSearchResult> searchExpenses(@ModelAttribute ExpenseSearchRequest request,
+                                                              @AuthenticationPrincipal AuthenticatedUser userDetails) {
         Long userId = getCurrentUserId(userDetails);
-        return expenseService.getAllExpensesByUserId(userId);
+        try {
+            return ResponseEntity.ok(expenseSearchService.search(userId, request));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Category autocomplete: the user's categories starting with prefix, ignoring case
+    @GetMapping("/categories")
+    public ResponseEntity<List<String>> suggestCategories(@RequestParam(required = false) String prefix,
+                                                          @RequestParam(defaultValue = "10") int limit,
+                                                          @AuthenticationPrincipal AuthenticatedUser userDetails) {
+        Long userId = getCurrentUserId(userDetails);
+        return ResponseEntity.ok(expenseSearchService.suggestCategories(userId, prefix, limit));
+    }
+
+    // Pushes the user's expense changes as Server-Sent Events, so clients don't have to poll
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribeToEvents(@AuthenticationPrincipal AuthenticatedUser userDetails) {
+        Long userId = getCurrentUserId(userDetails);
+        return expenseEventBroadcaster.subscribe(userId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build());
     }
 
     @PostMapping
-    public ResponseEntity<Expense> createExpense(@RequestBody Expense expense, @AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<Expense> createExpense(@RequestBody Expense expense, @AuthenticationPrincipal AuthenticatedUser userDetails) {
         Long userId = getCurrentUserId(userDetails);
         Expense createdExpense = expenseService.createExpense(expense, userId);
         return new ResponseEntity<>(createdExpense, HttpStatus.CREATED);
@@ -47,25 +202,63 @@ public class ExpenseController {
 
 
     @GetMapping("/{id}")
-    public ResponseEntity<Expense> getExpenseById(@PathVariable Long id, @AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<Expense> getExpenseById(@PathVariable Long id,
+                                                  @RequestHeader HttpHeaders headers,
+                                                  @AuthenticationPrincipal AuthenticatedUser userDetails) {
         Long userId = getCurrentUserId(userDetails);
-        return expenseService.getExpenseByIdAndUserId(id, userId)
+        return ifModified(userId, headers, () -> expenseService.getExpenseByIdAndUserId(id, userId)
                 .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+                .orElse(ResponseEntity.notFound().build()));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Expense> updateExpense(@PathVariable Long id, @RequestBody Expense expenseDetails, @AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<Expense> updateExpense(@PathVariable Long id, @RequestBody Expense expenseDetails, @AuthenticationPrincipal AuthenticatedUser userDetails) {
         Long userId = getCurrentUserId(userDetails);
-        return expenseService.updateExpense(id, expenseDetails, userId)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        try {
+            return expenseService.updateExpense(id, expenseDetails, userId)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalStateException ex) {
+            // Other writes to this expense kept winning the race
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteExpense(@PathVariable Long id, @AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<Void> deleteExpense(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser userDetails) {
         Long userId = getCurrentUserId(userDetails);
         expenseService.deleteExpense(id, userId);
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> createExpenses(@RequestBody List<Expense> expenses, @AuthenticationPrincipal AuthenticatedUser userDetails) {
+        Long userId = getCurrentUserId(userDetails);
+        try {
+            return ResponseEntity.ok(expenseService.createExpenses(expenses, userId));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PutMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> updateExpenses(@RequestBody List<Expense> expenses, @AuthenticationPrincipal AuthenticatedUser userDetails) {
+        Long userId = getCurrentUserId(userDetails);
+        try {
+            return ResponseEntity.ok(expenseService.updateExpenses(expenses, userId));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // POST rather than DELETE because the ids travel in the request body
+    @PostMapping("/batch/delete")
+    public ResponseEntity<List<BatchItemResult>> deleteExpenses(@RequestBody List<Long> ids, @AuthenticationPrincipal AuthenticatedUser userDetails) {
+        Long userId = getCurrentUserId(userDetails);
+        try {
+            return ResponseEntity.ok(expenseService.deleteExpenses(ids, userId));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
 }
\ No newline at end of file
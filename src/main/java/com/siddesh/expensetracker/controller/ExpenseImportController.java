@@ -0,0 +1,67 @@
+package com.siddesh.expensetracker.controller;
+
+import com.siddesh.expensetracker.config.AuthenticatedUser;
+import com.siddesh.expensetracker.dto.ImportJobStatus;
+import com.siddesh.expensetracker.service.ExpenseImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/expenses/import")
+public class ExpenseImportController {
+
+    private final ExpenseImportService expenseImportService;
+
+    public ExpenseImportController(ExpenseImportService expenseImportService) {
+        this.expenseImportService = expenseImportService;
+    }
+
+    // The statement is the raw request body, read as a stream rather than a multipart upload.
+    // Pass the jobId of a job created with POST /jobs to poll its progress while this runs.
+    @PostMapping
+    public ResponseEntity<ImportJobStatus> importStatement(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String jobId,
+            HttpServletRequest request,
+            @AuthenticationPrincipal AuthenticatedUser userDetails) throws IOException {
+        try {
+            return ResponseEntity.ok(expenseImportService.importStatement(
+                    request.getInputStream(), format, jobId, userDetails.getId()));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException ex) {
+            // Another upload is writing to this job
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @PostMapping("/jobs")
+    public ResponseEntity<ImportJobStatus> createJob(@RequestParam(defaultValue = "csv") String format,
+                                                     @AuthenticationPrincipal AuthenticatedUser userDetails) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(expenseImportService.createJob(format, userDetails.getId()));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ImportJobStatus> getJob(@PathVariable String jobId,
+                                                  @AuthenticationPrincipal AuthenticatedUser userDetails) {
+        return expenseImportService.getJob(jobId, userDetails.getId())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.siddesh.expensetracker.controller;
+
+import com.siddesh.expensetracker.config.AuthenticatedUser;
+import com.siddesh.expensetracker.dto.ReportJobStatus;
+import com.siddesh.expensetracker.dto.ReportRequest;
+import com.siddesh.expensetracker.mongo.document.ReportJobDocument;
+import com.siddesh.expensetracker.service.ExpenseReportService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/reports")
+public class ExpenseReportController {
+
+    private final ExpenseReportService expenseReportService;
+
+    public ExpenseReportController(ExpenseReportService expenseReportService) {
+        this.expenseReportService = expenseReportService;
+    }
+
+    // 202 while the report is being computed; poll the job until it is COMPLETED, then download it
+    @PostMapping
+    public ResponseEntity<ReportJobStatus> submit(@RequestBody ReportRequest request,
+                                                  @AuthenticationPrincipal AuthenticatedUser userDetails) {
+        try {
+            ReportJobStatus job = expenseReportService.submit(userDetails.getId(), request);
+            return job.status() == ReportJobDocument.Status.COMPLETED
+                    ? ResponseEntity.ok(job)
+                    : ResponseEntity.accepted().body(job);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ReportJobStatus> getJob(@PathVariable String jobId,
+                                                  @AuthenticationPrincipal AuthenticatedUser userDetails) {
+        return expenseReportService.getJob(jobId, userDetails.getId())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{jobId}/download")
+    public ResponseEntity<Resource> download(@PathVariable String jobId,
+                                             @AuthenticationPrincipal AuthenticatedUser userDetails) {
+        return expenseReportService.getResult(jobId, userDetails.getId())
+                .<ResponseEntity<Resource>>map(result -> ResponseEntity.ok()
+                        .contentType(MediaType.parseMediaType(result.getContentType()))
+                        .contentLength(result.getGridFSFile().getLength())
+                        .header(HttpHeaders.CONTENT_DISPOSITION,
+                                ContentDisposition.attachment().filename(result.getFilename()).build().toString())
+                        .body(result))
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.siddesh.expensetracker.controller;
+
+import com.siddesh.expensetracker.config.AuthenticatedUser;
+import com.siddesh.expensetracker.dto.CategoryTotal;
+import com.siddesh.expensetracker.dto.PeriodTotal;
+import com.siddesh.expensetracker.service.ExpenseSummaryService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/expenses/summary")
+public class ExpenseSummaryController {
+
+    private final ExpenseSummaryService expenseSummaryService;
+
+    public ExpenseSummaryController(ExpenseSummaryService expenseSummaryService) {
+        this.expenseSummaryService = expenseSummaryService;
+    }
+
+    @GetMapping("/categories")
+    public List<CategoryTotal> totalsByCategory(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @AuthenticationPrincipal AuthenticatedUser userDetails) {
+        return expenseSummaryService.totalsByCategory(userDetails.getId(), from, to);
+    }
+
+    @GetMapping("/monthly")
+    public List<PeriodTotal> totalsByMonth(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @AuthenticationPrincipal AuthenticatedUser userDetails) {
+        return expenseSummaryService.totalsByMonth(userDetails.getId(), from, to);
+    }
+
+    @GetMapping("/daily")
+    public List<PeriodTotal> totalsByDay(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @AuthenticationPrincipal AuthenticatedUser userDetails) {
+        return expenseSummaryService.totalsByDay(userDetails.getId(), from, to);
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<Void> rebuildRollups(@AuthenticationPrincipal AuthenticatedUser userDetails) {
+        expenseSummaryService.rebuildRollups(userDetails.getId());
+        return ResponseEntity.noContent().build();
+    }
+}
\ No newline at end of file
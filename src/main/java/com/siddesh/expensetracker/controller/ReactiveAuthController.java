@@ -0,0 +1,70 @@
+package com.siddesh.expensetracker.controller;
+
+import com.siddesh.expensetracker.dto.AuthResponse;
+import com.siddesh.expensetracker.dto.LoginRequest;
+import com.siddesh.expensetracker.dto.RefreshRequest;
+import com.siddesh.expensetracker.dto.RegisterRequest;
+import com.siddesh.expensetracker.service.AuthThrottledException;
+import com.siddesh.expensetracker.service.ReactiveAuthService;
+import java.net.InetSocketAddress;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/auth")
+public class ReactiveAuthController {
+
+    private final ReactiveAuthService authService;
+
+    public ReactiveAuthController(ReactiveAuthService authService) {
+        this.authService = authService;
+    }
+
+    @PostMapping("/register")
+    public Mono<ResponseEntity<AuthResponse>> register(@RequestBody RegisterRequest request, ServerHttpRequest httpRequest) {
+        return authService.register(request, clientAddress(httpRequest))
+                .map(ResponseEntity::ok)
+                .onErrorResume(IllegalArgumentException.class, ex -> Mono.just(ResponseEntity.badRequest().build()))
+                .onErrorResume(AuthThrottledException.class, ex -> Mono.just(AuthController.tooManyRequests(ex)));
+    }
+
+    @PostMapping("/login")
+    public Mono<ResponseEntity<AuthResponse>> login(@RequestBody LoginRequest request, ServerHttpRequest httpRequest) {
+        return authService.login(request, clientAddress(httpRequest))
+                .map(ResponseEntity::ok)
+                .onErrorResume(AuthenticationException.class,
+                        ex -> Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build()))
+                .onErrorResume(AuthThrottledException.class, ex -> Mono.just(AuthController.tooManyRequests(ex)));
+    }
+
+    @PostMapping("/refresh")
+    public Mono<ResponseEntity<AuthResponse>> refresh(@RequestBody RefreshRequest request) {
+        return authService.refresh(request.refreshToken())
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+    }
+
+    @PostMapping("/logout")
+    public Mono<ResponseEntity<Void>> logout(@RequestBody RefreshRequest request) {
+        return authService.logout(request.refreshToken())
+                .thenReturn(ResponseEntity.noContent().<Void>build());
+    }
+
+    // Same form as HttpServletRequest#getRemoteAddr, so both stacks key the limiter alike
+    private static String clientAddress(ServerHttpRequest request) {
+        InetSocketAddress address = request.getRemoteAddress();
+        if (address == null) {
+            return "unknown";
+        }
+        return address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.siddesh.expensetracker.controller;
+
+import com.siddesh.expensetracker.config.AuthenticatedUser;
+import com.siddesh.expensetracker.entity.Expense;
+import com.siddesh.expensetracker.service.ReactiveExpenseService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * WebFlux version of {@link ExpenseController} for the {@code reactive} profile. Lists are
+ * returned as a streamed JSON array, or as NDJSON when the client accepts
+ * {@code application/x-ndjson}.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/expenses")
+public class ReactiveExpenseController {
+
+    private final ReactiveExpenseService expenseService;
+
+    public ReactiveExpenseController(ReactiveExpenseService expenseService) {
+        this.expenseService = expenseService;
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Expense> getAllExpenses(@AuthenticationPrincipal AuthenticatedUser userDetails) {
+        return expenseService.getAllExpensesByUserId(userDetails.getId());
+    }
+
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<Expense> exportExpenses(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @AuthenticationPrincipal AuthenticatedUser userDetails) {
+        return expenseService.streamExpenses(userDetails.getId(), from, to);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Expense>> createExpense(@RequestBody Expense expense, @AuthenticationPrincipal AuthenticatedUser userDetails) {
+        return expenseService.createExpense(expense, userDetails.getId())
+                .map(created -> new ResponseEntity<>(created, HttpStatus.CREATED));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Expense>> getExpenseById(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser userDetails) {
+        return expenseService.getExpenseByIdAndUserId(id, userDetails.getId())
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Expense>> updateExpense(@PathVariable Long id, @RequestBody Expense expenseDetails, @AuthenticationPrincipal AuthenticatedUser userDetails) {
+        return expenseService.updateExpense(id, expenseDetails, userDetails.getId())
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                // Other writes to this expense kept winning the race
+                .onErrorResume(IllegalStateException.class, ex -> Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).build()));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteExpense(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser userDetails) {
+        return expenseService.deleteExpense(id, userDetails.getId())
+                .thenReturn(ResponseEntity.noContent().build());
+    }
+}
\ No newline at end of file
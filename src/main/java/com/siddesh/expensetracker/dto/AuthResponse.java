@@ -1,3 +1,7 @@
 package com.siddesh.expensetracker.dto;
 
-public record AuthResponse(String token) {}
\ No newline at end of file
+/**
+ * {@code token} is the short-lived access token and {@code expiresIn} its lifetime in seconds.
+ * {@code refreshToken} is exchanged at {@code /api/auth/refresh} for a new pair.
+ */
+public record AuthResponse(String token, String refreshToken, long expiresIn) {}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.siddesh.expensetracker.dto;
+
+/**
+ * Outcome of one element of a batch request; {@code index} is its position in the request body.
+ */
+public record BatchItemResult(int index, Long id, Status status, String message) {
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        DELETED,
+        NOT_FOUND,
+        FAILED
+    }
+
+    public static BatchItemResult of(int index, Long id, Status status) {
+        return new BatchItemResult(index, id, status, null);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,6 @@
+package com.siddesh.expensetracker.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+public record CategoryTotal(String category, BigDecimal total, long count) implements Serializable {}
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.siddesh.expensetracker.dto;
+
+import java.util.List;
+
+import com.siddesh.expensetracker.entity.Expense;
+
+/**
+ * Expenses created or updated, and ids of expenses deleted, after the client's watermark.
+ * The client passes {@code watermark} as {@code since} on its next sync, immediately when
+ * {@code hasMore} is set.
+ */
+public record ExpenseChanges(List<Expense> upserted, List<Long> deleted, String watermark, boolean hasMore) {}
\ No newline at end of file
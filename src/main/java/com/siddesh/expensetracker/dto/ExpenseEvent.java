@@ -0,0 +1,27 @@
+package com.siddesh.expensetracker.dto;
+
+import com.siddesh.expensetracker.entity.Expense;
+
+/**
+ * One change pushed to subscribed clients. {@code expense} is the new state, absent for deletions.
+ */
+public record ExpenseEvent(Type type, Long expenseId, Expense expense) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static ExpenseEvent created(Expense expense) {
+        return new ExpenseEvent(Type.CREATED, expense.getId(), expense);
+    }
+
+    public static ExpenseEvent updated(Expense expense) {
+        return new ExpenseEvent(Type.UPDATED, expense.getId(), expense);
+    }
+
+    public static ExpenseEvent deleted(Long expenseId) {
+        return new ExpenseEvent(Type.DELETED, expenseId, null);
+    }
+}
\ No newline at end of file
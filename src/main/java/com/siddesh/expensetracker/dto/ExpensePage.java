@@ -0,0 +1,10 @@
+package com.siddesh.expensetracker.dto;
+
+import java.util.List;
+
+import com.siddesh.expensetracker.entity.Expense;
+
+/**
+ * One page of expenses, newest first. {@code nextCursor} is null on the last page.
+ */
+public record ExpensePage(List<Expense> items, String nextCursor) {}
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.siddesh.expensetracker.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+/**
+ * Filters for {@code GET /api/expenses/search}; every field is optional. {@code q} is matched
+ * against whole words of the description, so {@code "coffee -starbucks"} and quoted phrases
+ * work as in Mongo's {@code $text}. {@code category} is an exact name. Amounts and dates are
+ * inclusive bounds.
+ */
+public record ExpenseSearchRequest(
+        String q,
+        String category,
+        BigDecimal minAmount,
+        BigDecimal maxAmount,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        Integer page,
+        Integer size) {}
\ No newline at end of file
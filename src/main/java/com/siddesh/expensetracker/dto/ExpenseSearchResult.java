@@ -0,0 +1,10 @@
+package com.siddesh.expensetracker.dto;
+
+import java.util.List;
+
+import com.siddesh.expensetracker.entity.Expense;
+
+/**
+ * One page of search results: best matches first when searching text, otherwise newest first.
+ */
+public record ExpenseSearchResult(List<Expense> items, int page, boolean hasMore) {}
\ No newline at end of file
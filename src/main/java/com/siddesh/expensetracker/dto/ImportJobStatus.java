@@ -0,0 +1,34 @@
+package com.siddesh.expensetracker.dto;
+
+import java.util.List;
+
+import com.siddesh.expensetracker.mongo.document.ImportJobDocument;
+
+/**
+ * Progress report for a statement import. {@code errors} holds at most the first few rejected
+ * rows; {@code rowsRejected} is the full count.
+ */
+public record ImportJobStatus(
+        String jobId,
+        ImportJobDocument.Status status,
+        long rowsRead,
+        long rowsImported,
+        long rowsRejected,
+        long rowsSkipped,
+        long committedRows,
+        List<ImportJobDocument.RowError> errors,
+        String failureMessage) {
+
+    public static ImportJobStatus of(ImportJobDocument job) {
+        return new ImportJobStatus(
+                job.getId(),
+                job.getStatus(),
+                job.getRowsRead(),
+                job.getRowsImported(),
+                job.getRowsRejected(),
+                job.getRowsSkipped(),
+                job.getCommittedRows(),
+                job.getErrors(),
+                job.getFailureMessage());
+    }
+}
\ No newline at end of file
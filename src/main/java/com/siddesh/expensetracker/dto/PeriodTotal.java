@@ -0,0 +1,9 @@
+package com.siddesh.expensetracker.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Spending for one period: {@code yyyy-MM} for monthly totals, {@code yyyy-MM-dd} for daily ones.
+ */
+public record PeriodTotal(String period, BigDecimal total, long count) implements Serializable {}
\ No newline at end of file
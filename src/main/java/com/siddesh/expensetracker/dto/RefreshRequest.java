@@ -0,0 +1,3 @@
+package com.siddesh.expensetracker.dto;
+
+public record RefreshRequest(String refreshToken) {}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.siddesh.expensetracker.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import com.siddesh.expensetracker.mongo.document.ReportJobDocument;
+
+public record ReportJobStatus(
+        String jobId,
+        ReportJobDocument.Status status,
+        ReportJobDocument.Grouping grouping,
+        ReportJobDocument.Format format,
+        LocalDate from,
+        LocalDate to,
+        long rows,
+        String failureMessage,
+        Instant createdAt,
+        Instant completedAt) {
+
+    public static ReportJobStatus of(ReportJobDocument job) {
+        return new ReportJobStatus(
+                job.getId(),
+                job.getStatus(),
+                job.getGrouping(),
+                job.getFormat(),
+                job.getFrom(),
+                job.getTo(),
+                job.getRows(),
+                job.getFailureMessage(),
+                job.getCreatedAt(),
+                job.getCompletedAt());
+    }
+}
\ No newline at end of file
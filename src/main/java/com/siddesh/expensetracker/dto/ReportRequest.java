@@ -0,0 +1,9 @@
+package com.siddesh.expensetracker.dto;
+
+import java.time.LocalDate;
+
+/**
+ * A report to compute in the background. {@code grouping} is {@code category} or {@code month};
+ * {@code format} is {@code csv} or {@code json}. Either date may be omitted.
+ */
+public record ReportRequest(LocalDate from, LocalDate to, String grouping, String format) {}
\ No newline at end of file
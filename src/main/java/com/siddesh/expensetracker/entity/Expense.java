@@ -1,5 +1,6 @@
 package com.siddesh.expensetracker.entity;
 
+import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
@@ -12,7 +13,7 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class Expense {
+public class Expense implements Serializable {
 
     private Long id;
 
@@ -25,5 +26,5 @@ public class Expense {
     private String category;
 
     @JsonIgnore
-    private User user;
+    private transient User user;
 }
\ No newline at end of file
@@ -0,0 +1,130 @@
+package com.siddesh.expensetracker.mongo.config;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.client.MongoCollection;
+import com.siddesh.expensetracker.mongo.document.ExpenseDocument;
+
+/**
+ * Runs {@code explain} on the query shapes issued against {@code expenses} and reports any
+ * that the planner would answer with a collection scan. {@code mongo.indexes.verify} selects
+ * {@code off}, {@code warn} (log) or {@code fail} (abort startup).
+ */
+@Component
+@Order(2)
+public class ExpenseIndexVerifier implements ApplicationRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExpenseIndexVerifier.class);
+
+    private final MongoOperations mongoOperations;
+    private final String mode;
+
+    public ExpenseIndexVerifier(MongoOperations mongoOperations,
+                                @Value("${mongo.indexes.verify:off}") String mode) {
+        this.mongoOperations = mongoOperations;
+        this.mode = mode;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if ("off".equalsIgnoreCase(mode)) {
+            return;
+        }
+
+        MongoCollection<Document> expenses = mongoOperations.getCollection(mongoOperations.getCollectionName(ExpenseDocument.class));
+        List<String> unindexed = new ArrayList<>();
+        try {
+            queryShapes().forEach((name, shape) -> {
+                Document explain = expenses.find(shape.filter()).sort(shape.sort()).explain();
+                Object winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan");
+                if (usesCollectionScan(winningPlan)) {
+                    unindexed.add(name);
+                }
+            });
+        } catch (RuntimeException ex) {
+            if ("fail".equalsIgnoreCase(mode)) {
+                throw ex;
+            }
+            LOGGER.warn("Could not verify expense index usage: {}", ex.getMessage());
+            return;
+        }
+
+        if (unindexed.isEmpty()) {
+            LOGGER.info("All expense queries are served by an index");
+            return;
+        }
+        String message = "Expense queries without a supporting index: " + unindexed;
+        if ("fail".equalsIgnoreCase(mode)) {
+            throw new IllegalStateException(message);
+        }
+        LOGGER.warn(message);
+    }
+
+    // Mirrors the filters and sorts issued by ExpenseDocumentRepository, ExpenseServiceImpl, ExpenseSyncService
+    // and ExpenseSearchService
+    private Map<String, QueryShape> queryShapes() {
+        Date date = new Date();
+        Map<String, QueryShape> shapes = new LinkedHashMap<>();
+        shapes.put("findByUserId", new QueryShape(
+                new Document("user_id", 0L),
+                new Document()));
+        shapes.put("findByExpenseIdAndUserId", new QueryShape(
+                new Document("expense_id", 0L).append("user_id", 0L),
+                new Document()));
+        shapes.put("findByUserIdOrderByDateDescExpenseIdDesc", new QueryShape(
+                new Document("user_id", 0L),
+                new Document("date", -1).append("expense_id", -1)));
+        shapes.put("findPageAfter", new QueryShape(
+                new Document("user_id", 0L).append("$or", List.of(
+                        new Document("date", new Document("$lt", date)),
+                        new Document("date", date).append("expense_id", new Document("$lt", 0L)),
+                        new Document("date", null))),
+                new Document("date", -1).append("expense_id", -1)));
+        shapes.put("findUndatedPageAfter", new QueryShape(
+                new Document("user_id", 0L).append("date", null).append("expense_id", new Document("$lt", 0L)),
+                new Document("expense_id", -1)));
+        shapes.put("streamExpenses", new QueryShape(
+                new Document("user_id", 0L).append("date", new Document("$gte", date).append("$lte", date)),
+                new Document("date", 1).append("expense_id", 1)));
+        shapes.put("changesSince", new QueryShape(
+                new Document("user_id", 0L).append("change_seq", new Document("$gt", 0L).append("$lte", 0L)),
+                new Document("change_seq", 1)));
+        shapes.put("search", new QueryShape(
+                new Document("$text", new Document("$search", "coffee")).append("user_id", 0L),
+                new Document()));
+        shapes.put("searchByCategory", new QueryShape(
+                new Document("user_id", 0L).append("category_id", new Document("$in", List.of(0L))),
+                new Document("date", -1).append("expense_id", -1)));
+        return shapes;
+    }
+
+    // Plans are nested trees (inputStage / inputStages / queryPlan), so search the whole structure
+    private boolean usesCollectionScan(Object node) {
+        if (node instanceof Document document) {
+            if ("COLLSCAN".equals(document.get("stage"))) {
+                return true;
+            }
+            return document.values().stream().anyMatch(this::usesCollectionScan);
+        }
+        if (node instanceof List<?> list) {
+            return list.stream().anyMatch(this::usesCollectionScan);
+        }
+        return false;
+    }
+
+    private record QueryShape(Document filter, Document sort) {}
+}
\ No newline at end of file
@@ -1,5 +1,11 @@
 package com.siddesh.expensetracker.mongo.config;
 
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
 
@@ -9,4 +15,32 @@ import org.springframework.data.mongodb.repository.config.EnableMongoRepositorie
 	"com.siddesh.expensetracker.repository"
 })
 public class MongoConfiguration {
-}
+
+	/**
+	 * Connection pool sizing. With virtual threads the pool, not the request thread count, is what
+	 * bounds concurrent Mongo work, so it is sized explicitly; requests beyond it wait at most
+	 * {@code mongo.pool.max-wait-time} for a connection instead of queueing indefinitely. Unset or
+	 * empty properties keep whatever the connection string or driver default says.
+	 */
+	@Bean
+	public MongoClientSettingsBuilderCustomizer mongoPoolCustomizer(
+			@Value("${mongo.pool.max-size:#{null}}") Integer maxSize,
+			@Value("${mongo.pool.min-size:#{null}}") Integer minSize,
+			@Value("${mongo.pool.max-connecting:#{null}}") Integer maxConnecting,
+			@Value("${mongo.pool.max-wait-time:#{null}}") Duration maxWaitTime) {
+		return settings -> settings.applyToConnectionPoolSettings(pool -> {
+			if (maxSize != null) {
+				pool.maxSize(maxSize);
+			}
+			if (minSize != null) {
+				pool.minSize(minSize);
+			}
+			if (maxConnecting != null) {
+				pool.maxConnecting(maxConnecting);
+			}
+			if (maxWaitTime != null) {
+				pool.maxWaitTime(maxWaitTime.toMillis(), TimeUnit.MILLISECONDS);
+			}
+		});
+	}
+}
\ No newline at end of file
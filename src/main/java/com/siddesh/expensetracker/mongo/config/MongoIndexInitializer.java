@@ -0,0 +1,73 @@
+package com.siddesh.expensetracker.mongo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the indexes declared on {@code @Document} classes when the application starts.
+ * Unlike Spring Data's auto-index-creation, a single index that cannot be built (for example a
+ * unique index over existing duplicates) is logged instead of aborting startup.
+ */
+@Component
+@Order(1)
+public class MongoIndexInitializer implements ApplicationRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MongoIndexInitializer.class);
+
+    private final MongoOperations mongoOperations;
+    private final MappingContext<? extends MongoPersistentEntity<?>, MongoPersistentProperty> mappingContext;
+    private final boolean enabled;
+
+    public MongoIndexInitializer(MongoOperations mongoOperations,
+                                 @Value("${mongo.indexes.create-on-startup:false}") boolean enabled) {
+        this.mongoOperations = mongoOperations;
+        this.mappingContext = mongoOperations.getConverter().getMappingContext();
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+
+        for (MongoPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+            if (entity.isAnnotationPresent(Document.class)) {
+                createIndexes(entity);
+            }
+        }
+    }
+
+    /**
+     * Creates the indexes declared on one document class, e.g. after a migration has dropped
+     * an index that conflicted with them.
+     */
+    public void createIndexes(Class<?> type) {
+        createIndexes(mappingContext.getRequiredPersistentEntity(type));
+    }
+
+    private void createIndexes(MongoPersistentEntity<?> entity) {
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        IndexOperations indexOperations = mongoOperations.indexOps(entity.getType());
+        resolver.resolveIndexFor(entity.getTypeInformation()).forEach(index -> {
+            try {
+                indexOperations.createIndex(index);
+            } catch (RuntimeException ex) {
+                LOGGER.warn("Could not create index {} on {}: {}",
+                        index.getIndexKeys().toJson(), entity.getCollection(), ex.getMessage());
+            }
+        });
+    }
+}
\ No newline at end of file
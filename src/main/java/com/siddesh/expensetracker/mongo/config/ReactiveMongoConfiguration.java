@@ -0,0 +1,14 @@
+package com.siddesh.expensetracker.mongo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
+
+@Configuration
+@Profile("reactive")
+@EnableReactiveMongoRepositories(basePackages = {
+	"com.siddesh.expensetracker.mongo.repository",
+	"com.siddesh.expensetracker.repository"
+})
+public class ReactiveMongoConfiguration {
+}
\ No newline at end of file
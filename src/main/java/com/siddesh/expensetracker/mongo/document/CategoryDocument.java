@@ -0,0 +1,39 @@
+package com.siddesh.expensetracker.mongo.document;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of a user's category dictionary. Expenses refer to it by id, so each name is
+ * stored once per user rather than on every expense. Entries are never renamed or removed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "categories")
+@CompoundIndexes({
+        @CompoundIndex(name = "user_name", def = "{'user_id': 1, 'name': 1}", unique = true),
+        // Autocomplete: a case-insensitive prefix becomes a range scan on the lower-cased name
+        @CompoundIndex(name = "user_name_key", def = "{'user_id': 1, 'name_key': 1}")
+})
+public class CategoryDocument {
+
+    @Id
+    private Long id;
+
+    @Field("user_id")
+    private Long userId;
+
+    private String name;
+
+    // Lower-cased name
+    @Field("name_key")
+    private String nameKey;
+}
\ No newline at end of file
@@ -4,6 +4,8 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -13,10 +15,19 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "expenses")
+@CompoundIndexes({
+        @CompoundIndex(name = "user_expense", def = "{'user_id': 1, 'expense_id': 1}", unique = true),
+        // Also serves keyset pages and date-range scans, which sort on (date, expense_id)
+        @CompoundIndex(name = "user_date", def = "{'user_id': 1, 'date': -1, 'expense_id': -1}"),
+        @CompoundIndex(name = "user_category_id_date", def = "{'user_id': 1, 'category_id': 1, 'date': -1}"),
+        @CompoundIndex(name = "user_change", def = "{'user_id': 1, 'change_seq': 1}"),
+        // Text searches must match user_id exactly, so they only ever read one user's index entries
+        @CompoundIndex(name = "user_description_text", def = "{'user_id': 1, 'description': 'text'}")
+})
 public class ExpenseDocument {
 
     @Id
@@ -34,5 +45,14 @@ public class ExpenseDocument {
 
     private LocalDate date;
 
+    // Entry in the user's category dictionary, see CategoryDictionary
+    @Field("category_id")
+    private Long categoryId;
+
+    // Category name of expenses written before category_id existed, until ExpenseCategoryMigration moves them over
     private String category;
+
+    // Per-user sequence of the last write to this expense; null for expenses written before delta sync
+    @Field("change_seq")
+    private Long changeSequence;
 }
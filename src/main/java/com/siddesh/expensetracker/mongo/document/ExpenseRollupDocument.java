@@ -0,0 +1,51 @@
+package com.siddesh.expensetracker.mongo.document;
+
+import java.math.BigDecimal;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Running total of one user's spending in one category for one month. The id is derived from
+ * those three values so increments can upsert without a lookup.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "expense_rollups")
+@CompoundIndex(name = "user_month", def = "{'user_id': 1, 'month': 1}")
+public class ExpenseRollupDocument {
+
+    /** Month value used for expenses that have no date. */
+    public static final String UNDATED = "";
+
+    @Id
+    private String id;
+
+    @Field("user_id")
+    private Long userId;
+
+    /** {@code yyyy-MM}, or {@link #UNDATED}. */
+    private String month;
+
+    private String category;
+
+    // Stored as Decimal128 so $inc works on it; expense amounts themselves stay as they are
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal total;
+
+    private long count;
+
+    public static String idOf(Long userId, String month, String category) {
+        return userId + ":" + month + ":" + (category == null ? "" : category);
+    }
+}
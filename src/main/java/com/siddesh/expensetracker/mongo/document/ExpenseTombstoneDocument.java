@@ -0,0 +1,41 @@
+package com.siddesh.expensetracker.mongo.document;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Marker left behind by a deleted expense so delta sync can report the deletion. Mongo removes
+ * it once {@code expireAt} has passed; clients that last synced before that must resync fully.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "expense_tombstones")
+@CompoundIndex(name = "user_change", def = "{'user_id': 1, 'change_seq': 1}")
+public class ExpenseTombstoneDocument {
+
+    // The deleted expense's id; expense ids are never reused
+    @Id
+    private Long expenseId;
+
+    @Field("user_id")
+    private Long userId;
+
+    @Field("change_seq")
+    private long changeSequence;
+
+    @Indexed(name = "expire_at", expireAfter = "0s")
+    @Field("expire_at")
+    private Instant expireAt;
+}
\ No newline at end of file
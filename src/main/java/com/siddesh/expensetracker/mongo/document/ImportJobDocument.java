@@ -0,0 +1,86 @@
+package com.siddesh.expensetracker.mongo.document;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress of one statement import. Saved after every committed batch, so an interrupted
+ * import can be resumed by re-uploading the same file with the job id.
+ *
+ * <p>The upload writing to a job holds a lease on it, renewed with every batch; another upload
+ * can only take the job over once the lease has run out.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "import_jobs")
+public class ImportJobDocument {
+
+    public enum Status {
+        /** Created ahead of its upload, so the client has the id to poll before it starts sending. */
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    @Id
+    private String id;
+
+    @Indexed
+    @Field("user_id")
+    private Long userId;
+
+    private String format;
+
+    private Status status;
+
+    /** Statement rows consumed so far, including rejected and skipped ones. */
+    private long rowsRead;
+
+    private long rowsImported;
+
+    private long rowsRejected;
+
+    private long rowsSkipped;
+
+    /** Rows up to and including this number are durably imported; a resume starts after it. */
+    private long committedRows;
+
+    /**
+     * Expense id range of the batch being written. Non-zero only while a batch is in flight, so
+     * a resume knows which possibly half-written expenses to discard.
+     */
+    private long pendingFirstId;
+
+    private int pendingCount;
+
+    @Builder.Default
+    private List<RowError> errors = new ArrayList<>();
+
+    private String failureMessage;
+
+    @Field("lease_owner")
+    private String leaseOwner;
+
+    @Field("lease_expires_at")
+    private Instant leaseExpiresAt;
+
+    private Instant createdAt;
+
+    private Instant updatedAt;
+
+    public record RowError(long row, String message) {}
+}
\ No newline at end of file
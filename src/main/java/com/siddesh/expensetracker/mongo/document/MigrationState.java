@@ -0,0 +1,34 @@
+package com.siddesh.expensetracker.mongo.document;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress of a batched data migration, so a restarted node resumes where the last batch ended.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "migrations")
+public class MigrationState {
+
+    // Name of the migration
+    @Id
+    private String id;
+
+    // _id of the last document processed, in _id order
+    @Field("last_id")
+    private String lastId;
+
+    private long migrated;
+
+    @Field("completed_at")
+    private Instant completedAt;
+}
\ No newline at end of file
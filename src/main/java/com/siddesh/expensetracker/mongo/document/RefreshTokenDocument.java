@@ -0,0 +1,46 @@
+package com.siddesh.expensetracker.mongo.document;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A refresh token, stored by its SHA-256 hash so a database leak does not leak usable tokens.
+ * Tokens issued by rotating one another share a family, which is revoked as a whole when an
+ * already rotated token is presented again. Mongo removes the document once it has expired.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "refresh_tokens")
+public class RefreshTokenDocument {
+
+    // Hex SHA-256 of the token
+    @Id
+    private String id;
+
+    @Indexed(name = "family")
+    private String family;
+
+    @Field("user_id")
+    private Long userId;
+
+    private String email;
+
+    // Set when the token has been exchanged for its successor
+    @Field("rotated_at")
+    private Instant rotatedAt;
+
+    @Indexed(name = "expires_at", expireAfter = "0s")
+    @Field("expires_at")
+    private Instant expiresAt;
+}
\ No newline at end of file
@@ -0,0 +1,98 @@
+package com.siddesh.expensetracker.mongo.document;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A background report over a user's expenses. The result is stored in GridFS. Jobs are unique
+ * per user and {@code paramsKey}, which includes the user's data version, so asking again for
+ * the same report returns the existing job until the user's expenses change.
+ *
+ * <p>A running job is leased to one node. If that node dies the lease runs out and any node
+ * picks the job up again.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "report_jobs")
+@CompoundIndexes({
+        @CompoundIndex(name = "user_params", def = "{'user_id': 1, 'params_key': 1}", unique = true),
+        @CompoundIndex(name = "status_lease", def = "{'status': 1, 'lease_expires_at': 1}")
+})
+public class ReportJobDocument {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    public enum Grouping {
+        CATEGORY,
+        MONTH
+    }
+
+    public enum Format {
+        CSV,
+        JSON
+    }
+
+    @Id
+    private String id;
+
+    @Field("user_id")
+    private Long userId;
+
+    @Field("params_key")
+    private String paramsKey;
+
+    private LocalDate from;
+
+    private LocalDate to;
+
+    private Grouping grouping;
+
+    private Format format;
+
+    private Status status;
+
+    private int attempts;
+
+    @Field("lease_owner")
+    private String leaseOwner;
+
+    @Field("lease_expires_at")
+    private Instant leaseExpiresAt;
+
+    // GridFS id of the finished report
+    @Field("result_file_id")
+    private String resultFileId;
+
+    /** Rows in the finished report, one per category or month. */
+    private long rows;
+
+    private String failureMessage;
+
+    private Instant createdAt;
+
+    private Instant completedAt;
+
+    // Finished jobs and their files are deleted after this
+    @Indexed(name = "expires_at")
+    @Field("expires_at")
+    private Instant expiresAt;
+}
\ No newline at end of file
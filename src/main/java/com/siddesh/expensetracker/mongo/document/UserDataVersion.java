@@ -0,0 +1,44 @@
+package com.siddesh.expensetracker.mongo.document;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "user_data_versions")
+public class UserDataVersion {
+
+    // The user id
+    @Id
+    private Long id;
+
+    private long version;
+
+    // Last change sequence handed out to the user's writes, see UserDataVersionService#reserveChanges
+    @Field("change_seq")
+    private long changeSequence;
+
+    // Reservations whose writes have not reported back yet, see UserDataVersionService#bump
+    private List<PendingChange> pending;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PendingChange {
+
+        // First change sequence of the reservation
+        private long first;
+
+        @Field("expires_at")
+        private Instant expiresAt;
+    }
+}
\ No newline at end of file
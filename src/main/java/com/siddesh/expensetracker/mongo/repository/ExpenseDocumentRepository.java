@@ -1,9 +1,12 @@
 package com.siddesh.expensetracker.mongo.repository;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 import com.siddesh.expensetracker.mongo.document.ExpenseDocument;
 
@@ -13,5 +16,14 @@ public interface ExpenseDocumentRepository extends MongoRepository<ExpenseDocume
 
     Optional<ExpenseDocument> findByExpenseIdAndUserId(Long expenseId, Long userId);
 
-    Optional<ExpenseDocument> findByExpenseId(Long expenseId);
+    // Keyset pagination, newest first. Expenses without a date sort after every dated one.
+    List<ExpenseDocument> findByUserIdOrderByDateDescExpenseIdDesc(Long userId, Limit limit);
+
+    @Query(value = "{ 'user_id': ?0, '$or': [ { 'date': { '$lt': ?1 } }, { 'date': ?1, 'expense_id': { '$lt': ?2 } }, { 'date': null } ] }",
+            sort = "{ 'date': -1, 'expense_id': -1 }")
+    List<ExpenseDocument> findPageAfter(Long userId, LocalDate date, Long expenseId, Limit limit);
+
+    @Query(value = "{ 'user_id': ?0, 'date': null, 'expense_id': { '$lt': ?1 } }",
+            sort = "{ 'expense_id': -1 }")
+    List<ExpenseDocument> findUndatedPageAfter(Long userId, Long expenseId, Limit limit);
 }
@@ -0,0 +1,23 @@
+package com.siddesh.expensetracker.mongo.repository;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import com.siddesh.expensetracker.mongo.document.ExpenseDocument;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link ExpenseDocumentRepository} for the {@code reactive} profile.
+ */
+@Profile("reactive")
+public interface ReactiveExpenseDocumentRepository extends ReactiveMongoRepository<ExpenseDocument, String> {
+
+    Flux<ExpenseDocument> findByUserId(Long userId);
+
+    Flux<ExpenseDocument> findByUserIdOrderByDateDescExpenseIdDesc(Long userId, Limit limit);
+
+    Mono<ExpenseDocument> findByExpenseIdAndUserId(Long expenseId, Long userId);
+}
\ No newline at end of file
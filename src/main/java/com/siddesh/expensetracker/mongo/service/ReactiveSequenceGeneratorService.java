@@ -0,0 +1,117 @@
+package com.siddesh.expensetracker.mongo.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.siddesh.expensetracker.mongo.document.DatabaseSequence;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link SequenceGeneratorService}, reserving blocks from the same
+ * {@code database_sequences} counters. The two own separate blocks, so ids stay unique when both
+ * run in one process. Callers waiting for a refill share a single reservation round trip.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveSequenceGeneratorService {
+
+    private final ReactiveMongoOperations mongoOperations;
+    private final MeterRegistry meterRegistry;
+    private final int blockSize;
+    private final ConcurrentMap<String, SequenceAllocator> allocators = new ConcurrentHashMap<>();
+
+    public ReactiveSequenceGeneratorService(ReactiveMongoOperations mongoOperations,
+                                            MeterRegistry meterRegistry,
+                                            @Value("${sequence.block-size:100}") int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("sequence.block-size must be at least 1");
+        }
+        this.mongoOperations = mongoOperations;
+        this.meterRegistry = meterRegistry;
+        this.blockSize = blockSize;
+    }
+
+    public Mono<Long> getNextSequence(String sequenceName) {
+        return allocators.computeIfAbsent(sequenceName, SequenceAllocator::new).next();
+    }
+
+    private final class SequenceAllocator {
+
+        private final String sequenceName;
+        private final AtomicReference<Refill> refill = new AtomicReference<>();
+        private final Timer reserveTimer;
+        private volatile Block current = new Block(1, 0);
+
+        private SequenceAllocator(String sequenceName) {
+            this.sequenceName = sequenceName;
+            this.reserveTimer = Timer.builder("sequence.reserve")
+                    .description("Round trips to database_sequences to reserve a block of ids")
+                    .tag("sequence", sequenceName)
+                    .register(meterRegistry);
+        }
+
+        Mono<Long> next() {
+            return Mono.defer(() -> {
+                Block block = current;
+                long id = block.next.getAndIncrement();
+                return id <= block.last ? Mono.just(id) : refill(block).then(next());
+            });
+        }
+
+        private Mono<Block> refill(Block exhausted) {
+            Refill pending = refill.get();
+            if (pending == null || pending.exhausted() != exhausted) {
+                Refill created = new Refill(exhausted, increment(blockSize)
+                        .map(last -> new Block(last - blockSize + 1, last))
+                        .doOnNext(block -> current = block)
+                        // Forget a failed reservation so the next caller tries again
+                        .doOnError(error -> refill.updateAndGet(r -> r != null && r.exhausted() == exhausted ? null : r))
+                        .cache());
+                pending = refill.compareAndSet(pending, created) ? created : refill.get();
+            }
+            return pending.block();
+        }
+
+        // Emits the new counter value, i.e. the last id of the reserved range
+        private Mono<Long> increment(int count) {
+            return Mono.defer(() -> {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                return mongoOperations.findAndModify(
+                                Query.query(Criteria.where("_id").is(sequenceName)),
+                                new Update().inc("value", count),
+                                FindAndModifyOptions.options().returnNew(true).upsert(true),
+                                DatabaseSequence.class)
+                        .map(DatabaseSequence::getValue)
+                        .defaultIfEmpty((long) count)
+                        .doFinally(signal -> sample.stop(reserveTimer));
+            });
+        }
+    }
+
+    private record Refill(Block exhausted, Mono<Block> block) {}
+
+    private static final class Block {
+
+        private final AtomicLong next;
+        private final long last;
+
+        private Block(long first, long last) {
+            this.next = new AtomicLong(first);
+            this.last = last;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.siddesh.expensetracker.mongo.service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.siddesh.expensetracker.mongo.document.UserDataVersion;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link UserDataVersionService} for the reactive stack, writing the
+ * same {@code user_data_versions} documents with the same updates.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveUserDataVersionService {
+
+    private final ReactiveMongoOperations mongoOperations;
+    private final Duration pendingTimeout;
+
+    public ReactiveUserDataVersionService(ReactiveMongoOperations mongoOperations,
+                                          @Value("${expenses.sync.pending-timeout:1m}") Duration pendingTimeout) {
+        this.mongoOperations = mongoOperations;
+        this.pendingTimeout = pendingTimeout;
+    }
+
+    // See UserDataVersionService#reserveChanges
+    public Mono<Long> reserveChanges(Long userId, int count) {
+        return mongoOperations.execute(UserDataVersion.class, collection -> collection.findOneAndUpdate(
+                        Filters.eq("_id", userId),
+                        UserDataVersionService.reservation(count, Instant.now(), pendingTimeout),
+                        new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER)))
+                .next()
+                .map(version -> version.get("change_seq", Number.class).longValue() - count + 1);
+    }
+
+    // See UserDataVersionService#bump
+    public Mono<Void> bump(Long userId, long... reservations) {
+        return mongoOperations.upsert(Query.query(Criteria.where("_id").is(userId)),
+                        UserDataVersionService.versionBump(reservations),
+                        UserDataVersion.class)
+                .then();
+    }
+
+    // See UserDataVersionService#release
+    public Mono<Void> release(Long userId, long... reservations) {
+        if (reservations.length == 0) {
+            return Mono.empty();
+        }
+        return mongoOperations.updateFirst(Query.query(Criteria.where("_id").is(userId)),
+                        UserDataVersionService.releasing(new Update(), reservations),
+                        UserDataVersion.class)
+                .then();
+    }
+}
\ No newline at end of file
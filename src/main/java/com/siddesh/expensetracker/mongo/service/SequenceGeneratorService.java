@@ -1,5 +1,11 @@
 package com.siddesh.expensetracker.mongo.service;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoOperations;
 import org.springframework.data.mongodb.core.query.Criteria;
@@ -9,21 +15,116 @@ import org.springframework.stereotype.Service;
 
 import com.siddesh.expensetracker.mongo.document.DatabaseSequence;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Hands out ids from blocks reserved with a single atomic increment on
+ * {@code database_sequences}. Each node owns the blocks it reserved, so ids stay unique
+ * across instances while only one in every {@code sequence.block-size} calls touches Mongo.
+ * Ids are unique but not strictly increasing across nodes.
+ */
 @Service
 public class SequenceGeneratorService {
 
     private final MongoOperations mongoOperations;
+    private final MeterRegistry meterRegistry;
+    private final int blockSize;
+    private final ConcurrentMap<String, SequenceAllocator> allocators = new ConcurrentHashMap<>();
 
-    public SequenceGeneratorService(MongoOperations mongoOperations) {
+    public SequenceGeneratorService(MongoOperations mongoOperations,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${sequence.block-size:100}") int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("sequence.block-size must be at least 1");
+        }
         this.mongoOperations = mongoOperations;
+        this.meterRegistry = meterRegistry;
+        this.blockSize = blockSize;
     }
 
     public long getNextSequence(String sequenceName) {
+        return allocator(sequenceName).next();
+    }
+
+    /**
+     * Reserves {@code count} consecutive ids in one round trip and returns the first one.
+     * The range bypasses the local block, which is useful for bulk inserts.
+     */
+    public long reserveSequenceBlock(String sequenceName, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("count must be at least 1");
+        }
+        return allocator(sequenceName).increment(count) - count + 1;
+    }
+
+    private SequenceAllocator allocator(String sequenceName) {
+        return allocators.computeIfAbsent(sequenceName, SequenceAllocator::new);
+    }
+
+    private long findAndIncrement(String sequenceName, int increment) {
         Query query = Query.query(Criteria.where("_id").is(sequenceName));
-        Update update = new Update().inc("value", 1);
+        Update update = new Update().inc("value", increment);
         FindAndModifyOptions options = FindAndModifyOptions.options().returnNew(true).upsert(true);
 
         DatabaseSequence counter = mongoOperations.findAndModify(query, update, options, DatabaseSequence.class);
-        return counter != null ? counter.getValue() : 1;
+        return counter != null ? counter.getValue() : increment;
+    }
+
+    private final class SequenceAllocator {
+
+        private final String sequenceName;
+        // Only taken to refill; ReentrantLock rather than synchronized so virtual threads don't pin
+        private final ReentrantLock refillLock = new ReentrantLock();
+        // Only the round trips are timed; ids served from memory cost next to nothing
+        private final Timer reserveTimer;
+        private volatile Block current = new Block(1, 0);
+
+        private SequenceAllocator(String sequenceName) {
+            this.sequenceName = sequenceName;
+            this.reserveTimer = Timer.builder("sequence.reserve")
+                    .description("Round trips to database_sequences to reserve a block of ids")
+                    .tag("sequence", sequenceName)
+                    .register(meterRegistry);
+        }
+
+        long next() {
+            while (true) {
+                Block block = current;
+                long id = block.next.getAndIncrement();
+                if (id <= block.last) {
+                    return id;
+                }
+                refill(block);
+            }
+        }
+
+        // Returns the new counter value, i.e. the last id of the reserved range
+        long increment(int count) {
+            return reserveTimer.record(() -> findAndIncrement(sequenceName, count));
+        }
+
+        private void refill(Block exhausted) {
+            refillLock.lock();
+            try {
+                if (current == exhausted) {
+                    long last = increment(blockSize);
+                    current = new Block(last - blockSize + 1, last);
+                }
+            } finally {
+                refillLock.unlock();
+            }
+        }
+    }
+
+    private static final class Block {
+
+        private final AtomicLong next;
+        private final long last;
+
+        private Block(long first, long last) {
+            this.next = new AtomicLong(first);
+            this.last = last;
+        }
     }
 }
@@ -0,0 +1,127 @@
+package com.siddesh.expensetracker.mongo.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.siddesh.expensetracker.mongo.document.UserDataVersion;
+
+/**
+ * Per-user counter in {@code user_data_versions}, incremented after every write to the
+ * user's expenses. Two reads that see the same version therefore see the same expenses,
+ * which is what lets conditional GETs be answered without querying {@code expenses}.
+ * Users who have never written are at version 0.
+ *
+ * <p>The same document also hands out the user's change sequence numbers, which order their
+ * writes for delta sync. Unlike the version, a sequence number is taken before the write so it
+ * can be stored with the changed expense or tombstone. Concurrent writes can therefore commit
+ * out of sequence order, so each reservation stays pending until its write reports back through
+ * {@link #bump}, and {@link #committedChangeSequence} stops below the oldest pending one.
+ */
+@Service
+public class UserDataVersionService {
+
+    private final MongoOperations mongoOperations;
+    private final Duration pendingTimeout;
+
+    public UserDataVersionService(MongoOperations mongoOperations,
+                                  @Value("${expenses.sync.pending-timeout:1m}") Duration pendingTimeout) {
+        this.mongoOperations = mongoOperations;
+        this.pendingTimeout = pendingTimeout;
+    }
+
+    public long currentVersion(Long userId) {
+        UserDataVersion version = mongoOperations.findById(userId, UserDataVersion.class);
+        return version != null ? version.getVersion() : 0;
+    }
+
+    /**
+     * Reserves {@code count} consecutive change sequence numbers for the user and returns the first.
+     * The reservation is pending until the returned number is passed to {@link #bump}.
+     */
+    public long reserveChanges(Long userId, int count) {
+        Document version = mongoOperations.execute(UserDataVersion.class, collection -> collection.findOneAndUpdate(
+                Filters.eq("_id", userId),
+                reservation(count, Instant.now(), pendingTimeout),
+                new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER)));
+        return version.get("change_seq", Number.class).longValue() - count + 1;
+    }
+
+    /**
+     * Highest change sequence below which every reservation has been written or has outlived
+     * {@code expenses.sync.pending-timeout}. Delta sync never reads past it, so a write that commits
+     * after a later-numbered one is not skipped by a client that synced in between.
+     */
+    public long committedChangeSequence(Long userId) {
+        UserDataVersion version = mongoOperations.findById(userId, UserDataVersion.class);
+        return version != null ? committedChangeSequence(version, Instant.now()) : 0;
+    }
+
+    /**
+     * Must be called after the write has reached Mongo, so a version is never paired with older data.
+     * {@code reservations} are the numbers {@link #reserveChanges} returned for the write.
+     */
+    public void bump(Long userId, long... reservations) {
+        mongoOperations.upsert(Query.query(Criteria.where("_id").is(userId)),
+                versionBump(reservations),
+                UserDataVersion.class);
+    }
+
+    // For a write that reserved change sequences and then changed nothing
+    public void release(Long userId, long... reservations) {
+        if (reservations.length == 0) {
+            return;
+        }
+        mongoOperations.updateFirst(Query.query(Criteria.where("_id").is(userId)),
+                releasing(new Update(), reservations),
+                UserDataVersion.class);
+    }
+
+    // A single $set stage, so "$change_seq" is the value from before the reservation throughout.
+    // Timed-out reservations are dropped here to keep the pending list short.
+    static List<Document> reservation(int count, Instant now, Duration pendingTimeout) {
+        Document current = new Document("$ifNull", List.of("$change_seq", 0L));
+        Document live = new Document("$filter", new Document("input", new Document("$ifNull", List.of("$pending", List.of())))
+                .append("cond", new Document("$gt", List.of("$$this.expires_at", Date.from(now)))));
+        Document reserved = new Document("first", new Document("$add", List.of(current, 1L)))
+                .append("expires_at", Date.from(now.plus(pendingTimeout)));
+        return List.of(new Document("$set", new Document("change_seq", new Document("$add", List.of(current, (long) count)))
+                .append("pending", new Document("$concatArrays", List.of(live, List.of(reserved))))));
+    }
+
+    static Update versionBump(long... reservations) {
+        return releasing(new Update().inc("version", 1), reservations);
+    }
+
+    static Update releasing(Update update, long... reservations) {
+        if (reservations.length > 0) {
+            update.pull("pending", new Document("first", new Document("$in", LongStream.of(reservations).boxed().toList())));
+        }
+        return update;
+    }
+
+    static long committedChangeSequence(UserDataVersion version, Instant now) {
+        long committed = version.getChangeSequence();
+        if (version.getPending() != null) {
+            for (UserDataVersion.PendingChange pending : version.getPending()) {
+                if (pending.getExpiresAt().isAfter(now)) {
+                    committed = Math.min(committed, pending.getFirst() - 1);
+                }
+            }
+        }
+        return committed;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.siddesh.expensetracker.repository;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import com.siddesh.expensetracker.entity.User;
+
+import reactor.core.publisher.Mono;
+
+@Profile("reactive")
+public interface ReactiveUserRepository extends ReactiveMongoRepository<User, Long> {
+
+    Mono<User> findFirstByEmail(String email);
+
+    Mono<Boolean> existsByEmail(String email);
+}
\ No newline at end of file
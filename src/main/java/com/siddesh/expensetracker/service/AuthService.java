@@ -1,13 +1,14 @@
 package com.siddesh.expensetracker.service;
 
-import java.util.Collections;
+import java.util.Optional;
 
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import com.siddesh.expensetracker.config.AuthenticatedUser;
 import com.siddesh.expensetracker.dto.AuthResponse;
 import com.siddesh.expensetracker.dto.LoginRequest;
 import com.siddesh.expensetracker.dto.RegisterRequest;
@@ -16,29 +17,34 @@ import com.siddesh.expensetracker.mongo.service.SequenceGeneratorService;
 import com.siddesh.expensetracker.repository.UserRepository;
 
 @Service
+@Profile("!reactive")
 public class AuthService {
 
     private static final String USER_SEQUENCE = "user_sequence";
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
     private final SequenceGeneratorService sequenceGeneratorService;
+    private final LoginRateLimiter loginRateLimiter;
+    private final RefreshTokenService refreshTokenService;
 
     public AuthService(UserRepository userRepository,
                        PasswordEncoder passwordEncoder,
-                       JwtService jwtService,
                        AuthenticationManager authenticationManager,
-                       SequenceGeneratorService sequenceGeneratorService) {
+                       SequenceGeneratorService sequenceGeneratorService,
+                       LoginRateLimiter loginRateLimiter,
+                       RefreshTokenService refreshTokenService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
-        this.jwtService = jwtService;
         this.authenticationManager = authenticationManager;
         this.sequenceGeneratorService = sequenceGeneratorService;
+        this.loginRateLimiter = loginRateLimiter;
+        this.refreshTokenService = refreshTokenService;
     }
 
-    public AuthResponse register(RegisterRequest request) {
+    public AuthResponse register(RegisterRequest request, String clientAddress) {
+        loginRateLimiter.checkRegistration(clientAddress);
                 if (userRepository.existsByEmail(request.email())) {
                         throw new IllegalArgumentException("Email is already registered.");
                 }
@@ -52,17 +58,20 @@ public class AuthService {
 
         userRepository.save(user);
 
-        UserDetails userDetails = new org.springframework.security.core.userdetails.User(
-                request.email(),
-                user.getPassword(),
-                Collections.emptyList()
-        );
+        return refreshTokenService.issue(new AuthenticatedUser(user.getId(), request.email(), null));
+    }
+
+    // Refreshing needs no password work; see RefreshTokenService
+    public Optional<AuthResponse> refresh(String refreshToken) {
+        return refreshTokenService.refresh(refreshToken);
+    }
 
-        String jwtToken = jwtService.generateToken(userDetails);
-        return new AuthResponse(jwtToken);
+    public void logout(String refreshToken) {
+        refreshTokenService.revoke(refreshToken);
     }
 
-    public AuthResponse login(LoginRequest request) {
+    public AuthResponse login(LoginRequest request, String clientAddress) {
+        loginRateLimiter.checkLogin(request.email(), clientAddress);
         authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         request.email(),
@@ -73,13 +82,6 @@ public class AuthService {
         User user = userRepository.findFirstByEmail(request.email())
                 .orElseThrow(() -> new IllegalArgumentException("Invalid email or password."));
 
-        UserDetails userDetails = new org.springframework.security.core.userdetails.User(
-                user.getEmail(),
-                user.getPassword(),
-                Collections.emptyList()
-        );
-
-        String jwtToken = jwtService.generateToken(userDetails);
-        return new AuthResponse(jwtToken);
+        return refreshTokenService.issue(new AuthenticatedUser(user.getId(), user.getEmail(), null));
     }
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.siddesh.expensetracker.service;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a login or registration is refused to protect the node: the caller exceeded a
+ * rate limit, or password hashing is already at capacity. Controllers answer it with 429.
+ */
+public class AuthThrottledException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public AuthThrottledException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,160 @@
+package com.siddesh.expensetracker.service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.siddesh.expensetracker.mongo.document.CategoryDocument;
+import com.siddesh.expensetracker.mongo.document.ExpenseDocument;
+import com.siddesh.expensetracker.mongo.service.SequenceGeneratorService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Maps category names to the compact ids stored on expenses, creating dictionary entries in
+ * {@code categories} on first use. An id always names the same category, so both lookup
+ * caches are only ever bounded, never invalidated, and stay correct across nodes. The
+ * id-to-name cache also interns names: every expense mapped from one id shares one String.
+ */
+@Service
+public class CategoryDictionary {
+
+    static final String CATEGORY_SEQUENCE = "category_sequence";
+
+    private final MongoOperations mongoOperations;
+    private final SequenceGeneratorService sequenceGeneratorService;
+    private final Cache<Long, String> names;
+    private final Cache<UserCategory, Long> ids;
+
+    public CategoryDictionary(MongoOperations mongoOperations,
+                              SequenceGeneratorService sequenceGeneratorService,
+                              MeterRegistry meterRegistry,
+                              @Value("${expenses.categories.cache-size:100000}") long cacheSize) {
+        this.mongoOperations = mongoOperations;
+        this.sequenceGeneratorService = sequenceGeneratorService;
+        this.names = Caffeine.newBuilder().maximumSize(cacheSize).recordStats().build();
+        this.ids = Caffeine.newBuilder().maximumSize(cacheSize).build();
+        CaffeineCacheMetrics.monitor(meterRegistry, names, "expenses.category-names");
+    }
+
+    /**
+     * The id of the user's category called {@code name}, adding it to the dictionary if it is new.
+     */
+    public Long idOf(Long userId, String name) {
+        if (name == null) {
+            return null;
+        }
+        return ids.get(new UserCategory(userId, name), this::findOrCreate);
+    }
+
+    /**
+     * Like {@link #idOf} but never creates an entry, for filtering by a category that may not exist.
+     */
+    public Optional<Long> findId(Long userId, String name) {
+        UserCategory key = new UserCategory(userId, name);
+        Long id = ids.getIfPresent(key);
+        if (id != null) {
+            return Optional.of(id);
+        }
+        CategoryDocument category = find(key);
+        if (category == null) {
+            return Optional.empty();
+        }
+        remember(category);
+        return Optional.of(category.getId());
+    }
+
+    public String nameOf(Long categoryId) {
+        return names.get(categoryId, id -> {
+            CategoryDocument category = mongoOperations.findById(id, CategoryDocument.class);
+            return category != null ? category.getName() : null;
+        });
+    }
+
+    /**
+     * The category name of a stored expense, whether or not it has been migrated to an id yet.
+     */
+    public String nameOf(ExpenseDocument document) {
+        return document.getCategoryId() != null ? nameOf(document.getCategoryId()) : document.getCategory();
+    }
+
+    /**
+     * The user's category names starting with {@code prefix}, ignoring case, in alphabetical order.
+     */
+    public List<String> suggest(Long userId, String prefix, int limit) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (prefix != null && !prefix.isBlank()) {
+            // Escaped rather than \Q..\E-quoted so the planner can turn the prefix into index bounds
+            criteria = criteria.and("nameKey").regex("^" + escape(nameKey(prefix.strip())));
+        }
+        Query query = Query.query(criteria).with(Sort.by("nameKey")).limit(Math.max(1, limit));
+        query.fields().include("name");
+        return mongoOperations.find(query, CategoryDocument.class).stream()
+                .map(CategoryDocument::getName)
+                .toList();
+    }
+
+    private Long findOrCreate(UserCategory key) {
+        CategoryDocument category = find(key);
+        if (category == null) {
+            try {
+                category = mongoOperations.insert(new CategoryDocument(
+                        sequenceGeneratorService.getNextSequence(CATEGORY_SEQUENCE),
+                        key.userId(), key.name(), nameKey(key.name())));
+            } catch (DuplicateKeyException ex) {
+                // Created concurrently, possibly by another node
+                category = find(key);
+            }
+        }
+        names.put(category.getId(), category.getName());
+        return category.getId();
+    }
+
+    private CategoryDocument find(UserCategory key) {
+        return mongoOperations.findOne(
+                Query.query(Criteria.where("userId").is(key.userId()).and("name").is(key.name())),
+                CategoryDocument.class);
+    }
+
+    // Package-private for ExpenseMappingBenchmark and ReactiveCategoryDictionary, which shares the caches
+    void remember(CategoryDocument category) {
+        ids.put(new UserCategory(category.getUserId(), category.getName()), category.getId());
+        names.put(category.getId(), category.getName());
+    }
+
+    Long cachedId(Long userId, String name) {
+        return ids.getIfPresent(new UserCategory(userId, name));
+    }
+
+    String cachedName(Long categoryId) {
+        return names.getIfPresent(categoryId);
+    }
+
+    static String nameKey(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static String escape(String literal) {
+        StringBuilder escaped = new StringBuilder(literal.length());
+        for (char c : literal.toCharArray()) {
+            if ("\\^$.|?*+()[]{}".indexOf(c) >= 0) {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    private record UserCategory(Long userId, String name) {}
+}
\ No newline at end of file
@@ -0,0 +1,168 @@
+package com.siddesh.expensetracker.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import com.siddesh.expensetracker.mongo.config.MongoIndexInitializer;
+import com.siddesh.expensetracker.mongo.document.ExpenseDocument;
+import com.siddesh.expensetracker.mongo.document.MigrationState;
+
+/**
+ * Moves expenses written before the category dictionary from a {@code category} name to a
+ * {@code category_id}. Expenses are visited in {@code _id} order, in batches with a pause
+ * between them so the migration runs alongside normal traffic, and progress is saved after each
+ * batch so a restarted node resumes where it stopped. Each update only applies while the
+ * expense still holds the name that was read, so nodes migrating at the same time and users
+ * editing their expenses never overwrite each other. Migrated expenses read exactly as before,
+ * so caches, ETags and sync watermarks are unaffected.
+ *
+ * <p>Once no expense has a {@code category} left, the indexes over it are dropped and the
+ * description-only text index that replaces the old one is created.
+ */
+@Component
+public class ExpenseCategoryMigration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExpenseCategoryMigration.class);
+
+    private static final String MIGRATION_ID = "expense_category_ids";
+    private static final List<String> LEGACY_INDEXES = List.of("user_category_date", "user_text");
+
+    private final MongoOperations mongoOperations;
+    private final CategoryDictionary categoryDictionary;
+    private final MongoIndexInitializer mongoIndexInitializer;
+    private final TaskScheduler taskScheduler;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration batchDelay;
+    private volatile boolean complete;
+
+    public ExpenseCategoryMigration(MongoOperations mongoOperations,
+                                    CategoryDictionary categoryDictionary,
+                                    MongoIndexInitializer mongoIndexInitializer,
+                                    TaskScheduler taskScheduler,
+                                    @Value("${expenses.categories.migration.enabled:true}") boolean enabled,
+                                    @Value("${expenses.categories.migration.batch-size:500}") int batchSize,
+                                    @Value("${expenses.categories.migration.batch-delay:100ms}") Duration batchDelay) {
+        this.mongoOperations = mongoOperations;
+        this.categoryDictionary = categoryDictionary;
+        this.mongoIndexInitializer = mongoIndexInitializer;
+        this.taskScheduler = taskScheduler;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.batchDelay = batchDelay;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            taskScheduler.schedule(() -> {
+                try {
+                    migrate();
+                } catch (RuntimeException ex) {
+                    LOGGER.warn("Expense category migration stopped; it resumes on the next start", ex);
+                }
+            }, Instant.now());
+        }
+    }
+
+    /**
+     * True once every expense stores a category id, so queries no longer need to match names.
+     */
+    public boolean isComplete() {
+        if (!complete) {
+            complete = mongoOperations.exists(
+                    Query.query(Criteria.where("id").is(MIGRATION_ID).and("completedAt").ne(null)),
+                    MigrationState.class);
+        }
+        return complete;
+    }
+
+    public void migrate() {
+        if (isComplete()) {
+            return;
+        }
+
+        MigrationState state = mongoOperations.findById(MIGRATION_ID, MigrationState.class);
+        String lastId = state != null ? state.getLastId() : null;
+        do {
+            List<ExpenseDocument> batch;
+            while (!(batch = nextBatch(lastId)).isEmpty()) {
+                migrate(batch);
+                lastId = batch.get(batch.size() - 1).getId();
+                mongoOperations.upsert(Query.query(Criteria.where("id").is(MIGRATION_ID)),
+                        new Update().set("lastId", lastId).inc("migrated", batch.size()),
+                        MigrationState.class);
+                if (!pause()) {
+                    return;
+                }
+            }
+            // Nodes still running the previous version may have written behind the scan
+            lastId = null;
+        } while (mongoOperations.exists(Query.query(Criteria.where("category").exists(true)), ExpenseDocument.class));
+
+        dropLegacyIndexes();
+        mongoIndexInitializer.createIndexes(ExpenseDocument.class);
+        mongoOperations.upsert(Query.query(Criteria.where("id").is(MIGRATION_ID)),
+                new Update().set("completedAt", Instant.now()),
+                MigrationState.class);
+        complete = true;
+        LOGGER.info("Expense category migration complete");
+    }
+
+    private List<ExpenseDocument> nextBatch(String lastId) {
+        Criteria criteria = Criteria.where("category").exists(true);
+        if (lastId != null) {
+            criteria = criteria.and("id").gt(lastId);
+        }
+        return mongoOperations.find(Query.query(criteria).with(Sort.by("id")).limit(batchSize), ExpenseDocument.class);
+    }
+
+    private void migrate(List<ExpenseDocument> batch) {
+        BulkOperations bulk = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, ExpenseDocument.class);
+        for (ExpenseDocument expense : batch) {
+            bulk.updateOne(
+                    Query.query(Criteria.where("id").is(expense.getId()).and("category").is(expense.getCategory())),
+                    new Update()
+                            .set("categoryId", categoryDictionary.idOf(expense.getUserId(), expense.getCategory()))
+                            .unset("category"));
+        }
+        bulk.execute();
+    }
+
+    private void dropLegacyIndexes() {
+        IndexOperations indexOperations = mongoOperations.indexOps(ExpenseDocument.class);
+        Set<String> existing = indexOperations.getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .collect(Collectors.toSet());
+        LEGACY_INDEXES.stream().filter(existing::contains).forEach(indexOperations::dropIndex);
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(batchDelay);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.siddesh.expensetracker.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position: the (date, expenseId) of the last expense on the previous page,
+ * encoded as URL-safe Base64 so clients treat it as a token rather than building it.
+ */
+record ExpenseCursor(LocalDate date, Long expenseId) {
+
+    String encode() {
+        String raw = (date != null ? date.toString() : "") + ":" + expenseId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ExpenseCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Malformed cursor.");
+            }
+            String datePart = raw.substring(0, separator);
+            LocalDate date = datePart.isEmpty() ? null : LocalDate.parse(datePart);
+            return new ExpenseCursor(date, Long.parseLong(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException ex) {
+            throw new IllegalArgumentException("Malformed cursor.", ex);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,288 @@
+package com.siddesh.expensetracker.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.LongStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.siddesh.expensetracker.dto.BatchItemResult;
+import com.siddesh.expensetracker.dto.ImportJobStatus;
+import com.siddesh.expensetracker.entity.Expense;
+import com.siddesh.expensetracker.mongo.document.ImportJobDocument;
+import com.siddesh.expensetracker.service.statement.StatementParser;
+import com.siddesh.expensetracker.service.statement.StatementRow;
+
+/**
+ * Imports bank statements row by row. Parsed expenses are written in fixed-size batches as
+ * the upload is read, so memory use is bounded by the batch size rather than the file size,
+ * and reading the request body naturally waits for each batch write to finish.
+ *
+ * <p>An upload claims its job with a lease that every saved batch renews, so only one upload
+ * writes to a job at a time. A job whose upload went quiet for longer than the lease, e.g.
+ * because its node died, can be resumed by another.
+ */
+@Service
+public class ExpenseImportService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExpenseImportService.class);
+
+    private final ExpenseService expenseService;
+    private final MongoOperations mongoOperations;
+    private final int batchSize;
+    private final int maxReportedErrors;
+    private final Duration lease;
+
+    public ExpenseImportService(ExpenseService expenseService,
+                                MongoOperations mongoOperations,
+                                @Value("${expenses.import.batch-size:500}") int batchSize,
+                                @Value("${expenses.batch.max-size:1000}") int maxBatchSize,
+                                @Value("${expenses.import.max-reported-errors:100}") int maxReportedErrors,
+                                @Value("${expenses.import.lease:5m}") Duration lease) {
+        // A batch left half-written is discarded with one batch delete
+        if (batchSize > maxBatchSize) {
+            throw new IllegalArgumentException("expenses.import.batch-size must not exceed expenses.batch.max-size");
+        }
+        this.expenseService = expenseService;
+        this.mongoOperations = mongoOperations;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+        this.lease = lease;
+    }
+
+    public Optional<ImportJobStatus> getJob(String jobId, Long userId) {
+        return findJob(jobId, userId).map(ImportJobStatus::of);
+    }
+
+    /**
+     * Creates a job without starting it. Uploading to it with its id then lets the client poll
+     * {@link #getJob} for progress while the upload is still running.
+     */
+    public ImportJobStatus createJob(String format, Long userId) {
+        return ImportJobStatus.of(mongoOperations.insert(newJob(format, userId, ImportJobDocument.Status.PENDING)));
+    }
+
+    /**
+     * Imports {@code input} as a new job, or into {@code jobId} when given. A job that already
+     * ran is resumed and expects the same file again: rows already committed are read and
+     * skipped, and any batch that was in flight when the previous attempt stopped is discarded
+     * and written again.
+     *
+     * @throws IllegalStateException if another upload is still writing to the job
+     */
+    public ImportJobStatus importStatement(InputStream input, String format, String jobId, Long userId) {
+        ImportJobDocument job = jobId == null ? startJob(format, userId) : claimJob(jobId, format, userId);
+
+        try (Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8)) {
+            if (job.getPendingCount() > 0) {
+                discardPendingBatch(job);
+                save(job);
+            }
+            StatementParser parser = StatementParser.forFormat(job.getFormat(), reader);
+            Batch batch = new Batch();
+            StatementRow row;
+            while ((row = parser.next()) != null) {
+                if (row.number() <= job.getCommittedRows()) {
+                    continue;
+                }
+                batch.add(row);
+                if (batch.expenses.size() >= batchSize) {
+                    commit(job, batch);
+                    batch = new Batch();
+                }
+            }
+            commit(job, batch);
+            job.setStatus(ImportJobDocument.Status.COMPLETED);
+        } catch (LeaseLostException ex) {
+            // The job belongs to another upload now; leave its state to that one
+            throw ex;
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.warn("Import job {} stopped after row {}: {}", job.getId(), job.getCommittedRows(), ex.getMessage());
+            job.setStatus(ImportJobDocument.Status.FAILED);
+            job.setFailureMessage(ex.getMessage());
+        }
+        save(job);
+        return ImportJobStatus.of(job);
+    }
+
+    private void commit(ImportJobDocument job, Batch batch) {
+        if (batch.lastRow == 0) {
+            return;
+        }
+
+        List<BatchItemResult> results = List.of();
+        if (!batch.expenses.isEmpty()) {
+            // Record the id range first so a crash mid-insert leaves enough to clean up on resume
+            long firstId = expenseService.reserveExpenseIds(batch.expenses.size());
+            job.setPendingFirstId(firstId);
+            job.setPendingCount(batch.expenses.size());
+            save(job);
+            results = expenseService.createExpenses(batch.expenses, job.getUserId(), firstId);
+        }
+
+        long imported = 0;
+        for (BatchItemResult result : results) {
+            if (result.status() == BatchItemResult.Status.CREATED) {
+                imported++;
+            } else {
+                batch.reject(batch.rowNumbers.get(result.index()), result.message());
+            }
+        }
+
+        job.setRowsRead(job.getRowsRead() + batch.lastRow - job.getCommittedRows());
+        job.setRowsImported(job.getRowsImported() + imported);
+        job.setRowsRejected(job.getRowsRejected() + batch.errors.size());
+        job.setRowsSkipped(job.getRowsSkipped() + batch.skipped);
+        for (ImportJobDocument.RowError error : batch.errors) {
+            if (job.getErrors().size() < maxReportedErrors) {
+                job.getErrors().add(error);
+            }
+        }
+        job.setCommittedRows(batch.lastRow);
+        job.setPendingFirstId(0);
+        job.setPendingCount(0);
+        save(job);
+    }
+
+    private ImportJobDocument startJob(String format, Long userId) {
+        ImportJobDocument job = newJob(format, userId, ImportJobDocument.Status.RUNNING);
+        job.setLeaseOwner(UUID.randomUUID().toString());
+        job.setLeaseExpiresAt(job.getCreatedAt().plus(lease));
+        return mongoOperations.insert(job);
+    }
+
+    private ImportJobDocument newJob(String format, Long userId, ImportJobDocument.Status status) {
+        String normalized = format.toLowerCase(Locale.ROOT);
+        if (!normalized.equals("csv") && !normalized.equals("ofx")) {
+            throw new IllegalArgumentException("Unsupported statement format: " + format);
+        }
+        Instant now = Instant.now();
+        return ImportJobDocument.builder()
+                .userId(userId)
+                .format(normalized)
+                .status(status)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    // Takes the job over atomically, so two uploads can never write to it at once
+    private ImportJobDocument claimJob(String jobId, String format, Long userId) {
+        ImportJobDocument existing = findJob(jobId, userId)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown import job: " + jobId));
+        if (existing.getStatus() == ImportJobDocument.Status.COMPLETED) {
+            throw new IllegalArgumentException("Import job " + jobId + " has already completed.");
+        }
+        if (!existing.getFormat().equalsIgnoreCase(format)) {
+            throw new IllegalArgumentException("Import job " + jobId + " was started with format " + existing.getFormat() + ".");
+        }
+
+        Instant now = Instant.now();
+        ImportJobDocument job = mongoOperations.findAndModify(
+                Query.query(Criteria.where("id").is(jobId).and("userId").is(userId)
+                        .and("status").ne(ImportJobDocument.Status.COMPLETED)
+                        .orOperator(
+                                Criteria.where("status").ne(ImportJobDocument.Status.RUNNING),
+                                Criteria.where("leaseExpiresAt").lt(now))),
+                new Update()
+                        .set("status", ImportJobDocument.Status.RUNNING)
+                        .set("leaseOwner", UUID.randomUUID().toString())
+                        .set("leaseExpiresAt", now.plus(lease))
+                        .set("updatedAt", now)
+                        .unset("failureMessage"),
+                FindAndModifyOptions.options().returnNew(true),
+                ImportJobDocument.class);
+        if (job == null) {
+            throw new IllegalStateException("Import job " + jobId + " is already receiving an upload.");
+        }
+        return job;
+    }
+
+    // Goes through the expense service so everything derived from expenses stays consistent
+    private void discardPendingBatch(ImportJobDocument job) {
+        List<Long> ids = LongStream.range(job.getPendingFirstId(), job.getPendingFirstId() + job.getPendingCount())
+                .boxed()
+                .toList();
+        boolean failed = expenseService.deleteExpenses(ids, job.getUserId()).stream()
+                .anyMatch(result -> result.status() == BatchItemResult.Status.FAILED);
+        if (failed) {
+            throw new IllegalStateException("Could not discard the unfinished batch of import job " + job.getId() + ".");
+        }
+        job.setPendingFirstId(0);
+        job.setPendingCount(0);
+    }
+
+    private Optional<ImportJobDocument> findJob(String jobId, Long userId) {
+        return Optional.ofNullable(mongoOperations.findOne(
+                Query.query(Criteria.where("id").is(jobId).and("userId").is(userId)),
+                ImportJobDocument.class));
+    }
+
+    // Only while this upload still holds the lease, which every save renews
+    private void save(ImportJobDocument job) {
+        String owner = job.getLeaseOwner();
+        Instant now = Instant.now();
+        job.setUpdatedAt(now);
+        if (job.getStatus() == ImportJobDocument.Status.RUNNING) {
+            job.setLeaseExpiresAt(now.plus(lease));
+        } else {
+            job.setLeaseOwner(null);
+            job.setLeaseExpiresAt(null);
+        }
+        ImportJobDocument previous = mongoOperations.findAndReplace(
+                Query.query(Criteria.where("id").is(job.getId()).and("leaseOwner").is(owner)), job);
+        if (previous == null) {
+            throw new LeaseLostException(job.getId());
+        }
+    }
+
+    private static final class LeaseLostException extends IllegalStateException {
+
+        private LeaseLostException(String jobId) {
+            super("Import job " + jobId + " was taken over by another upload.");
+        }
+    }
+
+    private static final class Batch {
+
+        private final List<Expense> expenses = new ArrayList<>();
+        private final List<Long> rowNumbers = new ArrayList<>();
+        private final List<ImportJobDocument.RowError> errors = new ArrayList<>();
+        private long skipped;
+        private long lastRow;
+
+        void add(StatementRow row) {
+            lastRow = row.number();
+            if (row.isSkipped()) {
+                skipped++;
+            } else if (row.error() != null) {
+                reject(row.number(), row.error());
+            } else {
+                expenses.add(row.expense());
+                rowNumbers.add(row.number());
+            }
+        }
+
+        void reject(long rowNumber, String message) {
+            errors.add(new ImportJobDocument.RowError(rowNumber, message));
+        }
+    }
+}
\ No newline at end of file
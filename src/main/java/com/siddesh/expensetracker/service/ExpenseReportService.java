@@ -0,0 +1,461 @@
+package com.siddesh.expensetracker.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.gridfs.GridFsOperations;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siddesh.expensetracker.dto.CategoryTotal;
+import com.siddesh.expensetracker.dto.PeriodTotal;
+import com.siddesh.expensetracker.dto.ReportJobStatus;
+import com.siddesh.expensetracker.dto.ReportRequest;
+import com.siddesh.expensetracker.entity.Expense;
+import com.siddesh.expensetracker.mongo.document.ReportJobDocument;
+import com.siddesh.expensetracker.mongo.document.ReportJobDocument.Format;
+import com.siddesh.expensetracker.mongo.document.ReportJobDocument.Grouping;
+import com.siddesh.expensetracker.mongo.document.ReportJobDocument.Status;
+import com.siddesh.expensetracker.mongo.service.UserDataVersionService;
+
+/**
+ * Computes reports in the background on {@code expenses.reports.workers} threads, streaming
+ * the user's expenses from a cursor so a full history never has to fit in memory. Results are
+ * stored in GridFS and kept for {@code expenses.reports.retention}.
+ *
+ * <p>Jobs live in {@code report_jobs} rather than in memory, so they survive a restart: every
+ * node polls for queued jobs while it has a free worker, and renews a lease on the jobs it is
+ * running. A job whose node died is picked up again once its lease runs out, at most
+ * {@code expenses.reports.max-attempts} times.
+ */
+@Service
+@Profile("!reactive")
+public class ExpenseReportService implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExpenseReportService.class);
+
+    private static final int ROWS_PER_LEASE_CHECK = 1000;
+    private static final int EXPIRED_JOBS_PER_POLL = 100;
+
+    private final MongoOperations mongoOperations;
+    private final GridFsOperations gridFsOperations;
+    private final ExpenseService expenseService;
+    private final UserDataVersionService userDataVersionService;
+    private final ObjectMapper objectMapper;
+    private final TaskScheduler taskScheduler;
+    private final Duration lease;
+    private final Duration pollInterval;
+    private final Duration retention;
+    private final int maxAttempts;
+    private final int workers;
+    private final Semaphore freeWorkers;
+    private final ExecutorService executor;
+    private final String nodeId = UUID.randomUUID().toString();
+    private ScheduledFuture<?> poller;
+
+    public ExpenseReportService(MongoOperations mongoOperations,
+                                GridFsOperations gridFsOperations,
+                                ExpenseService expenseService,
+                                UserDataVersionService userDataVersionService,
+                                ObjectMapper objectMapper,
+                                TaskScheduler taskScheduler,
+                                @Value("${expenses.reports.workers:2}") int workers,
+                                @Value("${expenses.reports.lease:1m}") Duration lease,
+                                @Value("${expenses.reports.poll-interval:10s}") Duration pollInterval,
+                                @Value("${expenses.reports.retention:7d}") Duration retention,
+                                @Value("${expenses.reports.max-attempts:3}") int maxAttempts) {
+        this.mongoOperations = mongoOperations;
+        this.gridFsOperations = gridFsOperations;
+        this.expenseService = expenseService;
+        this.userDataVersionService = userDataVersionService;
+        this.objectMapper = objectMapper;
+        this.taskScheduler = taskScheduler;
+        this.lease = lease;
+        this.pollInterval = pollInterval;
+        this.retention = retention;
+        this.maxAttempts = maxAttempts;
+        this.workers = workers;
+        this.freeWorkers = new Semaphore(workers);
+        this.executor = Executors.newFixedThreadPool(workers,
+                Thread.ofPlatform().name("report-worker-", 0).daemon(true).factory());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        poller = taskScheduler.scheduleWithFixedDelay(this::poll, pollInterval);
+    }
+
+    /**
+     * Queues a report, or returns the existing job when the same report was already requested
+     * and the user's expenses have not changed since. A failed job is queued again.
+     */
+    public ReportJobStatus submit(Long userId, ReportRequest request) {
+        Grouping grouping = parse(Grouping.class, request.grouping(), Grouping.CATEGORY);
+        Format format = parse(Format.class, request.format(), Format.CSV);
+        if (request.from() != null && request.to() != null && request.from().isAfter(request.to())) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+
+        String paramsKey = grouping + ":" + format + ":" + request.from() + ":" + request.to()
+                + ":" + userDataVersionService.currentVersion(userId);
+        ReportJobDocument job = findByParams(userId, paramsKey);
+        if (job == null) {
+            try {
+                job = mongoOperations.insert(ReportJobDocument.builder()
+                        .id(UUID.randomUUID().toString())
+                        .userId(userId)
+                        .paramsKey(paramsKey)
+                        .from(request.from())
+                        .to(request.to())
+                        .grouping(grouping)
+                        .format(format)
+                        .status(Status.QUEUED)
+                        .createdAt(Instant.now())
+                        .build());
+            } catch (DuplicateKeyException ex) {
+                // Submitted twice at once; both callers get the same job
+                job = findByParams(userId, paramsKey);
+            }
+        } else if (job.getStatus() == Status.FAILED) {
+            ReportJobDocument requeued = mongoOperations.findAndModify(
+                    Query.query(Criteria.where("id").is(job.getId()).and("status").is(Status.FAILED)),
+                    new Update().set("status", Status.QUEUED).set("attempts", 0)
+                            .unset("failureMessage").unset("expiresAt"),
+                    FindAndModifyOptions.options().returnNew(true),
+                    ReportJobDocument.class);
+            job = requeued != null ? requeued : mongoOperations.findById(job.getId(), ReportJobDocument.class);
+        }
+
+        dispatch();
+        return ReportJobStatus.of(job);
+    }
+
+    public Optional<ReportJobStatus> getJob(String jobId, Long userId) {
+        return findJob(jobId, userId).map(ReportJobStatus::of);
+    }
+
+    /**
+     * The finished report, or empty while the job is still running or when it does not exist.
+     */
+    public Optional<GridFsResource> getResult(String jobId, Long userId) {
+        return findJob(jobId, userId)
+                .filter(job -> job.getStatus() == Status.COMPLETED && job.getResultFileId() != null)
+                .map(job -> gridFsOperations.findOne(fileQuery(job.getResultFileId())))
+                .map(gridFsOperations::getResource);
+    }
+
+    private void poll() {
+        try {
+            deleteExpired();
+            failAbandoned();
+            dispatch();
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Report job poll failed", ex);
+        }
+    }
+
+    // Claims queued jobs until every worker is busy or nothing is left to run
+    private void dispatch() {
+        while (freeWorkers.tryAcquire()) {
+            ReportJobDocument job;
+            try {
+                job = claimNext();
+            } catch (RuntimeException ex) {
+                freeWorkers.release();
+                throw ex;
+            }
+            if (job == null) {
+                freeWorkers.release();
+                return;
+            }
+            try {
+                executor.execute(() -> {
+                    try {
+                        run(job);
+                    } finally {
+                        freeWorkers.release();
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                // Shutting down: hand the job straight back instead of waiting for the lease to run out
+                freeWorkers.release();
+                releaseLeases();
+                return;
+            }
+        }
+    }
+
+    private ReportJobDocument claimNext() {
+        Instant now = Instant.now();
+        Query query = Query.query(new Criteria().orOperator(
+                        Criteria.where("status").is(Status.QUEUED),
+                        Criteria.where("status").is(Status.RUNNING).and("leaseExpiresAt").lt(now)))
+                .addCriteria(Criteria.where("attempts").lt(maxAttempts))
+                .with(Sort.by("createdAt"));
+        return mongoOperations.findAndModify(query,
+                new Update().set("status", Status.RUNNING)
+                        .set("leaseOwner", nodeId)
+                        .set("leaseExpiresAt", now.plus(lease))
+                        .inc("attempts", 1),
+                FindAndModifyOptions.options().returnNew(true),
+                ReportJobDocument.class);
+    }
+
+    private void run(ReportJobDocument job) {
+        try {
+            List<?> rows = compute(job);
+            byte[] content = render(job, rows);
+            ObjectId fileId = gridFsOperations.store(new ByteArrayInputStream(content), filename(job),
+                    contentType(job.getFormat()), new Document("jobId", job.getId()).append("userId", job.getUserId()));
+            boolean completed = updateOwned(job, new Update()
+                    .set("status", Status.COMPLETED)
+                    .set("resultFileId", fileId.toHexString())
+                    .set("rows", rows.size())
+                    .set("completedAt", Instant.now())
+                    .set("expiresAt", Instant.now().plus(retention))
+                    .unset("leaseOwner")
+                    .unset("leaseExpiresAt"));
+            if (!completed) {
+                gridFsOperations.delete(fileQuery(fileId.toHexString()));
+            }
+        } catch (LeaseLostException ex) {
+            LOGGER.info("Report job {} was taken over by another node", job.getId());
+        } catch (RuntimeException ex) {
+            if (Thread.currentThread().isInterrupted() || executor.isShutdown()) {
+                // Stopped by close(), which hands the job back through releaseLeases without counting
+                // the attempt; the driver may have cleared the interrupt flag, hence the second check
+                LOGGER.info("Report job {} was interrupted by shutdown", job.getId());
+                return;
+            }
+            LOGGER.warn("Report job {} failed (attempt {} of {})", job.getId(), job.getAttempts(), maxAttempts, ex);
+            Update update = job.getAttempts() < maxAttempts
+                    ? new Update().set("status", Status.QUEUED)
+                    : new Update().set("status", Status.FAILED)
+                            .set("failureMessage", ex.getMessage())
+                            .set("expiresAt", Instant.now().plus(retention));
+            updateOwned(job, update.unset("leaseOwner").unset("leaseExpiresAt"));
+        }
+    }
+
+    private List<?> compute(ReportJobDocument job) {
+        Map<String, Totals> totals = new TreeMap<>(Comparator.nullsFirst(Comparator.naturalOrder()));
+        Instant renewAt = Instant.now().plus(lease.dividedBy(3));
+        long read = 0;
+        try (Stream<Expense> expenses = expenseService.streamExpenses(job.getUserId(), job.getFrom(), job.getTo())) {
+            Iterator<Expense> iterator = expenses.iterator();
+            while (iterator.hasNext()) {
+                Expense expense = iterator.next();
+                if (++read % ROWS_PER_LEASE_CHECK == 0 && Instant.now().isAfter(renewAt)) {
+                    renewLease(job);
+                    renewAt = Instant.now().plus(lease.dividedBy(3));
+                }
+                if (job.getGrouping() == Grouping.CATEGORY) {
+                    totals.computeIfAbsent(expense.getCategory(), key -> new Totals()).add(expense.getAmount());
+                } else if (expense.getDate() != null) {
+                    totals.computeIfAbsent(YearMonth.from(expense.getDate()).toString(), key -> new Totals())
+                            .add(expense.getAmount());
+                }
+            }
+        }
+
+        return totals.entrySet().stream()
+                .map(entry -> job.getGrouping() == Grouping.CATEGORY
+                        ? new CategoryTotal(entry.getKey(), entry.getValue().total, entry.getValue().count)
+                        : new PeriodTotal(entry.getKey(), entry.getValue().total, entry.getValue().count))
+                .toList();
+    }
+
+    private byte[] render(ReportJobDocument job, List<?> rows) {
+        if (job.getFormat() == Format.JSON) {
+            try {
+                return objectMapper.writeValueAsBytes(rows);
+            } catch (JsonProcessingException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        StringBuilder csv = new StringBuilder(job.getGrouping() == Grouping.CATEGORY
+                ? "category,total,count\n"
+                : "month,total,count\n");
+        for (Object row : rows) {
+            if (row instanceof CategoryTotal total) {
+                csv.append(csvField(total.category())).append(',')
+                        .append(total.total().toPlainString()).append(',').append(total.count()).append('\n');
+            } else if (row instanceof PeriodTotal total) {
+                csv.append(total.period()).append(',')
+                        .append(total.total().toPlainString()).append(',').append(total.count()).append('\n');
+            }
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void renewLease(ReportJobDocument job) {
+        if (Thread.currentThread().isInterrupted()
+                || !updateOwned(job, new Update().set("leaseExpiresAt", Instant.now().plus(lease)))) {
+            throw new LeaseLostException();
+        }
+    }
+
+    // Applies the update only while this node still holds the job's lease
+    private boolean updateOwned(ReportJobDocument job, Update update) {
+        return mongoOperations.updateFirst(
+                Query.query(Criteria.where("id").is(job.getId())
+                        .and("status").is(Status.RUNNING)
+                        .and("leaseOwner").is(nodeId)),
+                update, ReportJobDocument.class).getModifiedCount() > 0;
+    }
+
+    // Jobs whose node died on the last allowed attempt
+    private void failAbandoned() {
+        mongoOperations.updateMulti(
+                Query.query(Criteria.where("status").is(Status.RUNNING)
+                        .and("leaseExpiresAt").lt(Instant.now())
+                        .and("attempts").gte(maxAttempts)),
+                new Update().set("status", Status.FAILED)
+                        .set("failureMessage", "Abandoned after " + maxAttempts + " attempts")
+                        .set("expiresAt", Instant.now().plus(retention))
+                        .unset("leaseOwner")
+                        .unset("leaseExpiresAt"),
+                ReportJobDocument.class);
+    }
+
+    private void deleteExpired() {
+        List<ReportJobDocument> expired = mongoOperations.find(
+                Query.query(Criteria.where("expiresAt").lt(Instant.now())).limit(EXPIRED_JOBS_PER_POLL),
+                ReportJobDocument.class);
+        for (ReportJobDocument job : expired) {
+            if (job.getResultFileId() != null) {
+                gridFsOperations.delete(fileQuery(job.getResultFileId()));
+            }
+            mongoOperations.remove(Query.query(Criteria.where("id").is(job.getId())), ReportJobDocument.class);
+        }
+    }
+
+    // Requeues this node's running jobs without counting the attempt against them
+    private void releaseLeases() {
+        mongoOperations.updateMulti(
+                Query.query(Criteria.where("status").is(Status.RUNNING).and("leaseOwner").is(nodeId)),
+                new Update().set("status", Status.QUEUED)
+                        .inc("attempts", -1)
+                        .unset("leaseOwner")
+                        .unset("leaseExpiresAt"),
+                ReportJobDocument.class);
+    }
+
+    @Override
+    public void close() {
+        if (poller != null) {
+            poller.cancel(false);
+        }
+        executor.shutdownNow();
+        if (freeWorkers.availablePermits() == workers) {
+            return;
+        }
+        try {
+            releaseLeases();
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Could not release report job leases; they will be retried once the lease runs out", ex);
+        }
+    }
+
+    private ReportJobDocument findByParams(Long userId, String paramsKey) {
+        return mongoOperations.findOne(
+                Query.query(Criteria.where("userId").is(userId).and("paramsKey").is(paramsKey)),
+                ReportJobDocument.class);
+    }
+
+    private Optional<ReportJobDocument> findJob(String jobId, Long userId) {
+        return Optional.ofNullable(mongoOperations.findOne(
+                Query.query(Criteria.where("id").is(jobId).and("userId").is(userId)),
+                ReportJobDocument.class));
+    }
+
+    private static Query fileQuery(String fileId) {
+        return Query.query(Criteria.where("_id").is(new ObjectId(fileId)));
+    }
+
+    private static String filename(ReportJobDocument job) {
+        return "expenses-by-" + job.getGrouping().name().toLowerCase(Locale.ROOT)
+                + "." + job.getFormat().name().toLowerCase(Locale.ROOT);
+    }
+
+    private static String contentType(Format format) {
+        return format == Format.JSON ? "application/json" : "text/csv";
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String value, E defaultValue) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unsupported " + type.getSimpleName().toLowerCase(Locale.ROOT) + ": " + value);
+        }
+    }
+
+    private static final class Totals {
+        private BigDecimal total = BigDecimal.ZERO;
+        private long count;
+
+        private void add(BigDecimal amount) {
+            if (amount != null) {
+                total = total.add(amount);
+            }
+            count++;
+        }
+    }
+
+    private static final class LeaseLostException extends RuntimeException {
+        private LeaseLostException() {
+            super(null, null, false, false);
+        }
+    }
+}
\ No newline at end of file
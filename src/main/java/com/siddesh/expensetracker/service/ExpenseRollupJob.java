@@ -0,0 +1,55 @@
+package com.siddesh.expensetracker.service;
+
+import java.time.Instant;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Repairs {@code expense_rollups} from the raw expenses: once at startup if no full rebuild has
+ * ever completed, and then on {@code expenses.rollups.rebuild-cron} if configured.
+ */
+@Component
+public class ExpenseRollupJob {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExpenseRollupJob.class);
+
+    private final ExpenseRollupService expenseRollupService;
+    private final TaskScheduler taskScheduler;
+    private final boolean bootstrapOnStartup;
+
+    public ExpenseRollupJob(ExpenseRollupService expenseRollupService,
+                            TaskScheduler taskScheduler,
+                            @Value("${expenses.rollups.bootstrap-on-startup:false}") boolean bootstrapOnStartup) {
+        this.expenseRollupService = expenseRollupService;
+        this.taskScheduler = taskScheduler;
+        this.bootstrapOnStartup = bootstrapOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        if (bootstrapOnStartup) {
+            // Off the startup thread: summaries fall back to aggregation until this completes
+            taskScheduler.schedule(() -> {
+                try {
+                    if (!expenseRollupService.isReady()) {
+                        expenseRollupService.rebuildAll();
+                    }
+                } catch (RuntimeException ex) {
+                    LOGGER.warn("Initial expense rollup rebuild failed; summaries will keep using aggregation", ex);
+                }
+            }, Instant.now());
+        }
+    }
+
+    @Scheduled(cron = "${expenses.rollups.rebuild-cron:-}")
+    public void rebuildAll() {
+        expenseRollupService.rebuildAll();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,288 @@
+package com.siddesh.expensetracker.service;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.siddesh.expensetracker.dto.CategoryTotal;
+import com.siddesh.expensetracker.dto.PeriodTotal;
+import com.siddesh.expensetracker.mongo.document.ExpenseDocument;
+import com.siddesh.expensetracker.mongo.document.ExpenseRollupDocument;
+
+/**
+ * Maintains {@code expense_rollups}: one document per user, month and category holding the
+ * running total and count. Writers report what they removed and added and the rollups are
+ * adjusted with {@code $inc} upserts; {@link #rebuild(Long)} repairs them from the raw
+ * expenses if they ever drift.
+ */
+@Service
+public class ExpenseRollupService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExpenseRollupService.class);
+
+    // Written once a full rebuild has completed, so nodes know rollups cover historical data
+    private static final String REBUILT_MARKER_ID = "_rebuilt";
+
+    private final MongoOperations mongoOperations;
+    private final CategoryDictionary categoryDictionary;
+    private final DateOperators.Timezone timezone = DateOperators.Timezone.valueOf(ZoneId.systemDefault().getId());
+    private volatile boolean ready;
+
+    public ExpenseRollupService(MongoOperations mongoOperations, CategoryDictionary categoryDictionary) {
+        this.mongoOperations = mongoOperations;
+        this.categoryDictionary = categoryDictionary;
+    }
+
+    public void recordCreated(ExpenseDocument expense) {
+        record(List.of(), List.of(expense));
+    }
+
+    public void recordUpdated(ExpenseDocument before, ExpenseDocument after) {
+        record(List.of(before), List.of(after));
+    }
+
+    public void recordDeleted(ExpenseDocument expense) {
+        record(List.of(expense), List.of());
+    }
+
+    /**
+     * Applies the net effect of removing and adding the given expenses in one bulk write.
+     * Buckets whose net change is zero (e.g. a description-only edit) are not touched.
+     */
+    public void record(Collection<ExpenseDocument> removed, Collection<ExpenseDocument> added) {
+        List<RollupChange> changes = changes(removed, added, categoryDictionary::nameOf);
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, ExpenseRollupDocument.class);
+        changes.forEach(change -> bulk.upsert(change.query(), change.update()));
+        bulk.execute();
+
+        List<String> shrunk = shrunkIds(changes);
+        if (!shrunk.isEmpty()) {
+            mongoOperations.remove(emptiedBuckets(shrunk), ExpenseRollupDocument.class);
+        }
+    }
+
+    /**
+     * The upserts that apply the net effect of removing and adding the given expenses. Shared
+     * with the reactive service so both write rollups identically. Buckets are keyed by category
+     * name, so an expense moved from a name to a category id stays in the same bucket; the reactive
+     * service resolves the names up front and passes them in as {@code categoryName}.
+     */
+    static List<RollupChange> changes(Collection<ExpenseDocument> removed, Collection<ExpenseDocument> added,
+                                      Function<ExpenseDocument, String> categoryName) {
+        Map<String, Delta> deltas = new LinkedHashMap<>();
+        removed.forEach(expense -> accumulate(deltas, expense, categoryName.apply(expense), -1));
+        added.forEach(expense -> accumulate(deltas, expense, categoryName.apply(expense), 1));
+        deltas.values().removeIf(Delta::isZero);
+
+        List<RollupChange> changes = new ArrayList<>(deltas.size());
+        deltas.forEach((id, delta) -> changes.add(new RollupChange(
+                Query.query(Criteria.where("_id").is(id)),
+                new Update()
+                        .inc("total", new Decimal128(delta.amount))
+                        .inc("count", delta.count)
+                        .setOnInsert("userId", delta.userId)
+                        .setOnInsert("month", delta.month)
+                        .setOnInsert("category", delta.category),
+                id,
+                delta.count < 0)));
+        return changes;
+    }
+
+    static List<String> shrunkIds(List<RollupChange> changes) {
+        return changes.stream().filter(RollupChange::shrinks).map(RollupChange::id).toList();
+    }
+
+    // Buckets among the given ids that no longer hold any expense
+    static Query emptiedBuckets(List<String> ids) {
+        return Query.query(Criteria.where("_id").in(ids).and("count").lte(0));
+    }
+
+    record RollupChange(Query query, Update update, String id, boolean shrinks) {}
+
+    /**
+     * True once rollups are known to include every expense written before they existed.
+     */
+    public boolean isReady() {
+        if (!ready) {
+            ready = mongoOperations.exists(Query.query(Criteria.where("_id").is(REBUILT_MARKER_ID)),
+                    ExpenseRollupDocument.class);
+        }
+        return ready;
+    }
+
+    public List<CategoryTotal> totalsByCategory(Long userId, YearMonth from, YearMonth to) {
+        Map<String, CategoryTotal> totals = new LinkedHashMap<>();
+        for (ExpenseRollupDocument rollup : find(userId, from, to)) {
+            String key = rollup.getCategory() == null ? "" : rollup.getCategory();
+            CategoryTotal current = totals.get(key);
+            totals.put(key, current == null
+                    ? new CategoryTotal(rollup.getCategory(), rollup.getTotal(), rollup.getCount())
+                    : new CategoryTotal(current.category(), current.total().add(rollup.getTotal()), current.count() + rollup.getCount()));
+        }
+        return totals.values().stream()
+                .sorted(Comparator.comparing(CategoryTotal::category, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .toList();
+    }
+
+    public List<PeriodTotal> totalsByMonth(Long userId, YearMonth from, YearMonth to) {
+        Map<String, PeriodTotal> totals = new LinkedHashMap<>();
+        for (ExpenseRollupDocument rollup : find(userId, from, to)) {
+            if (ExpenseRollupDocument.UNDATED.equals(rollup.getMonth())) {
+                continue;
+            }
+            PeriodTotal current = totals.get(rollup.getMonth());
+            totals.put(rollup.getMonth(), current == null
+                    ? new PeriodTotal(rollup.getMonth(), rollup.getTotal(), rollup.getCount())
+                    : new PeriodTotal(current.period(), current.total().add(rollup.getTotal()), current.count() + rollup.getCount()));
+        }
+        return totals.values().stream()
+                .sorted(Comparator.comparing(PeriodTotal::period))
+                .toList();
+    }
+
+    /**
+     * Recomputes one user's rollups from the {@code expenses} collection. Buckets are overwritten
+     * in place and only those left without expenses are removed afterwards, so readers never see
+     * a bucket go missing. Writes that land while the rebuild runs may be lost from the result;
+     * the next rebuild corrects them.
+     */
+    public void rebuild(Long userId) {
+        TypedAggregation<ExpenseDocument> aggregation = Aggregation.newAggregation(ExpenseDocument.class,
+                Aggregation.match(Criteria.where("userId").is(userId)),
+                Aggregation.project("categoryId", "category")
+                        .and(DateOperators.dateOf("date").withTimezone(timezone).toString("%Y-%m")
+                                .onNullReturn(ExpenseRollupDocument.UNDATED)).as("month")
+                        .and(ConvertOperators.ToDecimal.toDecimal("$amount")).as("amount"),
+                Aggregation.group("month", "categoryId", "category")
+                        .sum("amount").as("total")
+                        .count().as("count"));
+
+        // Migrated and not yet migrated expenses of one category come back as separate groups
+        Map<String, ExpenseRollupDocument> buckets = new LinkedHashMap<>();
+        for (Document result : mongoOperations.aggregate(aggregation, Document.class).getMappedResults()) {
+            Document key = result.get("_id", Document.class);
+            String month = key.getString("month");
+            Number categoryId = key.get("categoryId", Number.class);
+            String category = categoryId != null ? categoryDictionary.nameOf(categoryId.longValue()) : key.getString("category");
+            String id = ExpenseRollupDocument.idOf(userId, month, category);
+            buckets.merge(id,
+                    ExpenseRollupDocument.builder()
+                            .id(id)
+                            .userId(userId)
+                            .month(month)
+                            .category(category)
+                            .total(toBigDecimal(result.get("total")))
+                            .count(((Number) result.get("count")).longValue())
+                            .build(),
+                    (existing, added) -> {
+                        existing.setTotal(existing.getTotal().add(added.getTotal()));
+                        existing.setCount(existing.getCount() + added.getCount());
+                        return existing;
+                    });
+        }
+
+        // Upserts rather than remove + insert: live $inc upserts on the same ids can't collide
+        // with the rewrite and no bucket disappears while it runs
+        if (!buckets.isEmpty()) {
+            BulkOperations bulk = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, ExpenseRollupDocument.class);
+            buckets.values().forEach(rollup -> bulk.upsert(
+                    Query.query(Criteria.where("_id").is(rollup.getId())),
+                    new Update()
+                            .set("total", new Decimal128(rollup.getTotal()))
+                            .set("count", rollup.getCount())
+                            .set("userId", userId)
+                            .set("month", rollup.getMonth())
+                            .set("category", rollup.getCategory())));
+            bulk.execute();
+        }
+        mongoOperations.remove(Query.query(Criteria.where("userId").is(userId).and("_id").nin(buckets.keySet())),
+                ExpenseRollupDocument.class);
+    }
+
+    public void rebuildAll() {
+        List<Long> userIds = mongoOperations.findDistinct(new Query(), "userId", ExpenseDocument.class, Long.class);
+        LOGGER.info("Rebuilding expense rollups for {} users", userIds.size());
+        for (Long userId : userIds) {
+            rebuild(userId);
+        }
+        mongoOperations.upsert(Query.query(Criteria.where("_id").is(REBUILT_MARKER_ID)),
+                new Update().currentDate("rebuiltAt"), ExpenseRollupDocument.class);
+        ready = true;
+    }
+
+    private List<ExpenseRollupDocument> find(Long userId, YearMonth from, YearMonth to) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (from != null || to != null) {
+            criteria = criteria.and("month")
+                    .gte(from != null ? from.toString() : "0000-01")
+                    .lte(to != null ? to.toString() : "9999-12");
+        }
+        return mongoOperations.find(Query.query(criteria), ExpenseRollupDocument.class);
+    }
+
+    private static void accumulate(Map<String, Delta> deltas, ExpenseDocument expense, String category, int sign) {
+        String month = expense.getDate() != null
+                ? YearMonth.from(expense.getDate()).toString()
+                : ExpenseRollupDocument.UNDATED;
+        String id = ExpenseRollupDocument.idOf(expense.getUserId(), month, category);
+        Delta delta = deltas.computeIfAbsent(id, key -> new Delta(expense.getUserId(), month, category));
+        BigDecimal amount = expense.getAmount() != null ? expense.getAmount() : BigDecimal.ZERO;
+        delta.amount = sign > 0 ? delta.amount.add(amount) : delta.amount.subtract(amount);
+        delta.count += sign;
+    }
+
+    private BigDecimal toBigDecimal(Object value) {
+        if (value instanceof Decimal128 decimal) {
+            return decimal.bigDecimalValue();
+        }
+        if (value instanceof Number number) {
+            return new BigDecimal(number.toString());
+        }
+        return BigDecimal.ZERO;
+    }
+
+    private static final class Delta {
+
+        private final Long userId;
+        private final String month;
+        private final String category;
+        private BigDecimal amount = BigDecimal.ZERO;
+        private long count;
+
+        private Delta(Long userId, String month, String category) {
+            this.userId = userId;
+            this.month = month;
+            this.category = category;
+        }
+
+        private boolean isZero() {
+            return count == 0 && amount.signum() == 0;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,150 @@
+package com.siddesh.expensetracker.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.bson.types.Decimal128;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.stereotype.Service;
+
+import com.siddesh.expensetracker.dto.ExpenseSearchRequest;
+import com.siddesh.expensetracker.dto.ExpenseSearchResult;
+import com.siddesh.expensetracker.entity.Expense;
+import com.siddesh.expensetracker.mongo.document.ExpenseDocument;
+
+/**
+ * Server-side search over a user's expenses. Text queries go through the description text
+ * index, whose {@code user_id} prefix keeps each search inside one user's entries instead of
+ * every user's matches for the same words; the other filters are applied to those matches.
+ * Without text, the filters run on the date or category indexes.
+ *
+ * <p>Mongo text search matches whole (stemmed) words only, so partial words typed by the user
+ * find nothing until completed. Categories are filtered by name and autocompleted from the
+ * user's category dictionary by {@link #suggestCategories}.
+ */
+@Service
+public class ExpenseSearchService {
+
+    private final MongoOperations mongoOperations;
+    private final CategoryDictionary categoryDictionary;
+    private final ExpenseCategoryMigration expenseCategoryMigration;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int maxResults;
+
+    public ExpenseSearchService(MongoOperations mongoOperations,
+                                CategoryDictionary categoryDictionary,
+                                ExpenseCategoryMigration expenseCategoryMigration,
+                                @Value("${expenses.page.default-size:50}") int defaultPageSize,
+                                @Value("${expenses.page.max-size:500}") int maxPageSize,
+                                @Value("${expenses.search.max-results:1000}") int maxResults) {
+        this.mongoOperations = mongoOperations;
+        this.categoryDictionary = categoryDictionary;
+        this.expenseCategoryMigration = expenseCategoryMigration;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.maxResults = maxResults;
+    }
+
+    public ExpenseSearchResult search(Long userId, ExpenseSearchRequest request) {
+        int pageSize = request.size() == null ? defaultPageSize : Math.max(1, Math.min(request.size(), maxPageSize));
+        int page = request.page() == null ? 0 : request.page();
+        if (page < 0) {
+            throw new IllegalArgumentException("page must not be negative");
+        }
+        // Text matches are scored and sorted as a whole, so deep pages cost as much as the full result
+        if ((long) page * pageSize >= maxResults) {
+            throw new IllegalArgumentException("Only the first " + maxResults + " results can be paged through");
+        }
+
+        Query query;
+        if (request.q() != null && !request.q().isBlank()) {
+            query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(request.q())).sortByScore();
+        } else {
+            query = new Query();
+        }
+        query.addCriteria(filters(userId, request))
+                .with(Sort.by(Sort.Direction.DESC, "date", "expenseId"))
+                .skip((long) page * pageSize)
+                // One extra row to learn whether another page follows
+                .limit(pageSize + 1);
+
+        List<ExpenseDocument> documents = mongoOperations.find(query, ExpenseDocument.class);
+        boolean hasMore = documents.size() > pageSize && (page + 1) * pageSize < maxResults;
+        List<ExpenseDocument> items = documents.size() > pageSize ? documents.subList(0, pageSize) : documents;
+        return new ExpenseSearchResult(items.stream().map(this::toExpense).toList(), page, hasMore);
+    }
+
+    /**
+     * The user's categories starting with {@code prefix}, ignoring case, in alphabetical order.
+     */
+    public List<String> suggestCategories(Long userId, String prefix, int limit) {
+        return categoryDictionary.suggest(userId, prefix, limit);
+    }
+
+    private Criteria filters(Long userId, ExpenseSearchRequest request) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+
+        List<Criteria> bounds = new ArrayList<>();
+        if (request.category() != null && !request.category().isBlank()) {
+            bounds.add(categoryCriteria(userId, request.category()));
+        }
+        if (request.from() != null || request.to() != null) {
+            Criteria date = Criteria.where("date");
+            if (request.from() != null) {
+                date = date.gte(request.from());
+            }
+            if (request.to() != null) {
+                date = date.lte(request.to());
+            }
+            bounds.add(date);
+        }
+        // Amounts may be stored as strings, which don't compare numerically, so compare them as decimals
+        if (request.minAmount() != null) {
+            bounds.add(Criteria.expr(ComparisonOperators.Gte.valueOf(amountAsDecimal())
+                    .greaterThanEqualToValue(new Decimal128(request.minAmount()))));
+        }
+        if (request.maxAmount() != null) {
+            bounds.add(Criteria.expr(ComparisonOperators.Lte.valueOf(amountAsDecimal())
+                    .lessThanEqualToValue(new Decimal128(request.maxAmount()))));
+        }
+        if (!bounds.isEmpty()) {
+            criteria = criteria.andOperator(bounds);
+        }
+        return criteria;
+    }
+
+    // An unknown category becomes an empty $in, which matches nothing
+    private Criteria categoryCriteria(Long userId, String name) {
+        Optional<Long> categoryId = categoryDictionary.findId(userId, name);
+        Criteria byId = Criteria.where("categoryId").in(categoryId.stream().toList());
+        if (expenseCategoryMigration.isComplete()) {
+            return byId;
+        }
+        return new Criteria().orOperator(byId, Criteria.where("category").is(name));
+    }
+
+    private ConvertOperators.ToDecimal amountAsDecimal() {
+        return ConvertOperators.ToDecimal.toDecimal("$amount");
+    }
+
+    private Expense toExpense(ExpenseDocument document) {
+        return new Expense(
+                document.getExpenseId(),
+                document.getDescription(),
+                document.getAmount(),
+                document.getDate(),
+                categoryDictionary.nameOf(document),
+                null
+        );
+    }
+}
\ No newline at end of file
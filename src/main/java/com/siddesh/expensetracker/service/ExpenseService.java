@@ -1,13 +1,25 @@
 package com.siddesh.expensetracker.service;
 
+import com.siddesh.expensetracker.dto.BatchItemResult;
+import com.siddesh.expensetracker.dto.ExpensePage;
 import com.siddesh.expensetracker.entity.Expense;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ExpenseService {
 
     List<Expense> getAllExpensesByUserId(Long userId);
 
+    ExpensePage getExpensePage(Long userId, String cursor, Integer size);
+
+    /**
+     * Streams a user's expenses in date order straight from a Mongo cursor, optionally limited
+     * to an inclusive date range. The caller must close the stream.
+     */
+    Stream<Expense> streamExpenses(Long userId, LocalDate from, LocalDate to);
+
     Optional<Expense> getExpenseByIdAndUserId(Long id, Long userId);
 
     Expense createExpense(Expense expense, Long userId);
@@ -15,4 +27,18 @@ public interface ExpenseService {
     Optional<Expense> updateExpense(Long id, Expense expenseDetails, Long userId);
 
     void deleteExpense(Long id, Long userId);
+
+    List<BatchItemResult> createExpenses(List<Expense> expenses, Long userId);
+
+    /**
+     * Inserts expenses using ids {@code firstId .. firstId + size - 1}, which the caller must have
+     * obtained from {@link #reserveExpenseIds(int)}. Lets callers record the ids before writing.
+     */
+    List<BatchItemResult> createExpenses(List<Expense> expenses, Long userId, long firstId);
+
+    long reserveExpenseIds(int count);
+
+    List<BatchItemResult> updateExpenses(List<Expense> expenses, Long userId);
+
+    List<BatchItemResult> deleteExpenses(List<Long> ids, Long userId);
 }
\ No newline at end of file
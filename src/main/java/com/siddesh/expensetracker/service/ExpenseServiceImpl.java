@@ -1,101 +1,479 @@
 package com.siddesh.expensetracker.service;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import com.siddesh.expensetracker.dto.BatchItemResult;
+import com.siddesh.expensetracker.dto.ExpenseEvent;
+import com.siddesh.expensetracker.dto.ExpensePage;
 import com.siddesh.expensetracker.entity.Expense;
-import com.siddesh.expensetracker.entity.User;
 import com.siddesh.expensetracker.mongo.document.ExpenseDocument;
 import com.siddesh.expensetracker.mongo.repository.ExpenseDocumentRepository;
 import com.siddesh.expensetracker.mongo.service.SequenceGeneratorService;
-import com.siddesh.expensetracker.repository.UserRepository;
+import com.siddesh.expensetracker.mongo.service.UserDataVersionService;
+import com.siddesh.expensetracker.service.cache.ExpenseReadCache;
+import com.siddesh.expensetracker.service.events.ExpensesChangedEvent;
 
 @Service
 public class ExpenseServiceImpl implements ExpenseService {
 
     private static final String EXPENSE_SEQUENCE = "expense_sequence";
+    private static final int STREAM_BATCH_SIZE = 500;
+    private static final int MAX_UPDATE_ATTEMPTS = 3;
 
     private final ExpenseDocumentRepository expenseDocumentRepository;
-    private final UserRepository userRepository;
+    private final MongoOperations mongoOperations;
     private final SequenceGeneratorService sequenceGeneratorService;
+    private final CategoryDictionary categoryDictionary;
+    private final ExpenseRollupService expenseRollupService;
+    private final ExpenseReadCache expenseReadCache;
+    private final UserDataVersionService userDataVersionService;
+    private final ExpenseSyncService expenseSyncService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int maxListResults;
+    private final int maxBatchSize;
 
     public ExpenseServiceImpl(ExpenseDocumentRepository expenseDocumentRepository,
-                              UserRepository userRepository,
-                              SequenceGeneratorService sequenceGeneratorService) {
+                              MongoOperations mongoOperations,
+                              SequenceGeneratorService sequenceGeneratorService,
+                              CategoryDictionary categoryDictionary,
+                              ExpenseRollupService expenseRollupService,
+                              ExpenseReadCache expenseReadCache,
+                              UserDataVersionService userDataVersionService,
+                              ExpenseSyncService expenseSyncService,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${expenses.page.default-size:50}") int defaultPageSize,
+                              @Value("${expenses.page.max-size:500}") int maxPageSize,
+                              @Value("${expenses.list.max-results:0}") int maxListResults,
+                              @Value("${expenses.batch.max-size:1000}") int maxBatchSize) {
         this.expenseDocumentRepository = expenseDocumentRepository;
-        this.userRepository = userRepository;
+        this.mongoOperations = mongoOperations;
         this.sequenceGeneratorService = sequenceGeneratorService;
+        this.categoryDictionary = categoryDictionary;
+        this.expenseRollupService = expenseRollupService;
+        this.expenseReadCache = expenseReadCache;
+        this.userDataVersionService = userDataVersionService;
+        this.expenseSyncService = expenseSyncService;
+        this.eventPublisher = eventPublisher;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.maxListResults = maxListResults;
+        this.maxBatchSize = maxBatchSize;
     }
 
     @Override
     public List<Expense> getAllExpensesByUserId(Long userId) {
-        User user = getUserOrThrow(userId);
-        return expenseDocumentRepository.findByUserId(userId)
-                .stream()
-                .map(document -> toExpense(document, user))
-                .toList();
+        return expenseReadCache.get(userId, "list", () -> {
+            // When capped, return the most recent expenses rather than an arbitrary subset
+            List<ExpenseDocument> documents = maxListResults > 0
+                    ? expenseDocumentRepository.findByUserIdOrderByDateDescExpenseIdDesc(userId, Limit.of(maxListResults))
+                    : expenseDocumentRepository.findByUserId(userId);
+            return documents
+                    .stream()
+                    .map(this::toExpense)
+                    .toList();
+        });
+    }
+
+    @Override
+    public ExpensePage getExpensePage(Long userId, String cursor, Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        // Fetch one extra row to learn whether another page follows
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<ExpenseDocument> documents;
+        if (cursor == null || cursor.isBlank()) {
+            documents = expenseDocumentRepository.findByUserIdOrderByDateDescExpenseIdDesc(userId, limit);
+        } else {
+            ExpenseCursor position = ExpenseCursor.decode(cursor);
+            documents = position.date() != null
+                    ? expenseDocumentRepository.findPageAfter(userId, position.date(), position.expenseId(), limit)
+                    : expenseDocumentRepository.findUndatedPageAfter(userId, position.expenseId(), limit);
+        }
+
+        boolean hasMore = documents.size() > pageSize;
+        List<ExpenseDocument> page = hasMore ? documents.subList(0, pageSize) : documents;
+        String nextCursor = null;
+        if (hasMore) {
+            ExpenseDocument last = page.get(page.size() - 1);
+            nextCursor = new ExpenseCursor(last.getDate(), last.getExpenseId()).encode();
+        }
+        return new ExpensePage(page.stream().map(this::toExpense).toList(), nextCursor);
+    }
+
+    @Override
+    public Stream<Expense> streamExpenses(Long userId, LocalDate from, LocalDate to) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (from != null || to != null) {
+            Criteria date = Criteria.where("date");
+            if (from != null) {
+                date = date.gte(from);
+            }
+            if (to != null) {
+                date = date.lte(to);
+            }
+            criteria = criteria.andOperator(date);
+        }
+
+        Query query = Query.query(criteria)
+                .with(Sort.by("date", "expenseId"))
+                .cursorBatchSize(STREAM_BATCH_SIZE);
+        return mongoOperations.stream(query, ExpenseDocument.class).map(this::toExpense);
     }
 
     @Override
     public Optional<Expense> getExpenseByIdAndUserId(Long id, Long userId) {
-        User user = getUserOrThrow(userId);
         return expenseDocumentRepository.findByExpenseIdAndUserId(id, userId)
-                .map(document -> toExpense(document, user));
+                .map(this::toExpense);
     }
 
     @Override
     public Expense createExpense(Expense expense, Long userId) {
-        User user = getUserOrThrow(userId);
         long nextId = sequenceGeneratorService.getNextSequence(EXPENSE_SEQUENCE);
 
-        ExpenseDocument document = ExpenseDocument.builder()
-                .expenseId(nextId)
-                .userId(userId)
-                .description(expense.getDescription())
-                .amount(expense.getAmount())
-                .date(expense.getDate())
-                .category(expense.getCategory())
-                .build();
+        ExpenseDocument document = newDocument(expense, userId, nextId);
+        document.setChangeSequence(expenseSyncService.reserveChanges(userId, 1));
 
         ExpenseDocument saved = expenseDocumentRepository.save(document);
-        return toExpense(saved, user);
+        Expense created = toExpense(saved);
+        try {
+            expenseRollupService.recordCreated(saved);
+        } finally {
+            dataChanged(userId, List.of(ExpenseEvent.created(created)), saved.getChangeSequence());
+        }
+        return created;
     }
 
     @Override
     public Optional<Expense> updateExpense(Long id, Expense expenseDetails, Long userId) {
-        User user = getUserOrThrow(userId);
-        return expenseDocumentRepository.findByExpenseIdAndUserId(id, userId)
-                .map(document -> {
-                    document.setDescription(expenseDetails.getDescription());
-                    document.setAmount(expenseDetails.getAmount());
-                    document.setDate(expenseDetails.getDate());
-                    document.setCategory(expenseDetails.getCategory());
-                    ExpenseDocument saved = expenseDocumentRepository.save(document);
-                    return toExpense(saved, user);
-                });
+        for (int attempt = 0; attempt < MAX_UPDATE_ATTEMPTS; attempt++) {
+            Optional<ExpenseDocument> found = expenseDocumentRepository.findByExpenseIdAndUserId(id, userId);
+            if (found.isEmpty()) {
+                return Optional.empty();
+            }
+            ExpenseDocument document = found.get();
+            ExpenseDocument before = document.toBuilder().build();
+            applyDetails(document, expenseDetails);
+            document.setChangeSequence(expenseSyncService.reserveChanges(userId, 1));
+            // Only replaces the version that was read, so the rollup delta is taken against what this
+            // write actually overwrote; a concurrent edit or delete in between makes it start over
+            Query unchanged = Query.query(Criteria.where("userId").is(userId).and("expenseId").is(id)
+                    .and("changeSequence").is(before.getChangeSequence()));
+            if (mongoOperations.updateFirst(unchanged, detailsUpdate(document), ExpenseDocument.class).getMatchedCount() == 0) {
+                userDataVersionService.release(userId, document.getChangeSequence());
+                continue;
+            }
+            Expense updated = toExpense(document);
+            try {
+                expenseRollupService.recordUpdated(before, document);
+            } finally {
+                dataChanged(userId, List.of(ExpenseEvent.updated(updated)), document.getChangeSequence());
+            }
+            return Optional.of(updated);
+        }
+        throw new IllegalStateException("Expense " + id + " kept changing concurrently.");
     }
 
     @Override
     public void deleteExpense(Long id, Long userId) {
-        expenseDocumentRepository.findByExpenseIdAndUserId(id, userId)
-                .ifPresent(expenseDocumentRepository::delete);
+        // Of two concurrent deletes only one gets the document back, so derived state changes once
+        ExpenseDocument document = mongoOperations.findAndRemove(
+                Query.query(Criteria.where("userId").is(userId).and("expenseId").is(id)), ExpenseDocument.class);
+        if (document == null) {
+            return;
+        }
+        long[] reservations = expenseSyncService.recordDeletions(userId, List.of(id));
+        try {
+            expenseRollupService.recordDeleted(document);
+        } finally {
+            dataChanged(userId, List.of(ExpenseEvent.deleted(id)), reservations);
+        }
     }
 
-    private Expense toExpense(ExpenseDocument document, User user) {
+    @Override
+    public List<BatchItemResult> createExpenses(List<Expense> expenses, Long userId) {
+        checkBatchSize(expenses.size());
+        if (expenses.isEmpty()) {
+            return List.of();
+        }
+        // One reserved id range and one insertMany for the whole batch
+        return createExpenses(expenses, userId, reserveExpenseIds(expenses.size()));
+    }
+
+    @Override
+    public long reserveExpenseIds(int count) {
+        return sequenceGeneratorService.reserveSequenceBlock(EXPENSE_SEQUENCE, count);
+    }
+
+    @Override
+    public List<BatchItemResult> createExpenses(List<Expense> expenses, Long userId, long firstId) {
+        if (expenses.isEmpty()) {
+            return List.of();
+        }
+        long changeSequence = expenseSyncService.reserveChanges(userId, expenses.size());
+        List<ExpenseDocument> documents = new ArrayList<>(expenses.size());
+        for (int i = 0; i < expenses.size(); i++) {
+            ExpenseDocument document = newDocument(expenses.get(i), userId, firstId + i);
+            document.setChangeSequence(changeSequence + i);
+            documents.add(document);
+        }
+
+        Map<Integer, String> failures = new HashMap<>();
+        try {
+            mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, ExpenseDocument.class)
+                    .insert(documents)
+                    .execute();
+        } catch (BulkOperationException ex) {
+            ex.getErrors().forEach(error -> failures.put(error.getIndex(), error.getMessage()));
+        }
+
+        List<BatchItemResult> results = new ArrayList<>(documents.size());
+        List<ExpenseDocument> inserted = new ArrayList<>(documents.size());
+        for (int i = 0; i < documents.size(); i++) {
+            ExpenseDocument document = documents.get(i);
+            if (failures.containsKey(i)) {
+                results.add(new BatchItemResult(i, null, BatchItemResult.Status.FAILED, failures.get(i)));
+            } else {
+                inserted.add(document);
+                results.add(BatchItemResult.of(i, document.getExpenseId(), BatchItemResult.Status.CREATED));
+            }
+        }
+        if (inserted.isEmpty()) {
+            userDataVersionService.release(userId, changeSequence);
+            return results;
+        }
+        List<ExpenseEvent> events = inserted.stream().map(document -> ExpenseEvent.created(toExpense(document))).toList();
+        try {
+            expenseRollupService.record(List.of(), inserted);
+        } finally {
+            dataChanged(userId, events, changeSequence);
+        }
+        return results;
+    }
+
+    @Override
+    public List<BatchItemResult> updateExpenses(List<Expense> expenses, Long userId) {
+        checkBatchSize(expenses.size());
+        List<Long> ids = expenses.stream().map(Expense::getId).filter(Objects::nonNull).distinct().toList();
+        Map<Long, ExpenseDocument> originals = findByIds(ids, userId);
+        Map<Long, ExpenseDocument> current = new HashMap<>();
+        originals.forEach((id, document) -> current.put(id, document.toBuilder().build()));
+
+        // Ordered, so repeated ids in one batch apply in request order like individual PUTs would
+        BulkOperations bulk = mongoOperations.bulkOps(BulkOperations.BulkMode.ORDERED, ExpenseDocument.class);
+        BatchItemResult[] results = new BatchItemResult[expenses.size()];
+        List<PendingUpdate> updates = new ArrayList<>();
+        long changeSequence = originals.isEmpty() ? 0 : expenseSyncService.reserveChanges(userId, expenses.size());
+        for (int i = 0; i < expenses.size(); i++) {
+            Expense expense = expenses.get(i);
+            ExpenseDocument document = expense.getId() != null ? current.get(expense.getId()) : null;
+            if (document == null) {
+                results[i] = BatchItemResult.of(i, expense.getId(), BatchItemResult.Status.NOT_FOUND);
+                continue;
+            }
+            applyDetails(document, expense);
+            document.setChangeSequence(changeSequence + i);
+            bulk.updateOne(
+                    Query.query(Criteria.where("userId").is(userId).and("expenseId").is(expense.getId())),
+                    detailsUpdate(document));
+            updates.add(new PendingUpdate(i, document.toBuilder().build()));
+        }
+        if (updates.isEmpty()) {
+            return Arrays.asList(results);
+        }
+
+        // An ordered bulk stops at the first failing update; the ones before it are applied
+        int applied = updates.size();
+        String failure = null;
+        long matched;
+        try {
+            matched = bulk.execute().getMatchedCount();
+        } catch (BulkOperationException ex) {
+            if (!ex.getErrors().isEmpty()) {
+                applied = ex.getErrors().get(0).getIndex();
+                failure = ex.getErrors().get(0).getMessage();
+            }
+            matched = ex.getResult().getMatchedCount();
+        }
+        // Expenses deleted since they were read matched nothing and must stay out of derived state
+        Set<Long> gone = matched < applied ? missingIds(updates.subList(0, applied), userId) : Set.of();
+
+        Map<Long, ExpenseDocument> updated = new LinkedHashMap<>();
+        for (int k = 0; k < updates.size(); k++) {
+            PendingUpdate update = updates.get(k);
+            Long id = update.document().getExpenseId();
+            if (k < applied && !gone.contains(id)) {
+                updated.put(id, update.document());
+                results[update.index()] = BatchItemResult.of(update.index(), id, BatchItemResult.Status.UPDATED);
+            } else if (k < applied) {
+                results[update.index()] = BatchItemResult.of(update.index(), id, BatchItemResult.Status.NOT_FOUND);
+            } else {
+                String message = k == applied ? failure : "Not applied because an earlier update in the batch failed.";
+                results[update.index()] = new BatchItemResult(update.index(), id, BatchItemResult.Status.FAILED, message);
+            }
+        }
+        if (updated.isEmpty()) {
+            userDataVersionService.release(userId, changeSequence);
+            return Arrays.asList(results);
+        }
+        List<ExpenseEvent> events = updated.values().stream().map(document -> ExpenseEvent.updated(toExpense(document))).toList();
+        try {
+            expenseRollupService.record(updated.keySet().stream().map(originals::get).toList(), updated.values());
+        } finally {
+            dataChanged(userId, events, changeSequence);
+        }
+        return Arrays.asList(results);
+    }
+
+    @Override
+    public List<BatchItemResult> deleteExpenses(List<Long> ids, Long userId) {
+        checkBatchSize(ids.size());
+        Map<Long, ExpenseDocument> existing = findByIds(ids.stream().filter(Objects::nonNull).distinct().toList(), userId);
+        Map<Long, String> failures = new HashMap<>();
+        if (!existing.isEmpty()) {
+            List<Long> targets = new ArrayList<>(existing.keySet());
+            BulkOperations bulk = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, ExpenseDocument.class);
+            targets.forEach(id -> bulk.remove(Query.query(Criteria.where("userId").is(userId).and("expenseId").is(id))));
+            long deletedCount;
+            try {
+                deletedCount = bulk.execute().getDeletedCount();
+            } catch (BulkOperationException ex) {
+                ex.getErrors().forEach(error -> failures.put(targets.get(error.getIndex()), error.getMessage()));
+                deletedCount = ex.getResult().getDeletedCount();
+            }
+
+            List<ExpenseDocument> deleted = existing.values().stream()
+                    .filter(document -> !failures.containsKey(document.getExpenseId()))
+                    .toList();
+            if (!deleted.isEmpty()) {
+                List<Long> deletedIds = deleted.stream().map(ExpenseDocument::getExpenseId).toList();
+                long[] reservations = expenseSyncService.recordDeletions(userId, deletedIds);
+                try {
+                    if (deletedCount < deleted.size()) {
+                        // Another request deleted some of these first and already took them out of the
+                        // rollups; which ones is unknown, so recount rather than subtract them twice
+                        expenseRollupService.rebuild(userId);
+                    } else {
+                        expenseRollupService.record(deleted, List.of());
+                    }
+                } finally {
+                    dataChanged(userId, deletedIds.stream().map(ExpenseEvent::deleted).toList(), reservations);
+                }
+            }
+        }
+
+        List<BatchItemResult> results = new ArrayList<>(ids.size());
+        Set<Long> reported = new HashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            if (id != null && failures.containsKey(id) && reported.add(id)) {
+                results.add(new BatchItemResult(i, id, BatchItemResult.Status.FAILED, failures.get(id)));
+                continue;
+            }
+            boolean deleted = id != null && existing.containsKey(id) && reported.add(id);
+            results.add(BatchItemResult.of(i, id, deleted ? BatchItemResult.Status.DELETED : BatchItemResult.Status.NOT_FOUND));
+        }
+        return results;
+    }
+
+    // Called after every write that reached Mongo, with the change sequences it reserved; runs even
+    // when the rollup update fails, so the version, cache and reservations never lag the data
+    private void dataChanged(Long userId, List<ExpenseEvent> events, long... reservations) {
+        userDataVersionService.bump(userId, reservations);
+        expenseReadCache.invalidate(userId);
+        eventPublisher.publishEvent(new ExpensesChangedEvent(userId, events));
+    }
+
+    private Map<Long, ExpenseDocument> findByIds(Collection<Long> ids, Long userId) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, ExpenseDocument> documents = new HashMap<>();
+        mongoOperations.find(Query.query(Criteria.where("userId").is(userId).and("expenseId").in(ids)), ExpenseDocument.class)
+                .forEach(document -> documents.put(document.getExpenseId(), document));
+        return documents;
+    }
+
+    private Set<Long> missingIds(List<PendingUpdate> updates, Long userId) {
+        Set<Long> ids = new HashSet<>();
+        updates.forEach(update -> ids.add(update.document().getExpenseId()));
+        ids.removeAll(findByIds(ids, userId).keySet());
+        return ids;
+    }
+
+    private void checkBatchSize(int size) {
+        if (size > maxBatchSize) {
+            throw new IllegalArgumentException("Batch size " + size + " exceeds the limit of " + maxBatchSize + ".");
+        }
+    }
+
+    private ExpenseDocument newDocument(Expense expense, Long userId, long expenseId) {
+        return ExpenseDocument.builder()
+                .expenseId(expenseId)
+                .userId(userId)
+                .description(expense.getDescription())
+                .amount(expense.getAmount())
+                .date(expense.getDate())
+                .categoryId(categoryDictionary.idOf(userId, expense.getCategory()))
+                .build();
+    }
+
+    // Package-private for ReactiveExpenseServiceImpl
+    static Update detailsUpdate(ExpenseDocument document) {
+        return new Update()
+                .set("description", document.getDescription())
+                .set("amount", document.getAmount())
+                .set("date", document.getDate())
+                .set("categoryId", document.getCategoryId())
+                .unset("category")
+                .set("changeSequence", document.getChangeSequence());
+    }
+
+    private void applyDetails(ExpenseDocument document, Expense expenseDetails) {
+        document.setDescription(expenseDetails.getDescription());
+        document.setAmount(expenseDetails.getAmount());
+        document.setDate(expenseDetails.getDate());
+        document.setCategoryId(categoryDictionary.idOf(document.getUserId(), expenseDetails.getCategory()));
+        document.setCategory(null);
+    }
+
+    // One queued update of a batch: its position in the request and the expense as it will be written
+    private record PendingUpdate(int index, ExpenseDocument document) {}
+
+    // Package-private for ExpenseMappingBenchmark
+    Expense toExpense(ExpenseDocument document) {
         return new Expense(
                 document.getExpenseId(),
                 document.getDescription(),
                 document.getAmount(),
                 document.getDate(),
-                document.getCategory(),
-                user
+                categoryDictionary.nameOf(document),
+                null
         );
     }
-
-    private User getUserOrThrow(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + userId));
-    }
 }
\ No newline at end of file
@@ -0,0 +1,188 @@
+package com.siddesh.expensetracker.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import com.siddesh.expensetracker.dto.CategoryTotal;
+import com.siddesh.expensetracker.dto.PeriodTotal;
+import com.siddesh.expensetracker.mongo.document.ExpenseDocument;
+import com.siddesh.expensetracker.service.cache.ExpenseReadCache;
+
+/**
+ * Spending summaries. Category and monthly totals over whole months are read from the
+ * incrementally maintained rollups; anything finer-grained is computed by aggregation
+ * pipelines on the {@code expenses} collection, so only the grouped totals leave the database.
+ * Results are cached per user and range until the user's next write.
+ */
+@Service
+public class ExpenseSummaryService {
+
+    private static final String MONTH_FORMAT = "%Y-%m";
+    private static final String DAY_FORMAT = "%Y-%m-%d";
+
+    private final MongoOperations mongoOperations;
+    private final ExpenseRollupService expenseRollupService;
+    private final ExpenseReadCache expenseReadCache;
+    private final CategoryDictionary categoryDictionary;
+    // LocalDate values are stored as midnight in the JVM's zone, so group in that zone too
+    private final DateOperators.Timezone timezone = DateOperators.Timezone.valueOf(ZoneId.systemDefault().getId());
+
+    public ExpenseSummaryService(MongoOperations mongoOperations,
+                                 ExpenseRollupService expenseRollupService,
+                                 ExpenseReadCache expenseReadCache,
+                                 CategoryDictionary categoryDictionary) {
+        this.mongoOperations = mongoOperations;
+        this.expenseRollupService = expenseRollupService;
+        this.expenseReadCache = expenseReadCache;
+        this.categoryDictionary = categoryDictionary;
+    }
+
+    public List<CategoryTotal> totalsByCategory(Long userId, LocalDate from, LocalDate to) {
+        return expenseReadCache.get(userId, cacheKey("category", from, to), () -> computeTotalsByCategory(userId, from, to));
+    }
+
+    public List<PeriodTotal> totalsByMonth(Long userId, LocalDate from, LocalDate to) {
+        return expenseReadCache.get(userId, cacheKey("month", from, to), () -> computeTotalsByMonth(userId, from, to));
+    }
+
+    public List<PeriodTotal> totalsByDay(Long userId, LocalDate from, LocalDate to) {
+        return expenseReadCache.get(userId, cacheKey("day", from, to), () -> totalsByPeriod(userId, from, to, DAY_FORMAT));
+    }
+
+    private List<CategoryTotal> computeTotalsByCategory(Long userId, LocalDate from, LocalDate to) {
+        if (coversWholeMonths(from, to) && expenseRollupService.isReady()) {
+            return expenseRollupService.totalsByCategory(userId, monthOf(from), monthOf(to));
+        }
+
+        // Grouping on the numeric id is cheaper than on names; names are looked up for the few groups left
+        TypedAggregation<ExpenseDocument> aggregation = Aggregation.newAggregation(ExpenseDocument.class,
+                Aggregation.match(userCriteria(userId, from, to)),
+                Aggregation.group("categoryId", "category")
+                        .sum(amountAsDecimal()).as("total")
+                        .count().as("count"));
+
+        // Expenses not yet moved to a category id form their own group, so merge groups by name
+        Map<String, CategoryTotal> totals = new LinkedHashMap<>();
+        for (CategoryTotal total : aggregate(aggregation, this::toCategoryTotal)) {
+            totals.merge(total.category() == null ? "" : total.category(), total, (existing, added) ->
+                    new CategoryTotal(existing.category(), existing.total().add(added.total()), existing.count() + added.count()));
+        }
+        return totals.values().stream()
+                .sorted(Comparator.comparing(CategoryTotal::category, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .toList();
+    }
+
+    private CategoryTotal toCategoryTotal(Document document) {
+        Document key = document.get("_id", Document.class);
+        Number categoryId = key.get("categoryId", Number.class);
+        return new CategoryTotal(
+                categoryId != null ? categoryDictionary.nameOf(categoryId.longValue()) : key.getString("category"),
+                toBigDecimal(document.get("total")),
+                document.getInteger("count"));
+    }
+
+    private List<PeriodTotal> computeTotalsByMonth(Long userId, LocalDate from, LocalDate to) {
+        if (coversWholeMonths(from, to) && expenseRollupService.isReady()) {
+            return expenseRollupService.totalsByMonth(userId, monthOf(from), monthOf(to));
+        }
+        return totalsByPeriod(userId, from, to, MONTH_FORMAT);
+    }
+
+    private List<PeriodTotal> totalsByPeriod(Long userId, LocalDate from, LocalDate to, String format) {
+        Criteria criteria = userCriteria(userId, from, to);
+        if (from == null && to == null) {
+            criteria = criteria.and("date").ne(null);
+        }
+
+        TypedAggregation<ExpenseDocument> aggregation = Aggregation.newAggregation(ExpenseDocument.class,
+                Aggregation.match(criteria),
+                Aggregation.project()
+                        .and(DateOperators.dateOf("date").withTimezone(timezone).toString(format)).as("period")
+                        .and(amountAsDecimal()).as("amount"),
+                Aggregation.group("period")
+                        .sum("amount").as("total")
+                        .count().as("count"),
+                Aggregation.sort(Sort.by("_id")));
+
+        return aggregate(aggregation, document -> new PeriodTotal(
+                document.getString("_id"),
+                toBigDecimal(document.get("total")),
+                document.getInteger("count")));
+    }
+
+    public void rebuildRollups(Long userId) {
+        expenseRollupService.rebuild(userId);
+        expenseReadCache.invalidate(userId);
+    }
+
+    private String cacheKey(String summary, LocalDate from, LocalDate to) {
+        return "summary:" + summary + ":" + from + ":" + to;
+    }
+
+    // Rollups hold whole months, so they can only answer ranges that start and end on month boundaries
+    private boolean coversWholeMonths(LocalDate from, LocalDate to) {
+        return (from == null || from.getDayOfMonth() == 1)
+                && (to == null || to.getDayOfMonth() == to.lengthOfMonth());
+    }
+
+    private YearMonth monthOf(LocalDate date) {
+        return date != null ? YearMonth.from(date) : null;
+    }
+
+    private <T> List<T> aggregate(TypedAggregation<ExpenseDocument> aggregation, Function<Document, T> mapper) {
+        return mongoOperations.aggregate(aggregation, Document.class)
+                .getMappedResults()
+                .stream()
+                .map(mapper)
+                .toList();
+    }
+
+    private Criteria userCriteria(Long userId, LocalDate from, LocalDate to) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (from != null || to != null) {
+            Criteria date = Criteria.where("date");
+            if (from != null) {
+                date = date.gte(from);
+            }
+            if (to != null) {
+                date = date.lte(to);
+            }
+            criteria = criteria.andOperator(date);
+        }
+        return criteria;
+    }
+
+    // Amounts may be stored as strings or Decimal128 depending on the BigDecimal representation
+    private AggregationExpression amountAsDecimal() {
+        return ConvertOperators.ToDecimal.toDecimal("$amount");
+    }
+
+    private BigDecimal toBigDecimal(Object value) {
+        if (value instanceof Decimal128 decimal) {
+            return decimal.bigDecimalValue();
+        }
+        if (value instanceof Number number) {
+            return new BigDecimal(number.toString());
+        }
+        return BigDecimal.ZERO;
+    }
+}
\ No newline at end of file
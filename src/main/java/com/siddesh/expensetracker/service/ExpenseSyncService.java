@@ -0,0 +1,161 @@
+package com.siddesh.expensetracker.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.siddesh.expensetracker.dto.ExpenseChanges;
+import com.siddesh.expensetracker.entity.Expense;
+import com.siddesh.expensetracker.mongo.document.ExpenseDocument;
+import com.siddesh.expensetracker.mongo.document.ExpenseTombstoneDocument;
+import com.siddesh.expensetracker.mongo.service.UserDataVersionService;
+
+/**
+ * Delta sync for offline clients. Every write stamps the expenses it touches with a per-user
+ * change sequence number, and deletes leave a tombstone stamped the same way, so the changes
+ * after a watermark are two index range scans on {@code (user_id, change_seq)}.
+ *
+ * <p>Sequence numbers are taken before the write they stamp, so two writes of the same user
+ * running at the same moment can become visible out of order. Reads therefore stop at
+ * {@link UserDataVersionService#committedChangeSequence}, below any reservation whose write has
+ * not reported back, and the watermark never moves past a change that is still to come.
+ */
+@Service
+public class ExpenseSyncService {
+
+    private final MongoOperations mongoOperations;
+    private final UserDataVersionService userDataVersionService;
+    private final CategoryDictionary categoryDictionary;
+    private final Duration tombstoneTtl;
+    private final int maxChanges;
+
+    public ExpenseSyncService(MongoOperations mongoOperations,
+                              UserDataVersionService userDataVersionService,
+                              CategoryDictionary categoryDictionary,
+                              @Value("${expenses.sync.tombstone-ttl:30d}") Duration tombstoneTtl,
+                              @Value("${expenses.sync.max-changes:1000}") int maxChanges) {
+        this.mongoOperations = mongoOperations;
+        this.userDataVersionService = userDataVersionService;
+        this.categoryDictionary = categoryDictionary;
+        this.tombstoneTtl = tombstoneTtl;
+        this.maxChanges = maxChanges;
+    }
+
+    public long reserveChanges(Long userId, int count) {
+        return userDataVersionService.reserveChanges(userId, count);
+    }
+
+    /**
+     * Called after the expenses have been removed. Returns the reservation the tombstones were
+     * stamped from, to be passed to {@link UserDataVersionService#bump}, or none if there were no ids.
+     */
+    public long[] recordDeletions(Long userId, Collection<Long> expenseIds) {
+        if (expenseIds.isEmpty()) {
+            return new long[0];
+        }
+        long reservation = reserveChanges(userId, expenseIds.size());
+        long changeSequence = reservation;
+        Instant expireAt = Instant.now().plus(tombstoneTtl);
+        BulkOperations bulk = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, ExpenseTombstoneDocument.class);
+        for (Long expenseId : expenseIds) {
+            bulk.upsert(tombstoneOf(expenseId), tombstone(userId, changeSequence++, expireAt));
+        }
+        bulk.execute();
+        return new long[] {reservation};
+    }
+
+    // Shared with the reactive service so both leave identical tombstones
+    static Query tombstoneOf(Long expenseId) {
+        return Query.query(Criteria.where("expenseId").is(expenseId));
+    }
+
+    static Update tombstone(Long userId, long changeSequence, Instant expireAt) {
+        return new Update()
+                .set("userId", userId)
+                .set("changeSequence", changeSequence)
+                .set("expireAt", expireAt);
+    }
+
+    /**
+     * Without a watermark, returns all of the user's expenses with a watermark to sync from.
+     * Otherwise returns up to {@code limit} changes after it, or empty when tombstones the
+     * client needs may already have expired and it has to start over without a watermark.
+     */
+    public Optional<ExpenseChanges> changesSince(Long userId, String since, Integer limit) {
+        if (since == null || since.isBlank()) {
+            return Optional.of(snapshot(userId));
+        }
+
+        SyncWatermark watermark = SyncWatermark.decode(since);
+        Instant now = Instant.now();
+        if (watermark.issuedAt().plus(tombstoneTtl).isBefore(now)) {
+            return Optional.empty();
+        }
+
+        int size = limit == null ? maxChanges : Math.max(1, Math.min(limit, maxChanges));
+        long committed = userDataVersionService.committedChangeSequence(userId);
+        Query query = Query.query(Criteria.where("userId").is(userId).and("changeSequence")
+                        .gt(watermark.changeSequence()).lte(committed))
+                .with(Sort.by("changeSequence"))
+                .limit(size + 1);
+        List<Change> changes = new ArrayList<>();
+        mongoOperations.find(query, ExpenseDocument.class)
+                .forEach(document -> changes.add(new Change(document.getChangeSequence(), document, null)));
+        mongoOperations.find(query, ExpenseTombstoneDocument.class)
+                .forEach(tombstone -> changes.add(new Change(tombstone.getChangeSequence(), null, tombstone.getExpenseId())));
+        changes.sort(Comparator.comparingLong(Change::sequence));
+
+        boolean hasMore = changes.size() > size;
+        List<Change> page = hasMore ? changes.subList(0, size) : changes;
+        List<Expense> upserted = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        for (Change change : page) {
+            if (change.document() != null) {
+                upserted.add(toExpense(change.document()));
+            } else {
+                deleted.add(change.deletedId());
+            }
+        }
+
+        long last = page.isEmpty() ? watermark.changeSequence() : page.get(page.size() - 1).sequence();
+        // A partial page leaves changes behind that happened after the original watermark, not after now
+        Instant issuedAt = hasMore ? watermark.issuedAt() : now;
+        return Optional.of(new ExpenseChanges(upserted, deleted, new SyncWatermark(last, issuedAt).encode(), hasMore));
+    }
+
+    // The sequence is read first, so writes racing the snapshot are sent again on the next sync
+    private ExpenseChanges snapshot(Long userId) {
+        SyncWatermark watermark = new SyncWatermark(userDataVersionService.committedChangeSequence(userId), Instant.now());
+        List<Expense> expenses = mongoOperations.find(Query.query(Criteria.where("userId").is(userId)), ExpenseDocument.class)
+                .stream()
+                .map(this::toExpense)
+                .toList();
+        return new ExpenseChanges(expenses, List.of(), watermark.encode(), false);
+    }
+
+    private Expense toExpense(ExpenseDocument document) {
+        return new Expense(
+                document.getExpenseId(),
+                document.getDescription(),
+                document.getAmount(),
+                document.getDate(),
+                categoryDictionary.nameOf(document),
+                null
+        );
+    }
+
+    private record Change(long sequence, ExpenseDocument document, Long deletedId) {}
+}
\ No newline at end of file
@@ -4,9 +4,11 @@ import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 import org.slf4j.Logger;
@@ -15,67 +17,126 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import com.siddesh.expensetracker.config.AuthenticatedUser;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 @Service
 public class JwtService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(JwtService.class);
 
-    @Value("${jwt.secret-key:${JWT_SECRET_KEY:}}")
-    private String secretKey;
+    public static final String USER_ID_CLAIM = "uid";
+
+    // Derived once at startup; both are immutable and safe to share across request threads
+    private final Key signInKey;
+    private final JwtParser jwtParser;
+    private final Duration accessTokenTtl;
+    private final Timer signTimer;
+    private final Timer validParseTimer;
+    private final Timer invalidParseTimer;
+
+    public JwtService(@Value("${jwt.secret-key:${JWT_SECRET_KEY:}}") String secretKey,
+                      @Value("${jwt.access-token-ttl:15m}") Duration accessTokenTtl,
+                      MeterRegistry meterRegistry) {
+        this.signInKey = buildSignInKey(secretKey);
+        this.accessTokenTtl = accessTokenTtl;
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signInKey)
+                .build();
+        this.signTimer = Timer.builder("jwt.sign")
+                .description("Time to build and sign an access token")
+                .register(meterRegistry);
+        this.validParseTimer = parseTimer(meterRegistry, "valid");
+        this.invalidParseTimer = parseTimer(meterRegistry, "invalid");
+    }
+
+    private static Timer parseTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("jwt.parse")
+                .description("Time to verify a token's signature and read its claims")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    public Duration getAccessTokenTtl() {
+        return accessTokenTtl;
+    }
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
+    public Long extractUserId(String token) {
+        return extractUserId(parseClaims(token));
+    }
 
+    public Long extractUserId(Claims claims) {
+        return claims.get(USER_ID_CLAIM, Long.class);
+    }
 
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof AuthenticatedUser authenticatedUser) {
+            claims.put(USER_ID_CLAIM, authenticatedUser.getId());
+        }
+        return generateToken(claims, userDetails);
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        return Jwts.builder()
+        long now = System.currentTimeMillis();
+        return signTimer.record(() -> Jwts.builder()
                 .setClaims(extraClaims)
                 .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 24)) // 24-hour validity
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
-                .compact();
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + accessTokenTtl.toMillis()))
+                .signWith(signInKey, SignatureAlgorithm.HS256)
+                .compact());
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(parseClaims(token), userDetails);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        final String username = claims.getSubject();
+        return (username.equals(userDetails.getUsername())) && !isTokenExpired(claims);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parseClaims(token);
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Verifies the signature and returns the token's claims. Callers that need several
+     * claims should parse once and read them from the returned {@link Claims}.
+     */
+    public Claims parseClaims(String token) {
+        long start = System.nanoTime();
+        Timer timer = invalidParseTimer;
+        try {
+            Claims claims = jwtParser
+                    .parseClaimsJws(token)
+                    .getBody();
+            timer = validParseTimer;
+            return claims;
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
 
-    private Key getSignInKey() {
+    private Key buildSignInKey(String secretKey) {
         if (secretKey == null || secretKey.isBlank()) {
             throw new IllegalStateException("JWT secret key is not configured. Set jwt.secret-key or JWT_SECRET_KEY environment variable.");
         }
@@ -0,0 +1,77 @@
+package com.siddesh.expensetracker.service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Fixed-window attempt counters for logins and registrations, per account and per client
+ * address. Checked before any password work, so refused attempts cost no hashing. Counters are
+ * per node; behind a load balancer the effective limit is at most the node count times higher.
+ * Checks only touch memory, so the reactive stack calls them on the event loop.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final Cache<String, AtomicInteger> attempts;
+    private final Duration window;
+    private final int perAccount;
+    private final int perAddress;
+    private final Counter accountLimited;
+    private final Counter addressLimited;
+
+    public LoginRateLimiter(MeterRegistry meterRegistry,
+                            @Value("${auth.rate-limit.window:1m}") Duration window,
+                            @Value("${auth.rate-limit.per-account:10}") int perAccount,
+                            @Value("${auth.rate-limit.per-address:100}") int perAddress,
+                            @Value("${auth.rate-limit.max-tracked:100000}") long maxTracked) {
+        // An entry is only written when first created, so it expires one window after the first attempt
+        this.attempts = Caffeine.newBuilder()
+                .maximumSize(maxTracked)
+                .expireAfterWrite(window)
+                .build();
+        this.window = window;
+        this.perAccount = perAccount;
+        this.perAddress = perAddress;
+        this.accountLimited = limitedCounter(meterRegistry, "account");
+        this.addressLimited = limitedCounter(meterRegistry, "address");
+    }
+
+    private static Counter limitedCounter(MeterRegistry meterRegistry, String scope) {
+        return Counter.builder("auth.rate-limited")
+                .description("Login and registration attempts refused by rate limiting")
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+
+    public void checkLogin(String email, String address) {
+        check("address:" + address, perAddress, addressLimited);
+        if (email != null) {
+            check("account:" + email.toLowerCase(Locale.ROOT), perAccount, accountLimited);
+        }
+    }
+
+    public void checkRegistration(String address) {
+        check("address:" + address, perAddress, addressLimited);
+    }
+
+    // A limit of 0 or less disables that check
+    private void check(String key, int limit, Counter limited) {
+        if (limit <= 0) {
+            return;
+        }
+        if (attempts.get(key, k -> new AtomicInteger()).incrementAndGet() > limit) {
+            limited.increment();
+            throw new AuthThrottledException("Too many attempts; try again later.", window);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.siddesh.expensetracker.service;
+
+import java.util.Optional;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.siddesh.expensetracker.config.AuthenticatedUser;
+import com.siddesh.expensetracker.dto.AuthResponse;
+import com.siddesh.expensetracker.dto.LoginRequest;
+import com.siddesh.expensetracker.dto.RegisterRequest;
+import com.siddesh.expensetracker.entity.User;
+import com.siddesh.expensetracker.mongo.service.SequenceGeneratorService;
+import com.siddesh.expensetracker.repository.ReactiveUserRepository;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reactive counterpart of {@link AuthService}. BCrypt is deliberately slow, so hashing and
+ * matching run on the bounded elastic scheduler rather than on the event loop.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveAuthService {
+
+    private static final String USER_SEQUENCE = "user_sequence";
+    private static final String UNKNOWN_USER_PASSWORD = "userNotFoundPassword";
+
+    private final ReactiveUserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final RefreshTokenService refreshTokenService;
+    private final SequenceGeneratorService sequenceGeneratorService;
+    private final LoginRateLimiter loginRateLimiter;
+    private volatile String unknownUserHash;
+
+    public ReactiveAuthService(ReactiveUserRepository userRepository,
+                               PasswordEncoder passwordEncoder,
+                               RefreshTokenService refreshTokenService,
+                               SequenceGeneratorService sequenceGeneratorService,
+                               LoginRateLimiter loginRateLimiter) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.refreshTokenService = refreshTokenService;
+        this.sequenceGeneratorService = sequenceGeneratorService;
+        this.loginRateLimiter = loginRateLimiter;
+    }
+
+    public Mono<AuthResponse> register(RegisterRequest request, String clientAddress) {
+        return Mono.fromRunnable(() -> loginRateLimiter.checkRegistration(clientAddress))
+                .then(Mono.defer(() -> userRepository.existsByEmail(request.email())))
+                .flatMap(exists -> {
+                    if (exists) {
+                        return Mono.error(new IllegalArgumentException("Email is already registered."));
+                    }
+                    return Mono.fromCallable(() -> {
+                                User user = new User();
+                                user.setId(sequenceGeneratorService.getNextSequence(USER_SEQUENCE));
+                                user.setFirstName(request.firstName());
+                                user.setLastName(request.lastName());
+                                user.setEmail(request.email());
+                                user.setPassword(passwordEncoder.encode(request.password()));
+                                return user;
+                            })
+                            .subscribeOn(Schedulers.boundedElastic())
+                            .flatMap(userRepository::save);
+                })
+                // Issuing stores the refresh token with the blocking template
+                .publishOn(Schedulers.boundedElastic())
+                .map(this::toResponse);
+    }
+
+    public Mono<AuthResponse> login(LoginRequest request, String clientAddress) {
+        return Mono.fromRunnable(() -> loginRateLimiter.checkLogin(request.email(), clientAddress))
+                .then(Mono.defer(() -> userRepository.findFirstByEmail(request.email())))
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .publishOn(Schedulers.boundedElastic())
+                // Like DaoAuthenticationProvider, an unknown email is still checked against a hash,
+                // so it takes as long as a wrong password and doesn't reveal which emails exist
+                .filter(user -> passwordEncoder.matches(request.password(),
+                        user.map(User::getPassword).orElseGet(this::unknownUserHash)) && user.isPresent())
+                .map(Optional::get)
+                .switchIfEmpty(Mono.error(new BadCredentialsException("Invalid email or password.")))
+                .map(this::toResponse);
+    }
+
+    public Mono<AuthResponse> refresh(String refreshToken) {
+        return Mono.fromCallable(() -> refreshTokenService.refresh(refreshToken))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(Mono::justOrEmpty);
+    }
+
+    public Mono<Void> logout(String refreshToken) {
+        return Mono.fromRunnable(() -> refreshTokenService.revoke(refreshToken))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    private String unknownUserHash() {
+        String hash = unknownUserHash;
+        if (hash == null) {
+            hash = passwordEncoder.encode(UNKNOWN_USER_PASSWORD);
+            unknownUserHash = hash;
+        }
+        return hash;
+    }
+
+    private AuthResponse toResponse(User user) {
+        return refreshTokenService.issue(new AuthenticatedUser(user.getId(), user.getEmail(), null));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.siddesh.expensetracker.service;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.siddesh.expensetracker.mongo.document.CategoryDocument;
+import com.siddesh.expensetracker.mongo.document.ExpenseDocument;
+import com.siddesh.expensetracker.mongo.service.ReactiveSequenceGeneratorService;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking lookups in the category dictionary for the reactive stack. Shares the caches of
+ * {@link CategoryDictionary}, so a warm lookup completes without leaving the calling thread and
+ * only misses go to {@code categories}.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveCategoryDictionary {
+
+    private final CategoryDictionary categoryDictionary;
+    private final ReactiveMongoOperations mongoOperations;
+    private final ReactiveSequenceGeneratorService sequenceGeneratorService;
+
+    public ReactiveCategoryDictionary(CategoryDictionary categoryDictionary,
+                                      ReactiveMongoOperations mongoOperations,
+                                      ReactiveSequenceGeneratorService sequenceGeneratorService) {
+        this.categoryDictionary = categoryDictionary;
+        this.mongoOperations = mongoOperations;
+        this.sequenceGeneratorService = sequenceGeneratorService;
+    }
+
+    /**
+     * The id of the user's category called {@code name}, adding it to the dictionary if it is new.
+     * Empty when {@code name} is null.
+     */
+    public Mono<Long> idOf(Long userId, String name) {
+        if (name == null) {
+            return Mono.empty();
+        }
+        Long id = categoryDictionary.cachedId(userId, name);
+        if (id != null) {
+            return Mono.just(id);
+        }
+        return find(userId, name)
+                .switchIfEmpty(Mono.defer(() -> create(userId, name)))
+                .doOnNext(categoryDictionary::remember)
+                .map(CategoryDocument::getId);
+    }
+
+    /**
+     * The category name of a stored expense, whether or not it has been migrated to an id yet.
+     * Empty when it has none.
+     */
+    public Mono<String> nameOf(ExpenseDocument document) {
+        Long categoryId = document.getCategoryId();
+        if (categoryId == null) {
+            return Mono.justOrEmpty(document.getCategory());
+        }
+        String name = categoryDictionary.cachedName(categoryId);
+        if (name != null) {
+            return Mono.just(name);
+        }
+        return mongoOperations.findById(categoryId, CategoryDocument.class)
+                .doOnNext(categoryDictionary::remember)
+                .map(CategoryDocument::getName);
+    }
+
+    private Mono<CategoryDocument> create(Long userId, String name) {
+        return sequenceGeneratorService.getNextSequence(CategoryDictionary.CATEGORY_SEQUENCE)
+                .flatMap(id -> mongoOperations.insert(new CategoryDocument(id, userId, name, CategoryDictionary.nameKey(name))))
+                // Created concurrently, possibly by another node
+                .onErrorResume(DuplicateKeyException.class, ex -> find(userId, name));
+    }
+
+    private Mono<CategoryDocument> find(Long userId, String name) {
+        return mongoOperations.findOne(
+                Query.query(Criteria.where("userId").is(userId).and("name").is(name)),
+                CategoryDocument.class);
+    }
+}
\ No newline at end of file
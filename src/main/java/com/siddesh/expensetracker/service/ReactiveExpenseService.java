@@ -0,0 +1,29 @@
+package com.siddesh.expensetracker.service;
+
+import java.time.LocalDate;
+
+import com.siddesh.expensetracker.entity.Expense;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link ExpenseService}, served under the {@code reactive} profile.
+ */
+public interface ReactiveExpenseService {
+
+    Flux<Expense> getAllExpensesByUserId(Long userId);
+
+    /**
+     * Streams the user's expenses dated within [from, to] (either bound may be null), oldest first.
+     */
+    Flux<Expense> streamExpenses(Long userId, LocalDate from, LocalDate to);
+
+    Mono<Expense> getExpenseByIdAndUserId(Long id, Long userId);
+
+    Mono<Expense> createExpense(Expense expense, Long userId);
+
+    Mono<Expense> updateExpense(Long id, Expense expenseDetails, Long userId);
+
+    Mono<Void> deleteExpense(Long id, Long userId);
+}
\ No newline at end of file
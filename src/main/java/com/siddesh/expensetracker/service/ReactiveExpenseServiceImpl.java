@@ -0,0 +1,255 @@
+package com.siddesh.expensetracker.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.siddesh.expensetracker.dto.ExpenseEvent;
+import com.siddesh.expensetracker.entity.Expense;
+import com.siddesh.expensetracker.mongo.document.ExpenseDocument;
+import com.siddesh.expensetracker.mongo.document.ExpenseRollupDocument;
+import com.siddesh.expensetracker.mongo.document.ExpenseTombstoneDocument;
+import com.siddesh.expensetracker.mongo.repository.ReactiveExpenseDocumentRepository;
+import com.siddesh.expensetracker.mongo.service.ReactiveSequenceGeneratorService;
+import com.siddesh.expensetracker.mongo.service.ReactiveUserDataVersionService;
+import com.siddesh.expensetracker.service.ExpenseRollupService.RollupChange;
+import com.siddesh.expensetracker.service.cache.ExpenseReadCache;
+import com.siddesh.expensetracker.service.events.ExpensesChangedEvent;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+@Service
+@Profile("reactive")
+public class ReactiveExpenseServiceImpl implements ReactiveExpenseService {
+
+    private static final String EXPENSE_SEQUENCE = "expense_sequence";
+    private static final int STREAM_BATCH_SIZE = 500;
+    private static final int MAX_UPDATE_ATTEMPTS = 3;
+
+    private final ReactiveExpenseDocumentRepository expenseDocumentRepository;
+    private final ReactiveMongoOperations mongoOperations;
+    private final ReactiveSequenceGeneratorService sequenceGeneratorService;
+    private final ReactiveCategoryDictionary categoryDictionary;
+    private final ReactiveUserDataVersionService userDataVersionService;
+    private final ExpenseReadCache expenseReadCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration tombstoneTtl;
+    private final int maxListResults;
+
+    public ReactiveExpenseServiceImpl(ReactiveExpenseDocumentRepository expenseDocumentRepository,
+                                      ReactiveMongoOperations mongoOperations,
+                                      ReactiveSequenceGeneratorService sequenceGeneratorService,
+                                      ReactiveCategoryDictionary categoryDictionary,
+                                      ReactiveUserDataVersionService userDataVersionService,
+                                      ExpenseReadCache expenseReadCache,
+                                      ApplicationEventPublisher eventPublisher,
+                                      @Value("${expenses.sync.tombstone-ttl:30d}") Duration tombstoneTtl,
+                                      @Value("${expenses.list.max-results:0}") int maxListResults) {
+        this.expenseDocumentRepository = expenseDocumentRepository;
+        this.mongoOperations = mongoOperations;
+        this.sequenceGeneratorService = sequenceGeneratorService;
+        this.categoryDictionary = categoryDictionary;
+        this.userDataVersionService = userDataVersionService;
+        this.expenseReadCache = expenseReadCache;
+        this.eventPublisher = eventPublisher;
+        this.tombstoneTtl = tombstoneTtl;
+        this.maxListResults = maxListResults;
+    }
+
+    @Override
+    public Flux<Expense> getAllExpensesByUserId(Long userId) {
+        Flux<ExpenseDocument> documents = maxListResults > 0
+                ? expenseDocumentRepository.findByUserIdOrderByDateDescExpenseIdDesc(userId, Limit.of(maxListResults))
+                : expenseDocumentRepository.findByUserId(userId);
+        return toExpenses(documents);
+    }
+
+    @Override
+    public Flux<Expense> streamExpenses(Long userId, LocalDate from, LocalDate to) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (from != null || to != null) {
+            Criteria date = Criteria.where("date");
+            if (from != null) {
+                date = date.gte(from);
+            }
+            if (to != null) {
+                date = date.lte(to);
+            }
+            criteria = criteria.andOperator(date);
+        }
+
+        Query query = Query.query(criteria)
+                .with(Sort.by("date", "expenseId"))
+                .cursorBatchSize(STREAM_BATCH_SIZE);
+        return toExpenses(mongoOperations.find(query, ExpenseDocument.class));
+    }
+
+    @Override
+    public Mono<Expense> getExpenseByIdAndUserId(Long id, Long userId) {
+        return toExpense(expenseDocumentRepository.findByExpenseIdAndUserId(id, userId));
+    }
+
+    @Override
+    public Mono<Expense> createExpense(Expense expense, Long userId) {
+        return Mono.zip(sequenceGeneratorService.getNextSequence(EXPENSE_SEQUENCE),
+                        userDataVersionService.reserveChanges(userId, 1),
+                        categoryIdOf(userId, expense.getCategory()))
+                .flatMap(ids -> expenseDocumentRepository.save(ExpenseDocument.builder()
+                        .expenseId(ids.getT1())
+                        .userId(userId)
+                        .description(expense.getDescription())
+                        .amount(expense.getAmount())
+                        .date(expense.getDate())
+                        .categoryId(ids.getT3().orElse(null))
+                        .changeSequence(ids.getT2())
+                        .build()))
+                .flatMap(saved -> toExpense(saved).flatMap(created -> afterWrite(userId,
+                        recordRollups(List.of(), List.of(saved)),
+                        List.of(ExpenseEvent.created(created)),
+                        saved.getChangeSequence()).thenReturn(created)));
+    }
+
+    @Override
+    public Mono<Expense> updateExpense(Long id, Expense expenseDetails, Long userId) {
+        return updateExpense(id, expenseDetails, userId, 1);
+    }
+
+    // Conditional on the change sequence that was read, like ExpenseServiceImpl#updateExpense
+    private Mono<Expense> updateExpense(Long id, Expense expenseDetails, Long userId, int attempt) {
+        return expenseDocumentRepository.findByExpenseIdAndUserId(id, userId)
+                .flatMap(document -> {
+                    ExpenseDocument before = document.toBuilder().build();
+                    document.setDescription(expenseDetails.getDescription());
+                    document.setAmount(expenseDetails.getAmount());
+                    document.setDate(expenseDetails.getDate());
+                    document.setCategory(null);
+                    return Mono.zip(userDataVersionService.reserveChanges(userId, 1), categoryIdOf(userId, expenseDetails.getCategory()))
+                            .flatMap(ids -> {
+                                document.setChangeSequence(ids.getT1());
+                                document.setCategoryId(ids.getT2().orElse(null));
+                                Query unchanged = Query.query(Criteria.where("userId").is(userId).and("expenseId").is(id)
+                                        .and("changeSequence").is(before.getChangeSequence()));
+                                return mongoOperations.updateFirst(unchanged, ExpenseServiceImpl.detailsUpdate(document), ExpenseDocument.class);
+                            })
+                            .flatMap(result -> {
+                                if (result.getMatchedCount() == 0) {
+                                    Mono<Expense> retry = attempt < MAX_UPDATE_ATTEMPTS
+                                            ? Mono.defer(() -> updateExpense(id, expenseDetails, userId, attempt + 1))
+                                            : Mono.error(new IllegalStateException("Expense " + id + " kept changing concurrently."));
+                                    return userDataVersionService.release(userId, document.getChangeSequence()).then(retry);
+                                }
+                                return toExpense(document).flatMap(updated -> afterWrite(userId,
+                                        recordRollups(List.of(before), List.of(document)),
+                                        List.of(ExpenseEvent.updated(updated)),
+                                        document.getChangeSequence()).thenReturn(updated));
+                            });
+                });
+    }
+
+    @Override
+    public Mono<Void> deleteExpense(Long id, Long userId) {
+        // Of two concurrent deletes only one gets the document back, so derived state changes once
+        return mongoOperations.findAndRemove(Query.query(Criteria.where("userId").is(userId).and("expenseId").is(id)),
+                        ExpenseDocument.class)
+                .flatMap(document -> recordDeletion(userId, id)
+                        .flatMap(reservation -> afterWrite(userId,
+                                recordRollups(List.of(document), List.of()),
+                                List.of(ExpenseEvent.deleted(id)),
+                                reservation)));
+    }
+
+    // Same tombstone as ExpenseSyncService#recordDeletions; emits the change sequence it reserved
+    private Mono<Long> recordDeletion(Long userId, Long expenseId) {
+        return userDataVersionService.reserveChanges(userId, 1)
+                .flatMap(changeSequence -> mongoOperations.upsert(ExpenseSyncService.tombstoneOf(expenseId),
+                                ExpenseSyncService.tombstone(userId, changeSequence, Instant.now().plus(tombstoneTtl)),
+                                ExpenseTombstoneDocument.class)
+                        .thenReturn(changeSequence));
+    }
+
+    private Mono<Optional<Long>> categoryIdOf(Long userId, String name) {
+        return categoryDictionary.idOf(userId, name).map(Optional::of).defaultIfEmpty(Optional.empty());
+    }
+
+    // Runs dataChanged whether or not the rollup update succeeds, like the servlet try/finally
+    private Mono<Void> afterWrite(Long userId, Mono<Void> rollups, List<ExpenseEvent> events, long... reservations) {
+        Mono<Void> changed = dataChanged(userId, events, reservations);
+        return rollups
+                .onErrorResume(error -> changed.then(Mono.error(error)))
+                .then(changed);
+    }
+
+    // Servlet nodes may share the database and read cache, so writes here bump the version and invalidate too
+    private Mono<Void> dataChanged(Long userId, List<ExpenseEvent> events, long... reservations) {
+        return userDataVersionService.bump(userId, reservations)
+                // The read cache backend and the event listeners may block
+                .then(Mono.fromRunnable(() -> {
+                            expenseReadCache.invalidate(userId);
+                            eventPublisher.publishEvent(new ExpensesChangedEvent(userId, events));
+                        })
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .then();
+    }
+
+    private Mono<Void> recordRollups(List<ExpenseDocument> removed, List<ExpenseDocument> added) {
+        // Rollups are keyed by category name, so resolve the names before building the upserts
+        Map<ExpenseDocument, String> names = new IdentityHashMap<>();
+        return Flux.concat(Flux.fromIterable(removed), Flux.fromIterable(added))
+                .concatMap(document -> categoryDictionary.nameOf(document).doOnNext(name -> names.put(document, name)))
+                .then(Mono.defer(() -> {
+                    List<RollupChange> changes = ExpenseRollupService.changes(removed, added, names::get);
+                    if (changes.isEmpty()) {
+                        return Mono.empty();
+                    }
+
+                    ReactiveBulkOperations bulk = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, ExpenseRollupDocument.class);
+                    changes.forEach(change -> bulk.upsert(change.query(), change.update()));
+                    List<String> shrunk = ExpenseRollupService.shrunkIds(changes);
+                    Mono<Void> written = bulk.execute().then();
+                    return shrunk.isEmpty()
+                            ? written
+                            : written.then(mongoOperations.remove(ExpenseRollupService.emptiedBuckets(shrunk),
+                                    ExpenseRollupDocument.class).then());
+                }));
+    }
+
+    private Flux<Expense> toExpenses(Flux<ExpenseDocument> documents) {
+        return documents.concatMap(this::toExpense);
+    }
+
+    private Mono<Expense> toExpense(Mono<ExpenseDocument> document) {
+        return document.flatMap(this::toExpense);
+    }
+
+    private Mono<Expense> toExpense(ExpenseDocument document) {
+        return categoryDictionary.nameOf(document)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .map(category -> new Expense(
+                        document.getExpenseId(),
+                        document.getDescription(),
+                        document.getAmount(),
+                        document.getDate(),
+                        category.orElse(null),
+                        null
+                ));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,124 @@
+package com.siddesh.expensetracker.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.siddesh.expensetracker.config.AuthenticatedUser;
+import com.siddesh.expensetracker.dto.AuthResponse;
+import com.siddesh.expensetracker.mongo.document.RefreshTokenDocument;
+
+/**
+ * Issues access/refresh token pairs and rotates refresh tokens. A refresh costs one atomic
+ * update and one insert on {@code refresh_tokens} plus signing a JWT: no password hashing and
+ * no user lookup, because the token record carries the user's id and email.
+ *
+ * <p>Every refresh token can be used once. Presenting one that was already rotated means it
+ * was copied, so its whole family is revoked and the user has to log in again.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final MongoOperations mongoOperations;
+    private final JwtService jwtService;
+    private final Duration refreshTokenTtl;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(MongoOperations mongoOperations,
+                               JwtService jwtService,
+                               @Value("${jwt.refresh-token-ttl:30d}") Duration refreshTokenTtl) {
+        this.mongoOperations = mongoOperations;
+        this.jwtService = jwtService;
+        this.refreshTokenTtl = refreshTokenTtl;
+    }
+
+    /**
+     * Starts a new token family for a user who has just proven their password.
+     */
+    public AuthResponse issue(AuthenticatedUser user) {
+        return issue(user.getId(), user.getUsername(), UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchanges a refresh token for a new pair, or returns empty when it is unknown, expired
+     * or already used.
+     */
+    public Optional<AuthResponse> refresh(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return Optional.empty();
+        }
+        String hash = hash(refreshToken);
+        Instant now = Instant.now();
+        RefreshTokenDocument current = mongoOperations.findAndModify(
+                Query.query(Criteria.where("id").is(hash).and("rotatedAt").is(null).and("expiresAt").gt(now)),
+                new Update().set("rotatedAt", now),
+                FindAndModifyOptions.options().returnNew(true),
+                RefreshTokenDocument.class);
+        if (current == null) {
+            RefreshTokenDocument reused = mongoOperations.findById(hash, RefreshTokenDocument.class);
+            if (reused != null && reused.getRotatedAt() != null) {
+                revokeFamily(reused.getFamily());
+            }
+            return Optional.empty();
+        }
+        return Optional.of(issue(current.getUserId(), current.getEmail(), current.getFamily()));
+    }
+
+    // Logout: revokes the token and every token rotated from the same login
+    public void revoke(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return;
+        }
+        RefreshTokenDocument token = mongoOperations.findById(hash(refreshToken), RefreshTokenDocument.class);
+        if (token != null) {
+            revokeFamily(token.getFamily());
+        }
+    }
+
+    private AuthResponse issue(Long userId, String email, String family) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        mongoOperations.insert(RefreshTokenDocument.builder()
+                .id(hash(refreshToken))
+                .family(family)
+                .userId(userId)
+                .email(email)
+                .expiresAt(Instant.now().plus(refreshTokenTtl))
+                .build());
+
+        String accessToken = jwtService.generateToken(new AuthenticatedUser(userId, email, null));
+        return new AuthResponse(accessToken, refreshToken, jwtService.getAccessTokenTtl().toSeconds());
+    }
+
+    private void revokeFamily(String family) {
+        mongoOperations.remove(Query.query(Criteria.where("family").is(family)), RefreshTokenDocument.class);
+    }
+
+    // Tokens are 256 random bits, so a fast unsalted hash is enough; no slow KDF is needed
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm is not available in this environment", e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.siddesh.expensetracker.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque delta-sync position: the last change sequence the client has seen and when it started
+ * seeing changes from there, which tells whether the tombstones it needs can have expired.
+ */
+record SyncWatermark(long changeSequence, Instant issuedAt) {
+
+    String encode() {
+        String raw = changeSequence + ":" + issuedAt.toEpochMilli();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static SyncWatermark decode(String watermark) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(watermark), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Malformed watermark.");
+            }
+            return new SyncWatermark(Long.parseLong(raw.substring(0, separator)),
+                    Instant.ofEpochMilli(Long.parseLong(raw.substring(separator + 1))));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Malformed watermark.", ex);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.siddesh.expensetracker.service.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * In-process backend. Entries are keyed by the user's current generation, and invalidation
+ * moves the user to a new generation, so it is O(1) and superseded entries simply age out.
+ * The cache is bounded by weight, where a cached list weighs one per element, approximating
+ * its memory footprint. Only correct when a single node serves writes for the data it caches.
+ */
+public class CaffeineExpenseReadCache implements ExpenseReadCache {
+
+    private static final String CACHE_NAME = "expenses.read-cache";
+
+    private final Cache<Key, Object> entries;
+    private final Cache<Long, Long> generations;
+    // Generations are never reused, even after a user's counter has been evicted
+    private final AtomicLong nextGeneration = new AtomicLong();
+
+    public CaffeineExpenseReadCache(long maxWeight, Duration ttl, MeterRegistry meterRegistry) {
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Key key, Object value) -> value instanceof Collection<?> collection ? collection.size() + 1 : 1)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // Every cached entry weighs at least one, so no more users than this can have live entries;
+        // evicting a counter only orphans that user's entries, since generations are never reused
+        this.generations = Caffeine.newBuilder()
+                .maximumSize(maxWeight)
+                .expireAfterAccess(ttl)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, CACHE_NAME);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Long userId, String key, Supplier<T> loader) {
+        long generation = generations.get(userId, id -> nextGeneration.incrementAndGet());
+        return (T) entries.get(new Key(userId, generation, key), k -> loader.get());
+    }
+
+    @Override
+    public void invalidate(Long userId) {
+        generations.put(userId, nextGeneration.incrementAndGet());
+    }
+
+    private record Key(Long userId, long generation, String key) {}
+}
\ No newline at end of file
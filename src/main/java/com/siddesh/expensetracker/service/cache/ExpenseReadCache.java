@@ -0,0 +1,20 @@
+package com.siddesh.expensetracker.service.cache;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-user cache for expense reads (lists and summaries). Every write to a user's expenses
+ * must call {@link #invalidate(Long)} after it has reached Mongo; from then on no read for
+ * that user is answered from entries cached before the write. Backends are selected with
+ * {@code expenses.cache.backend}, see {@link ExpenseReadCacheConfiguration}.
+ */
+public interface ExpenseReadCache {
+
+    /**
+     * Returns the cached value for the user's {@code key}, loading and caching it on a miss.
+     * Cached values are shared between callers and must not be modified.
+     */
+    <T> T get(Long userId, String key, Supplier<T> loader);
+
+    void invalidate(Long userId);
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.siddesh.expensetracker.service.cache;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Chooses the {@link ExpenseReadCache} backend from {@code expenses.cache.backend}:
+ * <ul>
+ *   <li>{@code local} (default): Caffeine in each node; use when one node serves a user's writes.</li>
+ *   <li>{@code spring}: the {@code expense-reads} cache of the Spring {@link CacheManager}
+ *       configured with {@code spring.cache.*} (e.g. Redis), shared by all nodes.</li>
+ *   <li>{@code none}: no caching.</li>
+ * </ul>
+ */
+@Configuration
+public class ExpenseReadCacheConfiguration {
+
+    static final String SPRING_CACHE_NAME = "expense-reads";
+
+    @Bean
+    @ConditionalOnProperty(name = "expenses.cache.backend", havingValue = "local", matchIfMissing = true)
+    public ExpenseReadCache caffeineExpenseReadCache(@Value("${expenses.cache.max-weight:200000}") long maxWeight,
+                                                     @Value("${expenses.cache.ttl:10m}") Duration ttl,
+                                                     MeterRegistry meterRegistry) {
+        return new CaffeineExpenseReadCache(maxWeight, ttl, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "expenses.cache.backend", havingValue = "none")
+    public ExpenseReadCache noOpExpenseReadCache() {
+        return new NoOpExpenseReadCache();
+    }
+
+    @Configuration
+    @EnableCaching
+    @ConditionalOnProperty(name = "expenses.cache.backend", havingValue = "spring")
+    static class SpringCacheBackend {
+
+        @Bean
+        public ExpenseReadCache springCacheExpenseReadCache(CacheManager cacheManager) {
+            Cache cache = cacheManager.getCache(SPRING_CACHE_NAME);
+            if (cache == null) {
+                throw new IllegalStateException("Cache '" + SPRING_CACHE_NAME + "' is not configured; add it to spring.cache.cache-names.");
+            }
+            return new SpringCacheExpenseReadCache(cache);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.siddesh.expensetracker.service.cache;
+
+import java.util.function.Supplier;
+
+public class NoOpExpenseReadCache implements ExpenseReadCache {
+
+    @Override
+    public <T> T get(Long userId, String key, Supplier<T> loader) {
+        return loader.get();
+    }
+
+    @Override
+    public void invalidate(Long userId) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.siddesh.expensetracker.service.cache;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.springframework.cache.Cache;
+
+/**
+ * Backend on a Spring {@link Cache}, typically a shared one (Redis, Hazelcast, ...) set up
+ * through {@code spring.cache.*}, so every node sees the same entries and invalidations.
+ * As with the local backend, entries are keyed by a per-user generation; invalidation stores
+ * a fresh random generation, so concurrent invalidations from different nodes can't collide.
+ * Entry lifetime is governed by the cache provider's TTL.
+ */
+public class SpringCacheExpenseReadCache implements ExpenseReadCache {
+
+    private final Cache cache;
+
+    public SpringCacheExpenseReadCache(Cache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public <T> T get(Long userId, String key, Supplier<T> loader) {
+        String generation = cache.get(generationKey(userId), String.class);
+        if (generation == null) {
+            generation = newGeneration(userId);
+        }
+        return cache.get(userId + ":" + generation + ":" + key, loader::get);
+    }
+
+    @Override
+    public void invalidate(Long userId) {
+        newGeneration(userId);
+    }
+
+    private String newGeneration(Long userId) {
+        String generation = UUID.randomUUID().toString();
+        cache.put(generationKey(userId), generation);
+        return generation;
+    }
+
+    private String generationKey(Long userId) {
+        return "generation:" + userId;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.siddesh.expensetracker.service.events;
+
+import java.util.List;
+import java.util.Set;
+
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Message;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.mongodb.client.model.changestream.UpdateDescription;
+import com.siddesh.expensetracker.dto.ExpenseEvent;
+import com.siddesh.expensetracker.entity.Expense;
+import com.siddesh.expensetracker.mongo.document.ExpenseDocument;
+import com.siddesh.expensetracker.mongo.document.ExpenseTombstoneDocument;
+import com.siddesh.expensetracker.service.CategoryDictionary;
+
+/**
+ * Delivers the events of writes made by any node by watching Mongo change streams, which
+ * requires a replica set or sharded cluster. Inserts and updates come from {@code expenses};
+ * deletions from {@code expense_tombstones}, because a deleted expense no longer says whose it was.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "expenses.events.source", havingValue = "change-stream")
+public class ChangeStreamExpenseEventRelay {
+
+    // Started and stopped with the application context
+    @Bean
+    public MessageListenerContainer expenseChangeStreamContainer(MongoTemplate mongoTemplate,
+                                                                  ExpenseEventBroadcaster broadcaster,
+                                                                  CategoryDictionary categoryDictionary) {
+        MessageListenerContainer container = new DefaultMessageListenerContainer(mongoTemplate);
+        container.register(ChangeStreamRequest.builder((Message<ChangeStreamDocument<Document>, ExpenseDocument> message) -> {
+                    ExpenseDocument document = message.getBody();
+                    if (document != null && !isCategoryMigration(message.getRaw())) {
+                        Expense expense = toExpense(document, categoryDictionary);
+                        boolean inserted = message.getRaw().getOperationType() == OperationType.INSERT;
+                        broadcaster.publish(document.getUserId(),
+                                List.of(inserted ? ExpenseEvent.created(expense) : ExpenseEvent.updated(expense)));
+                    }
+                })
+                .collection("expenses")
+                .fullDocumentLookup(FullDocument.UPDATE_LOOKUP)
+                .build(), ExpenseDocument.class);
+        container.register(ChangeStreamRequest.builder((Message<ChangeStreamDocument<Document>, ExpenseTombstoneDocument> message) -> {
+                    ExpenseTombstoneDocument tombstone = message.getBody();
+                    if (tombstone != null) {
+                        broadcaster.publish(tombstone.getUserId(), List.of(ExpenseEvent.deleted(tombstone.getExpenseId())));
+                    }
+                })
+                .collection("expense_tombstones")
+                .fullDocumentLookup(FullDocument.UPDATE_LOOKUP)
+                .build(), ExpenseTombstoneDocument.class);
+        return container;
+    }
+
+    // ExpenseCategoryMigration only swaps the stored category name for its id, which clients can't see
+    private static boolean isCategoryMigration(ChangeStreamDocument<Document> change) {
+        UpdateDescription update = change.getUpdateDescription();
+        return change.getOperationType() == OperationType.UPDATE
+                && update != null
+                && update.getUpdatedFields() != null
+                && update.getUpdatedFields().keySet().equals(Set.of("category_id"))
+                && List.of("category").equals(update.getRemovedFields());
+    }
+
+    private static Expense toExpense(ExpenseDocument document, CategoryDictionary categoryDictionary) {
+        return new Expense(
+                document.getExpenseId(),
+                document.getDescription(),
+                document.getAmount(),
+                document.getDate(),
+                categoryDictionary.nameOf(document),
+                null
+        );
+    }
+}
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.siddesh.expensetracker.service.events;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.siddesh.expensetracker.dto.ExpenseEvent;
+
+/**
+ * Bounded queue of the events waiting to be sent on one connection. When it overflows the
+ * pending events are dropped and replaced by a single {@link #RESYNC} marker.
+ */
+final class EventBuffer {
+
+    // Queued in place of the dropped events of an overflowing buffer
+    static final ExpenseEvent RESYNC = new ExpenseEvent(null, null, null);
+
+    private final BlockingQueue<ExpenseEvent> queue;
+
+    EventBuffer(int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Queues the events, returning false if the buffer overflowed and now only holds {@link #RESYNC}.
+     */
+    boolean offer(List<ExpenseEvent> events) {
+        for (ExpenseEvent event : events) {
+            if (!queue.offer(event)) {
+                // The client will refetch anyway, so there is no point sending what is buffered
+                queue.clear();
+                queue.offer(RESYNC);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    ExpenseEvent poll(Duration timeout) throws InterruptedException {
+        return queue.poll(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,161 @@
+package com.siddesh.expensetracker.service.events;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.siddesh.expensetracker.dto.ExpenseEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Fans expense events out to the Server-Sent Events connections of the user they belong to.
+ * Each connection has a bounded buffer drained by its own virtual thread, so a slow client only
+ * holds up itself; when its buffer overflows the pending events are dropped and it is sent a
+ * {@code resync} event instead. Idle connections get a heartbeat comment so proxies keep them open.
+ */
+@Component
+@Profile("!reactive")
+public class ExpenseEventBroadcaster {
+
+    private final ConcurrentMap<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Counter overflows;
+    private final int bufferSize;
+    private final int maxConnectionsPerUser;
+    private final Duration heartbeatInterval;
+    private final Duration maxConnectionAge;
+
+    public ExpenseEventBroadcaster(MeterRegistry meterRegistry,
+                                   @Value("${expenses.events.buffer-size:256}") int bufferSize,
+                                   @Value("${expenses.events.max-connections-per-user:5}") int maxConnectionsPerUser,
+                                   @Value("${expenses.events.heartbeat-interval:20s}") Duration heartbeatInterval,
+                                   @Value("${expenses.events.max-connection-age:30m}") Duration maxConnectionAge) {
+        this.bufferSize = bufferSize;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.heartbeatInterval = heartbeatInterval;
+        this.maxConnectionAge = maxConnectionAge;
+        Gauge.builder("expenses.events.connections", connections, AtomicInteger::get)
+                .description("Open Server-Sent Events connections")
+                .register(meterRegistry);
+        this.overflows = Counter.builder("expenses.events.overflows")
+                .description("Connections whose event buffer overflowed and were told to resync")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream for the user, or returns empty when they already have the maximum number open.
+     * Streams end after {@code expenses.events.max-connection-age}; clients are expected to reconnect.
+     */
+    public Optional<SseEmitter> subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(maxConnectionAge.toMillis());
+        Subscription subscription = new Subscription(userId, emitter);
+        AtomicBoolean admitted = new AtomicBoolean();
+        // Atomic with close() removing the user's last subscription, so no subscription ends up in a discarded set
+        subscriptions.compute(userId, (id, userSubscriptions) -> {
+            Set<Subscription> current = userSubscriptions != null ? userSubscriptions : ConcurrentHashMap.newKeySet();
+            if (current.size() < maxConnectionsPerUser) {
+                current.add(subscription);
+                admitted.set(true);
+            }
+            return current.isEmpty() ? null : current;
+        });
+        if (!admitted.get()) {
+            return Optional.empty();
+        }
+
+        connections.incrementAndGet();
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(ex -> subscription.close());
+        subscription.start();
+        return Optional.of(emitter);
+    }
+
+    public void publish(Long userId, List<ExpenseEvent> events) {
+        Set<Subscription> userSubscriptions = subscriptions.get(userId);
+        if (userSubscriptions != null) {
+            userSubscriptions.forEach(subscription -> subscription.offer(events));
+        }
+    }
+
+    private final class Subscription {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final EventBuffer buffer = new EventBuffer(bufferSize);
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile Thread sender;
+
+        private Subscription(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        private void start() {
+            sender = Thread.ofVirtual().name("expense-events-" + userId).start(this::send);
+        }
+
+        private void offer(List<ExpenseEvent> events) {
+            if (!buffer.offer(events)) {
+                overflows.increment();
+            }
+        }
+
+        private void send() {
+            try {
+                // Flushes the response headers so the client knows the stream is open
+                emitter.send(SseEmitter.event().comment("connected"));
+                while (!closed.get()) {
+                    ExpenseEvent event = buffer.poll(heartbeatInterval);
+                    if (event == EventBuffer.RESYNC) {
+                        emitter.send(SseEmitter.event().name("resync").data(""));
+                    } else if (event != null) {
+                        emitter.send(SseEmitter.event()
+                                .name(event.type().name().toLowerCase(Locale.ROOT))
+                                .data(event, MediaType.APPLICATION_JSON));
+                    } else {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // The client went away or the emitter already completed
+                emitter.completeWithError(ex);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } finally {
+                close();
+            }
+        }
+
+        private void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            connections.decrementAndGet();
+            subscriptions.computeIfPresent(userId, (id, userSubscriptions) -> {
+                userSubscriptions.remove(this);
+                return userSubscriptions.isEmpty() ? null : userSubscriptions;
+            });
+            Thread thread = sender;
+            if (thread != null && thread != Thread.currentThread()) {
+                thread.interrupt();
+            }
+        }
+    }
+}
\ No newline at end of file
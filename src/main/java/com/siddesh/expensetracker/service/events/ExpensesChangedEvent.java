@@ -0,0 +1,10 @@
+package com.siddesh.expensetracker.service.events;
+
+import java.util.List;
+
+import com.siddesh.expensetracker.dto.ExpenseEvent;
+
+/**
+ * Application event published by the expense services after a write has reached Mongo.
+ */
+public record ExpensesChangedEvent(Long userId, List<ExpenseEvent> events) {}
\ No newline at end of file
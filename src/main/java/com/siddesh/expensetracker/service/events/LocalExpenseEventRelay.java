@@ -0,0 +1,27 @@
+package com.siddesh.expensetracker.service.events;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Delivers the events of writes made by this node. Only correct for a single node, or when
+ * each user's requests always reach the same node; otherwise use the change-stream source.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "expenses.events.source", havingValue = "local", matchIfMissing = true)
+public class LocalExpenseEventRelay {
+
+    private final ExpenseEventBroadcaster broadcaster;
+
+    public LocalExpenseEventRelay(ExpenseEventBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    @EventListener
+    public void onExpensesChanged(ExpensesChangedEvent event) {
+        broadcaster.publish(event.userId(), event.events());
+    }
+}
\ No newline at end of file
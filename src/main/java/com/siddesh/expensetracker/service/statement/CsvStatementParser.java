@@ -0,0 +1,159 @@
+package com.siddesh.expensetracker.service.statement;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.siddesh.expensetracker.entity.Expense;
+
+/**
+ * Reads CSV statements with a header row naming at least {@code date} and {@code amount}
+ * columns, plus optional {@code description} and {@code category}. Dates are ISO
+ * ({@code yyyy-MM-dd}); quoted fields may contain commas, doubled quotes and line breaks.
+ */
+public class CsvStatementParser implements StatementParser {
+
+    /**
+     * Longest record accepted, in characters. A longer row is rejected rather than read whole, which
+     * also bounds what an unbalanced quote can pull into memory.
+     */
+    static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private long rowNumber;
+    private boolean oversized;
+
+    public CsvStatementParser(Reader reader) throws IOException {
+        this.reader = new BufferedReader(reader);
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV statement is empty.");
+        }
+        if (oversized) {
+            throw new IllegalArgumentException("CSV header is longer than " + MAX_RECORD_LENGTH + " characters.");
+        }
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("date") || !columns.containsKey("amount")) {
+            throw new IllegalArgumentException("CSV header must contain 'date' and 'amount' columns.");
+        }
+    }
+
+    @Override
+    public StatementRow next() throws IOException {
+        List<String> record;
+        do {
+            record = readRecord();
+            if (record == null) {
+                return null;
+            }
+        } while (!oversized && record.size() == 1 && record.get(0).isBlank());
+
+        long number = ++rowNumber;
+        if (oversized) {
+            return StatementRow.rejected(number, "Row is longer than " + MAX_RECORD_LENGTH
+                    + " characters; check it for an unbalanced quote.");
+        }
+        try {
+            LocalDate date = LocalDate.parse(field(record, "date"));
+            BigDecimal amount = new BigDecimal(field(record, "amount"));
+            String description = field(record, "description");
+            String category = field(record, "category");
+            return StatementRow.parsed(number, new Expense(
+                    null,
+                    description.isEmpty() ? null : description,
+                    amount,
+                    date,
+                    category.isEmpty() ? null : category,
+                    null));
+        } catch (DateTimeParseException ex) {
+            return StatementRow.rejected(number, "Invalid date: " + field(record, "date"));
+        } catch (NumberFormatException ex) {
+            return StatementRow.rejected(number, "Invalid amount: " + field(record, "amount"));
+        }
+    }
+
+    private String field(List<String> record, String column) {
+        Integer index = columns.get(column);
+        return index != null && index < record.size() ? record.get(index).trim() : "";
+    }
+
+    // Returns null at end of input. Reads character by character so that no line, however long,
+    // is buffered beyond MAX_RECORD_LENGTH.
+    private List<String> readRecord() throws IOException {
+        oversized = false;
+        int c = reader.read();
+        if (c < 0) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int length = 0;
+        for (; c >= 0; c = reader.read()) {
+            if (++length > MAX_RECORD_LENGTH) {
+                oversized = true;
+                skipLine(c);
+                return List.of();
+            }
+            if (quoted) {
+                if (c == '"' && peek('"')) {
+                    field.append('"');
+                } else if (c == '"') {
+                    quoted = false;
+                } else if (c == '\r') {
+                    // A quoted field spans lines; keep the line break as \n whatever the file uses
+                    peek('\n');
+                    field.append('\n');
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c == '\r') {
+                peek('\n');
+                break;
+            } else {
+                field.append((char) c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // Consumes the next character if it is the expected one
+    private boolean peek(char expected) throws IOException {
+        reader.mark(1);
+        if (reader.read() == expected) {
+            return true;
+        }
+        reader.reset();
+        return false;
+    }
+
+    // Drops the rest of an oversized record up to the next line break, quoted or not
+    private void skipLine(int c) throws IOException {
+        while (c >= 0 && c != '\n' && c != '\r') {
+            c = reader.read();
+        }
+        if (c == '\r') {
+            peek('\n');
+        }
+    }
+}
\ No newline at end of file
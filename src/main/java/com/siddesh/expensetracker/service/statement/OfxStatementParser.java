@@ -0,0 +1,102 @@
+package com.siddesh.expensetracker.service.statement;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import com.siddesh.expensetracker.entity.Expense;
+
+/**
+ * Reads {@code <STMTTRN>} transactions from OFX 1.x (SGML) or 2.x (XML) statements by scanning
+ * tags, so the file never has to be parsed as a whole. Debits become expenses with a positive
+ * amount; credits are skipped.
+ */
+public class OfxStatementParser implements StatementParser {
+
+    private static final DateTimeFormatter OFX_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final BufferedReader reader;
+    private long rowNumber;
+
+    public OfxStatementParser(Reader reader) {
+        this.reader = new BufferedReader(reader);
+    }
+
+    @Override
+    public StatementRow next() throws IOException {
+        Map<String, String> transaction = null;
+        String tag;
+        while ((tag = nextTag()) != null) {
+            if (tag.equals("STMTTRN")) {
+                transaction = new HashMap<>();
+            } else if (tag.equals("/STMTTRN") && transaction != null) {
+                return toRow(++rowNumber, transaction);
+            } else if (transaction != null && !tag.startsWith("/")) {
+                transaction.put(tag, readText());
+            }
+        }
+        return null;
+    }
+
+    private StatementRow toRow(long number, Map<String, String> transaction) {
+        String rawDate = transaction.getOrDefault("DTPOSTED", "");
+        String rawAmount = transaction.getOrDefault("TRNAMT", "");
+        LocalDate date;
+        BigDecimal amount;
+        try {
+            // DTPOSTED is yyyyMMdd optionally followed by time and zone
+            date = LocalDate.parse(rawDate.length() >= 8 ? rawDate.substring(0, 8) : rawDate, OFX_DATE);
+        } catch (DateTimeParseException ex) {
+            return StatementRow.rejected(number, "Invalid DTPOSTED: " + rawDate);
+        }
+        try {
+            amount = new BigDecimal(rawAmount);
+        } catch (NumberFormatException ex) {
+            return StatementRow.rejected(number, "Invalid TRNAMT: " + rawAmount);
+        }
+        if (amount.signum() >= 0) {
+            return StatementRow.skipped(number);
+        }
+
+        String description = transaction.getOrDefault("NAME", transaction.get("MEMO"));
+        return StatementRow.parsed(number, new Expense(null, description, amount.negate(), date, null, null));
+    }
+
+    // Advances past the next '<' and returns the tag name, upper-cased, or null at end of input
+    private String nextTag() throws IOException {
+        int c;
+        while ((c = reader.read()) != -1 && c != '<') {
+            // skip text outside the tags we care about
+        }
+        if (c == -1) {
+            return null;
+        }
+        StringBuilder tag = new StringBuilder();
+        while ((c = reader.read()) != -1 && c != '>') {
+            tag.append((char) c);
+        }
+        return tag.toString().trim().toUpperCase(Locale.ROOT);
+    }
+
+    // Reads an element's text up to (not including) the next '<'
+    private String readText() throws IOException {
+        StringBuilder text = new StringBuilder();
+        reader.mark(1);
+        int c;
+        while ((c = reader.read()) != -1 && c != '<') {
+            text.append((char) c);
+            reader.mark(1);
+        }
+        if (c == '<') {
+            reader.reset();
+        }
+        return text.toString().trim();
+    }
+}
\ No newline at end of file
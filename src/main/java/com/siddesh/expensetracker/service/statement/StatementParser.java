@@ -0,0 +1,25 @@
+package com.siddesh.expensetracker.service.statement;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Locale;
+
+/**
+ * Pull parser over a statement stream. Only the current row is held in memory, so the size
+ * of the statement does not matter.
+ */
+public interface StatementParser {
+
+    /**
+     * Returns the next data row, or null at the end of the statement.
+     */
+    StatementRow next() throws IOException;
+
+    static StatementParser forFormat(String format, Reader reader) throws IOException {
+        return switch (format.toLowerCase(Locale.ROOT)) {
+            case "csv" -> new CsvStatementParser(reader);
+            case "ofx" -> new OfxStatementParser(reader);
+            default -> throw new IllegalArgumentException("Unsupported statement format: " + format);
+        };
+    }
+}
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.siddesh.expensetracker.service.statement;
+
+import com.siddesh.expensetracker.entity.Expense;
+
+/**
+ * One data row of a statement, numbered from 1 in file order. Exactly one of {@code expense},
+ * {@code error} is set, unless the row was skipped (e.g. a credit) in which case both are null.
+ */
+public record StatementRow(long number, Expense expense, String error) {
+
+    public static StatementRow parsed(long number, Expense expense) {
+        return new StatementRow(number, expense, null);
+    }
+
+    public static StatementRow rejected(long number, String error) {
+        return new StatementRow(number, null, error);
+    }
+
+    public static StatementRow skipped(long number) {
+        return new StatementRow(number, null, null);
+    }
+
+    public boolean isSkipped() {
+        return expense == null && error == null;
+    }
+}
\ No newline at end of file
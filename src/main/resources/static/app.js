@@ -4,6 +4,7 @@ class ExpenseTrackerApp {
     // --- STATE MANAGEMENT ---
     this.apiBaseUrls = this._buildApiBaseList();
     this.token = localStorage.getItem('token');
+    this.refreshToken = localStorage.getItem('refreshToken');
         this.expenses = [];
         this.undoTimeout = null;
 
@@ -101,7 +102,9 @@ class ExpenseTrackerApp {
             this.authContainer.classList.add('hidden');
             this.dashboardContainer.classList.remove('hidden');
             this.fetchExpenses();
+            this._subscribeToChanges();
         } else {
+            this._unsubscribeFromChanges();
             this.authContainer.classList.remove('hidden');
             this.dashboardContainer.classList.add('hidden');
         }
@@ -167,7 +170,7 @@ class ExpenseTrackerApp {
     }
     
     // --- API SERVICE ---
-    async _apiFetch(endpoint, method = 'GET', body = null) {
+    async _apiFetch(endpoint, method = 'GET', body = null, allowRefresh = true) {
         const options = {
             method,
             headers: { 'Content-Type': 'application/json' }
@@ -206,6 +209,10 @@ class ExpenseTrackerApp {
                     const retryableStatus = [404, 502, 503, 504].includes(response.status);
 
                     if ([401, 403].includes(response.status)) {
+                        // Access tokens are short-lived; trade the refresh token for a new one and retry once
+                        if (allowRefresh && this.refreshToken && !endpoint.startsWith('/api/auth/') && await this._refreshSession()) {
+                            return this._apiFetch(endpoint, method, body, false);
+                        }
                         console.warn('[ExpenseTracker] Authentication failed. Clearing stored token.');
                         this._handleLogout();
                         this._displayMessage(this.errorMessage, 'Session expired. Please log in again.');
@@ -258,8 +265,7 @@ class ExpenseTrackerApp {
         };
         try {
             const result = await this._apiFetch('/api/auth/register', 'POST', body);
-            this.token = result.token;
-            localStorage.setItem('token', this.token);
+            this._storeSession(result);
             this._updateUI();
             this.registerForm.reset();
         } catch (error) {
@@ -276,8 +282,7 @@ class ExpenseTrackerApp {
         };
         try {
             const result = await this._apiFetch('/api/auth/login', 'POST', body);
-            this.token = result.token;
-            localStorage.setItem('token', this.token);
+            this._storeSession(result);
             this._updateUI();
             this.loginForm.reset();
         } catch (error) {
@@ -285,13 +290,121 @@ class ExpenseTrackerApp {
         }
     }
 
+    _storeSession(result) {
+        this.token = result.token;
+        this.refreshToken = result.refreshToken;
+        localStorage.setItem('token', this.token);
+        localStorage.setItem('refreshToken', this.refreshToken);
+    }
+
+    // Refresh tokens are single-use, so concurrent callers share one refresh request
+    _refreshSession() {
+        if (!this.refreshPromise) {
+            this.refreshPromise = (async () => {
+                try {
+                    const response = await fetch(`${this.apiBaseUrls[0]}/api/auth/refresh`, {
+                        method: 'POST',
+                        headers: { 'Content-Type': 'application/json' },
+                        body: JSON.stringify({ refreshToken: this.refreshToken })
+                    });
+                    if (!response.ok) {
+                        return false;
+                    }
+                    this._storeSession(await response.json());
+                    return true;
+                } catch (error) {
+                    console.warn('[ExpenseTracker] Token refresh failed:', error);
+                    return false;
+                } finally {
+                    this.refreshPromise = null;
+                }
+            })();
+        }
+        return this.refreshPromise;
+    }
+
     _handleLogout() {
+        if (this.refreshToken) {
+            const refreshToken = this.refreshToken;
+            fetch(`${this.apiBaseUrls[0]}/api/auth/logout`, {
+                method: 'POST',
+                headers: { 'Content-Type': 'application/json' },
+                body: JSON.stringify({ refreshToken })
+            }).catch(error => console.warn('[ExpenseTracker] Logout request failed:', error));
+        }
         this.token = null;
+        this.refreshToken = null;
         localStorage.removeItem('token');
+        localStorage.removeItem('refreshToken');
         this.expenses = [];
         this._updateUI();
     }
     
+    // Listens to the server's event stream so changes made elsewhere show up without polling.
+    // EventSource can't send the Authorization header, so the stream is read through fetch.
+    async _subscribeToChanges() {
+        if (this.eventStream) {
+            return;
+        }
+        const controller = new AbortController();
+        this.eventStream = controller;
+        try {
+            const response = await fetch(`${this.apiBaseUrls[0]}/api/expenses/events`, {
+                headers: { 'Authorization': `Bearer ${this.token}`, 'Accept': 'text/event-stream' },
+                signal: controller.signal
+            });
+            // The access token may have expired since the stream was opened; reconnect with a fresh one
+            if (response.status === 401 && !(await this._refreshSession())) {
+                this._handleLogout();
+                return;
+            }
+            if (!response.ok || !response.body) {
+                throw new Error(`Event stream unavailable (status ${response.status})`);
+            }
+            const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+            let buffered = '';
+            while (true) {
+                const { value, done } = await reader.read();
+                if (done) {
+                    break;
+                }
+                buffered += value;
+                const events = buffered.split('\n\n');
+                buffered = events.pop();
+                // Any named event (created, updated, deleted, resync) means the list is stale
+                if (events.some(event => event.split('\n').some(line => line.startsWith('event:')))) {
+                    this._scheduleRefresh();
+                }
+            }
+        } catch (error) {
+            if (controller.signal.aborted) {
+                return;
+            }
+            console.warn('[ExpenseTracker] Expense event stream failed:', error);
+        } finally {
+            if (this.eventStream === controller) {
+                this.eventStream = null;
+            }
+        }
+        // The server ends streams periodically; reconnect while still logged in
+        if (this.token && !controller.signal.aborted) {
+            setTimeout(() => this.token && this._subscribeToChanges(), 5000);
+        }
+    }
+
+    _unsubscribeFromChanges() {
+        if (this.eventStream) {
+            this.eventStream.abort();
+            this.eventStream = null;
+        }
+    }
+
+    // Coalesces bursts of events, e.g. from a batch import, into one refresh
+    _scheduleRefresh() {
+        clearTimeout(this.refreshTimeout);
+        this.refreshTimeout = setTimeout(() => this.fetchExpenses(), 300);
+    }
+
     async fetchExpenses() {
         try {
             this.expenses = (await this._apiFetch('/api/expenses')) || [];
@@ -0,0 +1,60 @@
+package com.siddesh.expensetracker;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+
+/**
+ * One embedded mongod shared by every test in the JVM (or {@code -Dtest.mongodb-uri}), started
+ * on first use. Tests that need it are skipped rather than failed when no mongod can be started,
+ * e.g. offline before flapdoodle has cached the download under {@code ~/.embedmongo}.
+ */
+public final class EmbeddedMongo {
+
+    private static MongoClient client;
+    private static String unavailable;
+
+    private EmbeddedMongo() {
+    }
+
+    /** A template on a fresh, empty database. */
+    public static MongoTemplate template(String database) {
+        MongoTemplate template = new MongoTemplate(client(), database);
+        template.getDb().drop();
+        return template;
+    }
+
+    private static synchronized MongoClient client() {
+        if (client == null && unavailable == null) {
+            try {
+                client = MongoClients.create(startMongod());
+            } catch (RuntimeException e) {
+                Throwable cause = e;
+                while (cause.getCause() != null) {
+                    cause = cause.getCause();
+                }
+                unavailable = cause.toString();
+            }
+        }
+        assumeTrue(client != null, () -> "No MongoDB available for tests: " + unavailable);
+        return client;
+    }
+
+    private static String startMongod() {
+        String uri = System.getProperty("test.mongodb-uri");
+        if (uri != null) {
+            return uri;
+        }
+        TransitionWalker.ReachedState<RunningMongodProcess> mongod = Mongod.instance().start(Version.Main.V7_0);
+        Runtime.getRuntime().addShutdownHook(new Thread(mongod::close));
+        return "mongodb://" + mongod.current().getServerAddress();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,68 @@
+package com.siddesh.expensetracker.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AuthenticatedUserCacheTest {
+
+    private static final String EMAIL = "someone@example.com";
+
+    private UserDetailsServiceImpl userDetailsService;
+    private AuthenticatedUserCache cache;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsService = mock(UserDetailsServiceImpl.class);
+        when(userDetailsService.loadUserByUsername(EMAIL)).thenReturn(new AuthenticatedUser(3L, EMAIL, "$2a$10$hash"));
+        cache = new AuthenticatedUserCache(userDetailsService, 100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void aBurstOfRequestsLooksTheUserUpOnce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<AuthenticatedUser>> futures = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                futures.add(executor.submit(() -> cache.get(EMAIL)));
+            }
+            for (Future<AuthenticatedUser> future : futures) {
+                assertThat(future.get().getId()).isEqualTo(3L);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(userDetailsService, times(1)).loadUserByUsername(EMAIL);
+    }
+
+    @Test
+    void cachedPrincipalCarriesTheIdButNotThePasswordHash() {
+        AuthenticatedUser user = cache.get(EMAIL);
+
+        assertThat(user.getId()).isEqualTo(3L);
+        assertThat(user.getUsername()).isEqualTo(EMAIL);
+        assertThat(user.getPassword()).isNull();
+    }
+
+    @Test
+    void evictionForcesAFreshLookup() {
+        cache.get(EMAIL);
+        cache.evict(EMAIL);
+        cache.get(EMAIL);
+
+        verify(userDetailsService, times(2)).loadUserByUsername(EMAIL);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,106 @@
+package com.siddesh.expensetracker.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.siddesh.expensetracker.service.JwtService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JwtAuthFilterTest {
+
+    private static final AuthenticatedUser USER = new AuthenticatedUser(3L, "someone@example.com", null);
+
+    private JwtService jwtService;
+    private AuthenticatedUserCache users;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = spy(new JwtService("jwt-auth-filter-test-secret-key", Duration.ofMinutes(15), new SimpleMeterRegistry()));
+        users = mock(AuthenticatedUserCache.class);
+        when(users.get(USER.getUsername())).thenReturn(USER);
+        token = jwtService.generateToken(USER);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private JwtAuthFilter filter(boolean tokenCacheEnabled) {
+        return new JwtAuthFilter(jwtService, users, new VerifiedTokenCache(tokenCacheEnabled, 100, new SimpleMeterRegistry()));
+    }
+
+    private Authentication authenticate(JwtAuthFilter filter, String bearer) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/expenses");
+        request.addHeader("Authorization", "Bearer " + bearer);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Test
+    void authenticatesWithThePrincipalAndItsId() throws Exception {
+        Authentication authentication = authenticate(filter(false), token);
+
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getPrincipal()).isInstanceOfSatisfying(AuthenticatedUser.class,
+                principal -> assertThat(principal.getId()).isEqualTo(3L));
+    }
+
+    @Test
+    void verifiesTheSignatureOncePerTokenWhenTheCacheIsEnabled() throws Exception {
+        JwtAuthFilter filter = filter(true);
+
+        assertThat(authenticate(filter, token)).isNotNull();
+        assertThat(authenticate(filter, token)).isNotNull();
+
+        verify(jwtService, times(1)).parseClaims(anyString());
+    }
+
+    @Test
+    void verifiesEveryRequestWhenTheCacheIsDisabled() throws Exception {
+        JwtAuthFilter filter = filter(false);
+
+        authenticate(filter, token);
+        authenticate(filter, token);
+
+        verify(jwtService, times(2)).parseClaims(anyString());
+    }
+
+    @Test
+    void leavesTamperedTokensUnauthenticated() throws Exception {
+        JwtAuthFilter filter = filter(true);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThat(authenticate(filter, tampered)).isNull();
+        // A failed verification is not remembered either
+        assertThat(authenticate(filter, tampered)).isNull();
+        verify(jwtService, times(2)).parseClaims(anyString());
+    }
+
+    @Test
+    void doesNotAuthenticateATokenForAUserWhoseIdChanged() throws Exception {
+        // The account was deleted and the email registered again under a new id
+        when(users.get(USER.getUsername())).thenReturn(new AuthenticatedUser(9L, USER.getUsername(), null));
+
+        assertThat(authenticate(filter(true), token)).isNull();
+    }
+}
\ No newline at end of file
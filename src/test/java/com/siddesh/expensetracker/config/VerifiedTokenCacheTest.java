@@ -0,0 +1,79 @@
+package com.siddesh.expensetracker.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+import com.siddesh.expensetracker.config.VerifiedTokenCache.VerifiedToken;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class VerifiedTokenCacheTest {
+
+    private static final AuthenticatedUser USER = new AuthenticatedUser(3L, "someone@example.com", null);
+
+    private static VerifiedTokenCache cache(boolean enabled) {
+        return new VerifiedTokenCache(enabled, 100, new SimpleMeterRegistry());
+    }
+
+    private static VerifiedToken expiringIn(Duration duration) {
+        return new VerifiedToken(USER.getUsername(), USER.getId(), Instant.now().plus(duration));
+    }
+
+    @Test
+    void storesNothingWhenDisabled() {
+        VerifiedTokenCache cache = cache(false);
+
+        cache.put("token", expiringIn(Duration.ofMinutes(5)));
+
+        assertThat(cache.get("token")).isNull();
+    }
+
+    @Test
+    void entriesExpireWithTheTokenItself() throws InterruptedException {
+        VerifiedTokenCache cache = cache(true);
+        VerifiedToken verified = expiringIn(Duration.ofMillis(300));
+
+        cache.put("token", verified);
+        assertThat(cache.get("token")).isEqualTo(verified);
+
+        Thread.sleep(Duration.between(Instant.now(), verified.expiresAt()).plusMillis(50).toMillis());
+        assertThat(cache.get("token")).isNull();
+    }
+
+    @Test
+    void doesNotCacheTokensThatHaveAlreadyExpired() {
+        VerifiedTokenCache cache = cache(true);
+
+        cache.put("token", expiringIn(Duration.ofSeconds(-1)));
+        cache.put("no-exp", new VerifiedToken(USER.getUsername(), USER.getId(), null));
+
+        assertThat(cache.get("token")).isNull();
+        assertThat(cache.get("no-exp")).isNull();
+    }
+
+    @Test
+    void keepsDifferentTokensApart() {
+        VerifiedTokenCache cache = cache(true);
+        VerifiedToken first = expiringIn(Duration.ofMinutes(5));
+
+        cache.put("first", first);
+
+        assertThat(cache.get("first")).isEqualTo(first);
+        assertThat(cache.get("second")).isNull();
+    }
+
+    @Test
+    void onlyVouchesForTheUserTheTokenNames() {
+        VerifiedToken verified = expiringIn(Duration.ofMinutes(5));
+
+        assertThat(verified.isFor(USER)).isTrue();
+        assertThat(verified.isFor(new AuthenticatedUser(4L, USER.getUsername(), null))).isFalse();
+        assertThat(verified.isFor(new AuthenticatedUser(3L, "other@example.com", null))).isFalse();
+        // Tokens issued before the uid claim existed still match on the subject alone
+        assertThat(new VerifiedToken(USER.getUsername(), null, verified.expiresAt()).isFor(USER)).isTrue();
+    }
+}
\ No newline at end of file
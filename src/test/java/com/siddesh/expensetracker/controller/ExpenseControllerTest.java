@@ -0,0 +1,188 @@
+package com.siddesh.expensetracker.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siddesh.expensetracker.config.AuthenticatedUser;
+import com.siddesh.expensetracker.entity.Expense;
+import com.siddesh.expensetracker.mongo.service.UserDataVersionService;
+import com.siddesh.expensetracker.service.ExpenseSearchService;
+import com.siddesh.expensetracker.service.ExpenseService;
+import com.siddesh.expensetracker.service.ExpenseSyncService;
+import com.siddesh.expensetracker.service.events.ExpenseEventBroadcaster;
+
+class ExpenseControllerTest {
+
+    private static final AuthenticatedUser USER = new AuthenticatedUser(5L, "user@example.com", null);
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private ExpenseService expenseService;
+    private UserDataVersionService versions;
+    private ExpenseController controller;
+
+    @BeforeEach
+    void setUp() {
+        expenseService = mock(ExpenseService.class);
+        versions = mock(UserDataVersionService.class);
+        when(versions.currentVersion(5L)).thenReturn(3L);
+        controller = new ExpenseController(expenseService, versions, mock(ExpenseSyncService.class),
+                mock(ExpenseSearchService.class), mock(ExpenseEventBroadcaster.class), objectMapper);
+    }
+
+    @Test
+    void exportsOneExpensePerLineAsNdjson() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(expenseService.streamExpenses(5L, null, null))
+                .thenReturn(Stream.of(expense(1L, "Lunch"), expense(2L, "Taxi")).onClose(() -> closed.set(true)));
+
+        ResponseEntity<StreamingResponseBody> response = controller.exportExpenses(null, null, "ndjson", USER);
+
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.parseMediaType("application/x-ndjson"));
+        String[] lines = write(response.getBody()).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines[0]).get("description").asText()).isEqualTo("Lunch");
+        assertThat(objectMapper.readTree(lines[1]).get("description").asText()).isEqualTo("Taxi");
+        // The Mongo cursor behind the stream is released once the body is written
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    void exportsAJsonArrayOnRequest() throws Exception {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 12, 31);
+        when(expenseService.streamExpenses(5L, from, to)).thenReturn(Stream.of(expense(1L, "Lunch"), expense(2L, "Taxi")));
+
+        ResponseEntity<StreamingResponseBody> response = controller.exportExpenses(from, to, "JSON", USER);
+
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        JsonNode array = objectMapper.readTree(write(response.getBody()));
+        assertThat(array.isArray()).isTrue();
+        assertThat(array).extracting(node -> node.get("id").asLong()).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void exportsAnEmptyHistoryAsAValidArray() throws Exception {
+        when(expenseService.streamExpenses(5L, null, null)).thenReturn(Stream.empty());
+
+        ResponseEntity<StreamingResponseBody> response = controller.exportExpenses(null, null, "json", USER);
+
+        assertThat(write(response.getBody())).isEqualTo("[]");
+    }
+
+    @Test
+    void rejectsUnknownExportFormats() {
+        ResponseEntity<StreamingResponseBody> response = controller.exportExpenses(null, null, "csv", USER);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(expenseService, never()).streamExpenses(5L, null, null);
+    }
+
+    @Test
+    void tagsResponsesWithTheUsersDataVersion() {
+        when(expenseService.getAllExpensesByUserId(5L)).thenReturn(List.of(expense(1L, "Lunch")));
+
+        ResponseEntity<List<Expense>> response = controller.getAllExpenses(new HttpHeaders(), USER);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"5-3\"");
+        assertThat(response.getHeaders().getCacheControl()).contains("no-cache").contains("private");
+        assertThat(response.getBody()).hasSize(1);
+    }
+
+    @Test
+    void answersNotModifiedWithoutLoadingWhenTheTagIsCurrent() {
+        ResponseEntity<List<Expense>> response = controller.getAllExpenses(ifNoneMatch("\"5-3\""), USER);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"5-3\"");
+        assertThat(response.getBody()).isNull();
+        verify(expenseService, never()).getAllExpensesByUserId(5L);
+    }
+
+    @Test
+    void matchesTagsWeakenedOnTheWay() {
+        ResponseEntity<Expense> response = controller.getExpenseById(1L, ifNoneMatch("\"0-1\", W/\"5-3\""), USER);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        verify(expenseService, never()).getExpenseByIdAndUserId(1L, 5L);
+    }
+
+    @Test
+    void reloadsWhenTheDataChangedSinceTheTag() {
+        when(expenseService.getAllExpensesByUserId(5L)).thenReturn(List.of());
+
+        ResponseEntity<List<Expense>> response = controller.getAllExpenses(ifNoneMatch("\"5-2\""), USER);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"5-3\"");
+    }
+
+    @Test
+    void doesNotReuseAnotherUsersTag() {
+        when(expenseService.getAllExpensesByUserId(5L)).thenReturn(List.of());
+
+        // Same version number, different user
+        ResponseEntity<List<Expense>> response = controller.getAllExpenses(ifNoneMatch("\"6-3\""), USER);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void leavesErrorResponsesUntagged() {
+        when(expenseService.getExpenseByIdAndUserId(9L, 5L)).thenReturn(Optional.empty());
+
+        ResponseEntity<Expense> response = controller.getExpenseById(9L, new HttpHeaders(), USER);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getHeaders().getETag()).isNull();
+    }
+
+    @Test
+    void answersConflictWhenTheExpenseKeepsChangingUnderTheUpdate() {
+        Expense details = expense(1L, "Lunch");
+        when(expenseService.updateExpense(1L, details, 5L)).thenThrow(new IllegalStateException("Expense 1 kept changing concurrently."));
+
+        ResponseEntity<Expense> response = controller.updateExpense(1L, details, USER);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    private static Expense expense(Long id, String description) {
+        return new Expense(id, description, new BigDecimal("12.50"), LocalDate.of(2024, 3, 1), "Food", null);
+    }
+
+    private static HttpHeaders ifNoneMatch(String value) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.IF_NONE_MATCH, value);
+        return headers;
+    }
+
+    private static String write(StreamingResponseBody body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,100 @@
+package com.siddesh.expensetracker.mongo.config;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.siddesh.expensetracker.EmbeddedMongo;
+import com.siddesh.expensetracker.mongo.document.ExpenseDocument;
+
+class ExpenseIndexVerifierTest {
+
+    private MongoOperations mongo;
+    private FindIterable<Document> find;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        mongo = mock(MongoOperations.class);
+        MongoCollection<Document> expenses = mock(MongoCollection.class);
+        find = mock(FindIterable.class);
+        when(mongo.getCollectionName(ExpenseDocument.class)).thenReturn("expenses");
+        when(mongo.getCollection("expenses")).thenReturn(expenses);
+        when(expenses.find(any(Bson.class))).thenReturn(find);
+        when(find.sort(any(Bson.class))).thenReturn(find);
+    }
+
+    private void planned(Document winningPlan) {
+        when(find.explain()).thenReturn(new Document("queryPlanner", new Document("winningPlan", winningPlan)));
+    }
+
+    private static void verify(MongoOperations mongo, String mode) {
+        new ExpenseIndexVerifier(mongo, mode).run(new DefaultApplicationArguments());
+    }
+
+    @Test
+    void failModeRejectsACollectionScanNestedInThePlan() {
+        planned(new Document("stage", "FETCH").append("inputStage", new Document("stage", "OR")
+                .append("inputStages", List.of(new Document("stage", "IXSCAN"), new Document("stage", "COLLSCAN")))));
+
+        assertThatThrownBy(() -> verify(mongo, "fail"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("findByUserId");
+    }
+
+    @Test
+    void indexedPlansPassEvenInFailMode() {
+        planned(new Document("stage", "FETCH").append("inputStage", new Document("stage", "IXSCAN")));
+
+        assertThatCode(() -> verify(mongo, "fail")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void warnModeOnlyLogs() {
+        planned(new Document("stage", "COLLSCAN"));
+
+        assertThatCode(() -> verify(mongo, "warn")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void explainErrorsOnlyAbortStartupInFailMode() {
+        when(find.explain()).thenThrow(new MongoException("not authorized to explain"));
+
+        assertThatCode(() -> verify(mongo, "warn")).doesNotThrowAnyException();
+        assertThatThrownBy(() -> verify(mongo, "fail")).isInstanceOf(MongoException.class);
+    }
+
+    @Test
+    void offModeNeverTouchesMongo() {
+        MongoOperations untouched = mock(MongoOperations.class);
+
+        verify(untouched, "off");
+
+        verifyNoInteractions(untouched);
+    }
+
+    // Skipped when no mongod is available
+    @Test
+    void declaredIndexesServeEveryQueryShape() {
+        MongoTemplate template = EmbeddedMongo.template("index_verifier_test");
+        new MongoIndexInitializer(template, true).run(new DefaultApplicationArguments());
+
+        assertThatCode(() -> verify(template, "fail")).doesNotThrowAnyException();
+    }
+}
\ No newline at end of file
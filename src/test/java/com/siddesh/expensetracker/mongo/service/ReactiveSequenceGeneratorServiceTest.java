@@ -0,0 +1,78 @@
+package com.siddesh.expensetracker.mongo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import com.siddesh.expensetracker.mongo.document.DatabaseSequence;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class ReactiveSequenceGeneratorServiceTest {
+
+    private static final String SEQUENCE = "test_sequence";
+
+    private ReactiveMongoOperations mongo;
+    private ReactiveSequenceGeneratorService sequences;
+
+    @BeforeEach
+    void setUp() {
+        mongo = mock(ReactiveMongoOperations.class);
+        sequences = new ReactiveSequenceGeneratorService(mongo, new SimpleMeterRegistry(), 3);
+    }
+
+    @Test
+    void idsComeFromReservedBlocks() {
+        AtomicLong counter = new AtomicLong();
+        when(mongo.findAndModify(any(Query.class), any(UpdateDefinition.class), any(FindAndModifyOptions.class), eq(DatabaseSequence.class)))
+                .thenAnswer(invocation -> Mono.fromSupplier(() -> new DatabaseSequence(SEQUENCE, counter.addAndGet(3))));
+
+        List<Long> ids = Flux.range(0, 7).concatMap(i -> sequences.getNextSequence(SEQUENCE)).collectList().block();
+
+        assertThat(ids).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L);
+        verify(mongo, times(3)).findAndModify(any(Query.class), any(UpdateDefinition.class), any(FindAndModifyOptions.class), eq(DatabaseSequence.class));
+    }
+
+    @Test
+    void callersWaitingForARefillShareOneRoundTrip() {
+        Sinks.One<DatabaseSequence> reserved = Sinks.one();
+        when(mongo.findAndModify(any(Query.class), any(UpdateDefinition.class), any(FindAndModifyOptions.class), eq(DatabaseSequence.class)))
+                .thenReturn(reserved.asMono());
+
+        Mono<List<Long>> ids = Flux.merge(sequences.getNextSequence(SEQUENCE), sequences.getNextSequence(SEQUENCE),
+                sequences.getNextSequence(SEQUENCE)).collectSortedList().cache();
+        ids.subscribe();
+        reserved.tryEmitValue(new DatabaseSequence(SEQUENCE, 3));
+
+        assertThat(ids.block()).containsExactly(1L, 2L, 3L);
+        verify(mongo, times(1)).findAndModify(any(Query.class), any(UpdateDefinition.class), any(FindAndModifyOptions.class), eq(DatabaseSequence.class));
+    }
+
+    @Test
+    void failedReservationIsRetriedByTheNextCaller() {
+        when(mongo.findAndModify(any(Query.class), any(UpdateDefinition.class), any(FindAndModifyOptions.class), eq(DatabaseSequence.class)))
+                .thenReturn(Mono.error(new IllegalStateException("down")))
+                .thenReturn(Mono.just(new DatabaseSequence(SEQUENCE, 3)));
+
+        assertThatThrownBy(() -> sequences.getNextSequence(SEQUENCE).block()).hasMessageContaining("down");
+        assertThat(sequences.getNextSequence(SEQUENCE).block()).isEqualTo(1L);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.siddesh.expensetracker.mongo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import com.siddesh.expensetracker.mongo.document.DatabaseSequence;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SequenceGeneratorServiceTest {
+
+    private static final String SEQUENCE = "test_sequence";
+    private static final int BLOCK_SIZE = 10;
+
+    private final AtomicLong counter = new AtomicLong();
+    private MongoOperations mongo;
+    private SimpleMeterRegistry registry;
+    private SequenceGeneratorService sequences;
+
+    @BeforeEach
+    void setUp() {
+        mongo = mock(MongoOperations.class);
+        when(mongo.findAndModify(any(Query.class), any(UpdateDefinition.class), any(FindAndModifyOptions.class), eq(DatabaseSequence.class)))
+                .thenAnswer(invocation -> {
+                    int increment = invocation.<UpdateDefinition>getArgument(1).getUpdateObject()
+                            .get("$inc", Document.class).getInteger("value");
+                    return new DatabaseSequence(SEQUENCE, counter.addAndGet(increment));
+                });
+        registry = new SimpleMeterRegistry();
+        sequences = new SequenceGeneratorService(mongo, registry, BLOCK_SIZE);
+    }
+
+    @Test
+    void onlyReservationRoundTripsAreTimed() {
+        for (int i = 0; i < 25; i++) {
+            sequences.getNextSequence(SEQUENCE);
+        }
+        sequences.reserveSequenceBlock(SEQUENCE, 50);
+
+        assertThat(registry.get("sequence.reserve").tag("sequence", SEQUENCE).timer().count()).isEqualTo(4);
+        assertThat(registry.find("sequence.next").timer()).isNull();
+    }
+
+    @Test
+    void concurrentCallersShareBlocksWithoutDuplicatesOrGaps() throws Exception {
+        int threads = 8;
+        int perThread = 500;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        AtomicInteger duplicates = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        if (!ids.add(sequences.getNextSequence(SEQUENCE))) {
+                            duplicates.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int total = threads * perThread;
+        assertThat(duplicates).hasValue(0);
+        assertThat(ids).hasSize(total);
+        assertThat(ids.stream().mapToLong(Long::longValue).min().orElseThrow()).isEqualTo(1);
+        assertThat(ids.stream().mapToLong(Long::longValue).max().orElseThrow()).isEqualTo(total);
+        // Exactly one round trip per block, however many threads found it exhausted at once
+        verify(mongo, times(total / BLOCK_SIZE))
+                .findAndModify(any(Query.class), any(UpdateDefinition.class), any(FindAndModifyOptions.class), eq(DatabaseSequence.class));
+    }
+
+    @Test
+    void reservedRangesBypassTheLocalBlock() {
+        assertThat(sequences.getNextSequence(SEQUENCE)).isEqualTo(1);
+
+        assertThat(sequences.reserveSequenceBlock(SEQUENCE, 50)).isEqualTo(11);
+        // The rest of the first block is still handed out, then the next block starts after the range
+        assertThat(sequences.getNextSequence(SEQUENCE)).isEqualTo(2);
+        for (int i = 3; i <= 10; i++) {
+            sequences.getNextSequence(SEQUENCE);
+        }
+        assertThat(sequences.getNextSequence(SEQUENCE)).isEqualTo(61);
+    }
+}
\ No newline at end of file
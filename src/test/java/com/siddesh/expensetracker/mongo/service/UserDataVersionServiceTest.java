@@ -0,0 +1,68 @@
+package com.siddesh.expensetracker.mongo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.siddesh.expensetracker.EmbeddedMongo;
+import com.siddesh.expensetracker.mongo.document.UserDataVersion;
+import com.siddesh.expensetracker.mongo.document.UserDataVersion.PendingChange;
+
+class UserDataVersionServiceTest {
+
+    private static final Long USER = 3L;
+
+    @Test
+    void committedSequenceStopsBelowTheOldestLiveReservation() {
+        Instant now = Instant.parse("2024-05-01T10:00:00Z");
+        UserDataVersion version = new UserDataVersion(USER, 4, 12, List.of(
+                new PendingChange(11, now.plusSeconds(30)),
+                new PendingChange(6, now.plusSeconds(30)),
+                new PendingChange(3, now.minusSeconds(1))));
+
+        assertThat(UserDataVersionService.committedChangeSequence(version, now)).isEqualTo(5);
+    }
+
+    @Test
+    void committedSequenceIsTheCounterWithNothingPending() {
+        UserDataVersion version = new UserDataVersion(USER, 4, 12, null);
+
+        assertThat(UserDataVersionService.committedChangeSequence(version, Instant.now())).isEqualTo(12);
+    }
+
+    @Test
+    void outOfOrderCommitsHoldTheSequenceUntilTheEarlierWriteReportsBack() {
+        MongoTemplate mongo = EmbeddedMongo.template("user_data_version_test");
+        UserDataVersionService versions = new UserDataVersionService(mongo, Duration.ofMinutes(1));
+
+        long first = versions.reserveChanges(USER, 2);
+        long second = versions.reserveChanges(USER, 1);
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isEqualTo(3);
+
+        versions.bump(USER, second);
+        assertThat(versions.committedChangeSequence(USER)).isZero();
+        assertThat(versions.currentVersion(USER)).isEqualTo(1);
+
+        versions.bump(USER, first);
+        assertThat(versions.committedChangeSequence(USER)).isEqualTo(3);
+    }
+
+    @Test
+    void timedOutReservationsNoLongerHoldTheSequence() {
+        MongoTemplate mongo = EmbeddedMongo.template("user_data_version_test");
+        UserDataVersionService versions = new UserDataVersionService(mongo, Duration.ZERO);
+
+        versions.reserveChanges(USER, 1);
+        long released = versions.reserveChanges(USER, 1);
+        versions.release(USER, released);
+
+        assertThat(versions.committedChangeSequence(USER)).isEqualTo(2);
+        assertThat(mongo.findById(USER, UserDataVersion.class).getPending()).isEmpty();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,169 @@
+package com.siddesh.expensetracker.perf;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.siddesh.expensetracker.ExpensetrackerApplication;
+
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+
+/**
+ * The application booted on a random port against embedded MongoDB (or {@code -Dperf.mongodb-uri}),
+ * with an HTTP client and a count of the Mongo commands the application sends. Shared by the
+ * performance harnesses in this package; flapdoodle caches the mongod download under
+ * {@code ~/.embedmongo}, so runs after the first work offline.
+ */
+final class AppUnderTest implements AutoCloseable {
+
+    static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private final ConfigurableApplicationContext context;
+    private final Map<String, LongAdder> mongoCommands;
+    private final HttpClient client;
+    private final String baseUrl;
+
+    private AppUnderTest(TransitionWalker.ReachedState<RunningMongodProcess> mongod,
+                         ConfigurableApplicationContext context,
+                         Map<String, LongAdder> mongoCommands) {
+        this.mongod = mongod;
+        this.context = context;
+        this.mongoCommands = mongoCommands;
+        this.baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    /**
+     * Starts mongod if needed and boots the application into {@code database} with the given
+     * extra properties.
+     */
+    static AppUnderTest start(String database, Map<String, String> properties) {
+        String uri = System.getProperty("perf.mongodb-uri");
+        TransitionWalker.ReachedState<RunningMongodProcess> mongod = null;
+        if (uri == null) {
+            mongod = Mongod.instance().start(Version.Main.V7_0);
+            uri = "mongodb://" + mongod.current().getServerAddress();
+        }
+
+        Map<String, Object> settings = new HashMap<>(Map.of(
+                "server.port", "0",
+                "spring.data.mongodb.uri", uri + "/" + database,
+                "jwt.secret-key", "performance-test-secret-key-for-expense-tracker",
+                "mongo.indexes.create-on-startup", "true",
+                // Every simulated user logs in from one address, often many times a minute
+                "auth.rate-limit.per-account", "0",
+                "auth.rate-limit.per-address", "0",
+                "logging.level.root", "WARN"));
+        settings.putAll(properties);
+
+        Map<String, LongAdder> commands = new ConcurrentHashMap<>();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ExpensetrackerApplication.class)
+                .properties(settings)
+                .initializers(ctx -> ctx.getBeanFactory().registerSingleton("mongoCommandCounter",
+                        (MongoClientSettingsBuilderCustomizer) builder -> builder.addCommandListener(new CommandListener() {
+                            @Override
+                            public void commandStarted(CommandStartedEvent event) {
+                                commands.computeIfAbsent(event.getCommandName(), name -> new LongAdder()).increment();
+                            }
+                        })))
+                .run();
+        return new AppUnderTest(mongod, context, commands);
+    }
+
+    /** Mongo commands sent since the last reset, by command name. */
+    Map<String, Long> mongoCommandCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        mongoCommands.forEach((name, count) -> counts.put(name, count.sum()));
+        return counts;
+    }
+
+    void resetMongoCommandCounts() {
+        mongoCommands.clear();
+    }
+
+    HttpClient client() {
+        return client;
+    }
+
+    /** Registers a user and returns their bearer token. */
+    String register(String email, String password) throws IOException, InterruptedException {
+        String body = MAPPER.writeValueAsString(Map.of(
+                "firstName", "Load", "lastName", "User", "email", email, "password", password));
+        return token(client.send(post("/api/auth/register", null, body), HttpResponse.BodyHandlers.ofString()));
+    }
+
+    String login(String email, String password) throws IOException, InterruptedException {
+        String body = MAPPER.writeValueAsString(Map.of("email", email, "password", password));
+        return token(client.send(post("/api/auth/login", null, body), HttpResponse.BodyHandlers.ofString()));
+    }
+
+    HttpRequest get(String path, String token) {
+        return request(path, token).GET().build();
+    }
+
+    HttpRequest post(String path, String token, String json) {
+        return request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    HttpRequest put(String path, String token, String json) {
+        return request(path, token)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    HttpRequest delete(String path, String token) {
+        return request(path, token).DELETE().build();
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private static String token(HttpResponse<String> response) throws IOException {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Authentication failed with HTTP " + response.statusCode());
+        }
+        JsonNode json = MAPPER.readTree(response.body());
+        return json.get("token").asText();
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        if (mongod != null) {
+            mongod.close();
+        }
+    }
+}
\ No newline at end of file
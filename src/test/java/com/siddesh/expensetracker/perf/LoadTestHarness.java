@@ -0,0 +1,294 @@
+package com.siddesh.expensetracker.perf;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * End-to-end load test: boots the application against embedded MongoDB, registers synthetic
+ * users, seeds their expenses and drives a mixed workload from concurrent clients. Prints
+ * throughput and latency percentiles per operation plus the Mongo commands issued, and writes
+ * the same to {@code target/load-test-results.json}. Run with {@code mvn -Pload-test test};
+ * tune with:
+ *
+ * <pre>
+ * -Dload.users=20 -Dload.expenses-per-user=200 -Dload.concurrency=64
+ * -Dload.duration=60s -Dload.warmup=15s
+ * -Dload.mix=list:35,get:25,create:15,update:10,delete:10,login:5
+ * -Dload.properties=spring.threads.virtual.enabled=true,jwt.token-cache.enabled=true
+ * </pre>
+ */
+class LoadTestHarness {
+
+    enum Operation { LIST, GET, CREATE, UPDATE, DELETE, LOGIN }
+
+    private static final String PASSWORD = "load-test-password";
+
+    private final int users = Integer.getInteger("load.users", 20);
+    private final int expensesPerUser = Integer.getInteger("load.expenses-per-user", 200);
+    private final int concurrency = Integer.getInteger("load.concurrency", 64);
+    private final Duration duration = Duration.parse("PT" + System.getProperty("load.duration", "60s"));
+    private final Duration warmup = Duration.parse("PT" + System.getProperty("load.warmup", "15s"));
+    private final Map<Operation, Integer> mix = parseMix(System.getProperty("load.mix",
+            "list:35,get:25,create:15,update:10,delete:10,login:5"));
+
+    @Test
+    void run() throws Exception {
+        try (AppUnderTest app = AppUnderTest.start("load_test", parseProperties(System.getProperty("load.properties", "")))) {
+            List<SyntheticUser> population = seed(app);
+
+            drive(app, population, warmup);
+            app.resetMongoCommandCounts();
+            Map<Operation, Stats> stats = drive(app, population, duration);
+            report(stats, app.mongoCommandCounts());
+        }
+    }
+
+    private List<SyntheticUser> seed(AppUnderTest app) throws Exception {
+        List<SyntheticUser> population = new ArrayList<>(users);
+        for (int u = 0; u < users; u++) {
+            String email = "load-user-" + u + "@example.com";
+            SyntheticUser user = new SyntheticUser(email, app.register(email, PASSWORD));
+            for (int offset = 0; offset < expensesPerUser; offset += 1000) {
+                List<Map<String, Object>> batch = new ArrayList<>();
+                for (int i = offset; i < Math.min(expensesPerUser, offset + 1000); i++) {
+                    batch.add(expense(i));
+                }
+                HttpResponse<String> response = app.client().send(
+                        app.post("/api/expenses/batch", user.token, AppUnderTest.MAPPER.writeValueAsString(batch)),
+                        HttpResponse.BodyHandlers.ofString());
+                for (JsonNode result : AppUnderTest.MAPPER.readTree(response.body())) {
+                    if ("CREATED".equals(result.get("status").asText())) {
+                        user.expenseIds.add(result.get("id").asLong());
+                    }
+                }
+            }
+            population.add(user);
+        }
+        return population;
+    }
+
+    private Map<Operation, Stats> drive(AppUnderTest app, List<SyntheticUser> population, Duration length)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + length.toNanos();
+        List<Map<Operation, Recorder>> perClient = new ArrayList<>();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < concurrency; c++) {
+                Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+                for (Operation operation : Operation.values()) {
+                    recorders.put(operation, new Recorder());
+                }
+                perClient.add(recorders);
+                clients.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        SyntheticUser user = population.get(random.nextInt(population.size()));
+                        Operation operation = pick(random);
+                        long start = System.nanoTime();
+                        boolean ok;
+                        try {
+                            ok = execute(app, user, operation, random);
+                        } catch (IOException | RuntimeException ex) {
+                            ok = false;
+                        }
+                        recorders.get(operation).record(System.nanoTime() - start, ok);
+                    }
+                    return null;
+                });
+            }
+        }
+
+        Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, Stats.of(perClient.stream().map(r -> r.get(operation)).toList(), length));
+        }
+        return stats;
+    }
+
+    private boolean execute(AppUnderTest app, SyntheticUser user, Operation operation, ThreadLocalRandom random)
+            throws IOException, InterruptedException {
+        HttpRequest request = switch (operation) {
+            case LIST -> app.get("/api/expenses", user.token);
+            case GET -> app.get("/api/expenses/" + user.anyExpenseId(random), user.token);
+            case CREATE -> app.post("/api/expenses", user.token,
+                    AppUnderTest.MAPPER.writeValueAsString(expense(random.nextInt(10_000))));
+            case UPDATE -> app.put("/api/expenses/" + user.anyExpenseId(random), user.token,
+                    AppUnderTest.MAPPER.writeValueAsString(expense(random.nextInt(10_000))));
+            case DELETE -> {
+                long id = user.takeExpenseId(random);
+                yield app.delete("/api/expenses/" + id, user.token);
+            }
+            case LOGIN -> null;
+        };
+
+        if (operation == Operation.LOGIN) {
+            app.login(user.email, PASSWORD);
+            return true;
+        }
+        HttpResponse<String> response = app.client().send(request, HttpResponse.BodyHandlers.ofString());
+        if (operation == Operation.CREATE && response.statusCode() == 201) {
+            user.addExpenseId(AppUnderTest.MAPPER.readTree(response.body()).get("id").asLong());
+        }
+        // Another client may have deleted the expense first
+        return response.statusCode() < 400 || response.statusCode() == 404;
+    }
+
+    private Operation pick(ThreadLocalRandom random) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int roll = random.nextInt(total);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        return Operation.LIST;
+    }
+
+    private void report(Map<Operation, Stats> stats, Map<String, Long> mongoCommands) throws IOException {
+        long totalRequests = stats.values().stream().mapToLong(Stats::count).sum();
+        System.out.printf("%nusers=%d expenses/user=%d concurrency=%d duration=%s%n",
+                users, expensesPerUser, concurrency, duration);
+        System.out.printf("%-8s %9s %10s %9s %9s %9s %9s %7s%n",
+                "op", "count", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "errors");
+        stats.forEach((operation, s) -> System.out.printf("%-8s %9d %10.1f %9.2f %9.2f %9.2f %9.2f %7d%n",
+                operation, s.count(), s.throughput(), s.p50(), s.p95(), s.p99(), s.max(), s.errors()));
+        System.out.printf("total    %9d %10.1f%n", totalRequests, totalRequests / (double) duration.toSeconds());
+
+        long totalCommands = mongoCommands.values().stream().mapToLong(Long::longValue).sum();
+        System.out.printf("%nmongo commands: %d (%.2f per request)%n", totalCommands,
+                totalRequests == 0 ? 0 : totalCommands / (double) totalRequests);
+        mongoCommands.forEach((name, count) -> System.out.printf("  %-16s %9d%n", name, count));
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("users", users);
+        results.put("expensesPerUser", expensesPerUser);
+        results.put("concurrency", concurrency);
+        results.put("durationSeconds", duration.toSeconds());
+        results.put("operations", stats);
+        results.put("mongoCommands", mongoCommands);
+        File output = new File("target/load-test-results.json");
+        AppUnderTest.MAPPER.writerWithDefaultPrettyPrinter().writeValue(output, results);
+        System.out.println("\nResults written to " + output.getPath());
+    }
+
+    private static Map<String, Object> expense(int i) {
+        return Map.of(
+                "description", "Expense " + i,
+                "amount", (1 + i % 200) + ".25",
+                "date", "2024-%02d-%02d".formatted(1 + i % 12, 1 + i % 28),
+                "category", "Category " + i % 8);
+    }
+
+    private static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split(":");
+            mix.put(Operation.valueOf(pair[0].trim().toUpperCase()), Integer.parseInt(pair[1].trim()));
+        }
+        return mix;
+    }
+
+    private static Map<String, String> parseProperties(String spec) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            int eq = part.indexOf('=');
+            if (eq > 0) {
+                properties.put(part.substring(0, eq).trim(), part.substring(eq + 1).trim());
+            }
+        }
+        return properties;
+    }
+
+    private static final class SyntheticUser {
+
+        private final String email;
+        private final String token;
+        private final List<Long> expenseIds = new ArrayList<>();
+
+        private SyntheticUser(String email, String token) {
+            this.email = email;
+            this.token = token;
+        }
+
+        // Falls back to an id that doesn't exist once every expense has been deleted
+        synchronized long anyExpenseId(ThreadLocalRandom random) {
+            return expenseIds.isEmpty() ? -1 : expenseIds.get(random.nextInt(expenseIds.size()));
+        }
+
+        synchronized long takeExpenseId(ThreadLocalRandom random) {
+            if (expenseIds.isEmpty()) {
+                return -1;
+            }
+            int index = random.nextInt(expenseIds.size());
+            long id = expenseIds.get(index);
+            expenseIds.set(index, expenseIds.get(expenseIds.size() - 1));
+            expenseIds.remove(expenseIds.size() - 1);
+            return id;
+        }
+
+        synchronized void addExpenseId(long id) {
+            expenseIds.add(id);
+        }
+    }
+
+    // Per client and operation, so recording needs no synchronization
+    private static final class Recorder {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        void record(long nanos, boolean ok) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+    }
+
+    record Stats(long count, double throughput, double p50, double p95, double p99, double max, long errors) {
+
+        static Stats of(List<Recorder> recorders, Duration length) {
+            int total = recorders.stream().mapToInt(r -> r.count).sum();
+            long[] all = new long[total];
+            int offset = 0;
+            long errors = 0;
+            for (Recorder recorder : recorders) {
+                System.arraycopy(recorder.latencies, 0, all, offset, recorder.count);
+                offset += recorder.count;
+                errors += recorder.errors;
+            }
+            Arrays.sort(all);
+            return new Stats(total, total / (double) length.toSeconds(),
+                    percentile(all, 0.50), percentile(all, 0.95), percentile(all, 0.99),
+                    total == 0 ? 0 : all[total - 1] / 1_000_000.0, errors);
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)] / 1_000_000.0;
+        }
+    }
+}
\ No newline at end of file
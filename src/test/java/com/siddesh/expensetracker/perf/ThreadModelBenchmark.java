@@ -0,0 +1,143 @@
+package com.siddesh.expensetracker.perf;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Compares request throughput and latency with Tomcat on platform threads versus virtual
+ * threads, against embedded MongoDB. Not part of the regular build (the class name doesn't
+ * match Surefire's includes); run it explicitly:
+ *
+ * <pre>
+ * mvn test -Dtest=ThreadModelBenchmark -Dbenchmark.concurrency=1000 -Dbenchmark.duration=30s
+ * </pre>
+ *
+ * Set {@code -Dperf.mongodb-uri=...} to use an existing server instead, e.g. one with
+ * artificial latency in front of it.
+ */
+class ThreadModelBenchmark {
+
+    private final int concurrency = Integer.getInteger("benchmark.concurrency", 1000);
+    private final Duration duration = Duration.parse("PT" + System.getProperty("benchmark.duration", "30s"));
+    private final Duration warmup = Duration.parse("PT" + System.getProperty("benchmark.warmup", "10s"));
+    private final int seedExpenses = Integer.getInteger("benchmark.seed-expenses", 500);
+
+    @Test
+    void compareThreadModels() throws Exception {
+        report(run(false), run(true));
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        String database = "benchmark_" + (virtualThreads ? "virtual" : "platform");
+        try (AppUnderTest app = AppUnderTest.start(database, Map.of(
+                "spring.threads.virtual.enabled", String.valueOf(virtualThreads),
+                "mongo.pool.max-size", System.getProperty("benchmark.pool-size", "100"),
+                "mongo.pool.max-wait-time", "30s"))) {
+            String token = app.register("bench@example.com", "benchmark");
+            List<Map<String, Object>> expenses = new ArrayList<>();
+            for (int i = 0; i < seedExpenses; i++) {
+                expenses.add(expense(i));
+            }
+            app.client().send(app.post("/api/expenses/batch", token, AppUnderTest.MAPPER.writeValueAsString(expenses)),
+                    HttpResponse.BodyHandlers.discarding());
+
+            drive(app, token, warmup);
+            Result result = drive(app, token, duration);
+            return result.named(virtualThreads ? "virtual threads" : "platform threads");
+        }
+    }
+
+    // Mostly keyset page reads with some creates, from `concurrency` clients in a closed loop
+    private Result drive(AppUnderTest app, String token, Duration length) throws Exception {
+        HttpClient client = app.client();
+        long deadline = System.nanoTime() + length.toNanos();
+        AtomicLong errors = new AtomicLong();
+        // One shared histogram, so memory stays bounded however many clients and requests there are.
+        // The window outlasts the run, so no samples rotate out before the snapshot.
+        Timer latencies = Timer.builder("benchmark.request")
+                .publishPercentiles(0.50, 0.99, 0.999)
+                .percentilePrecision(3)
+                .distributionStatisticExpiry(length.plusMinutes(1))
+                .distributionStatisticBufferLength(1)
+                .register(new SimpleMeterRegistry());
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < concurrency; c++) {
+                clients.submit(() -> {
+                    int n = 0;
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = ThreadLocalRandom.current().nextInt(10) == 0
+                                ? app.post("/api/expenses", token, AppUnderTest.MAPPER.writeValueAsString(expense(n)))
+                                : app.get("/api/expenses/page?size=20", token);
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception ex) {
+                            errors.incrementAndGet();
+                        }
+                        latencies.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        n++;
+                    }
+                    return null;
+                });
+            }
+        }
+
+        HistogramSnapshot snapshot = latencies.takeSnapshot();
+        return new Result(null, snapshot.count() / (double) length.toSeconds(), percentile(snapshot, 0.50),
+                percentile(snapshot, 0.99), percentile(snapshot, 0.999), errors.get());
+    }
+
+    private static Map<String, Object> expense(int i) {
+        return Map.of(
+                "description", "Expense " + i,
+                "amount", String.valueOf(1 + i % 200) + ".25",
+                "date", "2024-%02d-%02d".formatted(1 + i % 12, 1 + i % 28),
+                "category", "Category " + i % 8);
+    }
+
+    private static double percentile(HistogramSnapshot snapshot, double p) {
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            if (value.percentile() == p) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return 0;
+    }
+
+    private void report(Result platform, Result virtual) {
+        System.out.printf("%nconcurrency=%d duration=%s%n", concurrency, duration);
+        System.out.printf("%-18s %12s %10s %10s %10s %8s%n", "mode", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "errors");
+        for (Result result : List.of(platform, virtual)) {
+            System.out.printf("%-18s %12.1f %10.2f %10.2f %10.2f %8d%n",
+                    result.name(), result.throughput(), result.p50(), result.p99(), result.p999(), result.errors());
+        }
+    }
+
+    private record Result(String name, double throughput, double p50, double p99, double p999, long errors) {
+
+        Result named(String name) {
+            return new Result(name, throughput, p50, p99, p999, errors);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.siddesh.expensetracker.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.siddesh.expensetracker.mongo.document.CategoryDocument;
+import com.siddesh.expensetracker.mongo.service.SequenceGeneratorService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CategoryDictionaryTest {
+
+    private static final Long USER = 2L;
+
+    private MongoOperations mongo;
+    private SequenceGeneratorService sequences;
+    private CategoryDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        mongo = mock(MongoOperations.class);
+        sequences = mock(SequenceGeneratorService.class);
+        dictionary = new CategoryDictionary(mongo, sequences, new SimpleMeterRegistry(), 100);
+    }
+
+    @Test
+    void suggestionsMatchThePrefixLiterally() {
+        when(mongo.find(any(Query.class), eq(CategoryDocument.class)))
+                .thenReturn(List.of(new CategoryDocument(3L, USER, "C++ (Books)", "c++ (books)")));
+
+        assertThat(dictionary.suggest(USER, " C++ (", 5)).containsExactly("C++ (Books)");
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongo).find(query.capture(), eq(CategoryDocument.class));
+        Pattern prefix = (Pattern) query.getValue().getQueryObject().get("nameKey");
+        assertThat(prefix.pattern()).isEqualTo("^c\\+\\+ \\(");
+        assertThat(prefix.matcher("c++ (books)").find()).isTrue();
+        assertThat(prefix.matcher("cpp (books)").find()).isFalse();
+        assertThat(query.getValue().getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void findingAnUnknownCategoryDoesNotCreateIt() {
+        assertThat(dictionary.findId(USER, "Nope")).isEqualTo(Optional.empty());
+
+        verify(sequences, never()).getNextSequence(anyString());
+        verify(mongo, never()).insert(any(CategoryDocument.class));
+    }
+
+    @Test
+    void eachNameIsAddedOnceAndThenServedFromMemory() {
+        when(sequences.getNextSequence(CategoryDictionary.CATEGORY_SEQUENCE)).thenReturn(7L);
+        when(mongo.insert(any(CategoryDocument.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertThat(dictionary.idOf(USER, "Food")).isEqualTo(7L);
+        assertThat(dictionary.idOf(USER, "Food")).isEqualTo(7L);
+        assertThat(dictionary.findId(USER, "Food")).contains(7L);
+        assertThat(dictionary.nameOf(7L)).isEqualTo("Food");
+
+        verify(mongo).insert(any(CategoryDocument.class));
+        verify(mongo, never()).findById(any(), eq(CategoryDocument.class));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,121 @@
+package com.siddesh.expensetracker.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.scheduling.TaskScheduler;
+
+import com.siddesh.expensetracker.mongo.config.MongoIndexInitializer;
+import com.siddesh.expensetracker.mongo.document.ExpenseDocument;
+import com.siddesh.expensetracker.mongo.document.MigrationState;
+
+class ExpenseCategoryMigrationTest {
+
+    private MongoOperations mongo;
+    private BulkOperations bulk;
+    private IndexOperations indexes;
+    private MongoIndexInitializer indexInitializer;
+    private ExpenseCategoryMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        mongo = mock(MongoOperations.class);
+        bulk = mock(BulkOperations.class);
+        indexes = mock(IndexOperations.class);
+        indexInitializer = mock(MongoIndexInitializer.class);
+        CategoryDictionary dictionary = mock(CategoryDictionary.class);
+        when(dictionary.idOf(1L, "Food")).thenReturn(11L);
+        when(dictionary.idOf(2L, "Travel")).thenReturn(12L);
+        when(mongo.bulkOps(BulkOperations.BulkMode.UNORDERED, ExpenseDocument.class)).thenReturn(bulk);
+        when(mongo.indexOps(ExpenseDocument.class)).thenReturn(indexes);
+        migration = new ExpenseCategoryMigration(mongo, dictionary, indexInitializer, mock(TaskScheduler.class),
+                true, 2, Duration.ZERO);
+    }
+
+    @Test
+    void updatesOnlyApplyWhileTheExpenseStillHasTheNameThatWasRead() {
+        when(mongo.find(any(Query.class), eq(ExpenseDocument.class)))
+                .thenReturn(List.of(legacy("a", 1L, "Food"), legacy("b", 2L, "Travel")), List.of());
+
+        migration.migrate();
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bulk, times(2)).updateOne(queries.capture(), updates.capture());
+        assertThat(queries.getAllValues().get(0).getQueryObject()).containsEntry("id", "a").containsEntry("category", "Food");
+        Document update = updates.getAllValues().get(1).getUpdateObject();
+        assertThat(update.get("$set", Document.class)).containsEntry("categoryId", 12L);
+        assertThat(update.get("$unset", Document.class)).containsKey("category");
+        verify(bulk).execute();
+    }
+
+    @Test
+    void progressIsSavedAfterEachBatchAndTheScanRestartsForLateWrites() {
+        when(mongo.find(any(Query.class), eq(ExpenseDocument.class)))
+                .thenReturn(List.of(legacy("a", 1L, "Food"), legacy("b", 1L, "Food")), List.of(), List.of(), List.of());
+        when(mongo.exists(any(Query.class), eq(ExpenseDocument.class))).thenReturn(true, false);
+
+        migration.migrate();
+
+        ArgumentCaptor<UpdateDefinition> saved = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongo, times(2)).upsert(any(Query.class), saved.capture(), eq(MigrationState.class));
+        assertThat(saved.getAllValues().get(0).getUpdateObject().get("$set", Document.class)).containsEntry("lastId", "b");
+        assertThat(saved.getAllValues().get(1).getUpdateObject().get("$set", Document.class)).containsKey("completedAt");
+
+        ArgumentCaptor<Query> scans = ArgumentCaptor.forClass(Query.class);
+        verify(mongo, times(3)).find(scans.capture(), eq(ExpenseDocument.class));
+        assertThat(scans.getAllValues().get(1).getQueryObject()).containsKey("id");
+        assertThat(scans.getAllValues().get(2).getQueryObject()).doesNotContainKey("id");
+    }
+
+    @Test
+    void finishingDropsTheLegacyIndexesThatExistAndCreatesTheNewOnes() {
+        IndexInfo legacyText = mock(IndexInfo.class);
+        when(legacyText.getName()).thenReturn("user_text");
+        IndexInfo current = mock(IndexInfo.class);
+        when(current.getName()).thenReturn("user_date_expense");
+        when(indexes.getIndexInfo()).thenReturn(List.of(legacyText, current));
+
+        migration.migrate();
+
+        verify(indexes).dropIndex("user_text");
+        verify(indexes, never()).dropIndex("user_category_date");
+        verify(indexInitializer).createIndexes(ExpenseDocument.class);
+        assertThat(migration.isComplete()).isTrue();
+    }
+
+    @Test
+    void completedMigrationDoesNothing() {
+        when(mongo.exists(any(Query.class), eq(MigrationState.class))).thenReturn(true);
+
+        migration.migrate();
+
+        verify(mongo, never()).find(any(Query.class), eq(ExpenseDocument.class));
+        verifyNoInteractions(bulk, indexes, indexInitializer);
+    }
+
+    private static ExpenseDocument legacy(String id, Long userId, String category) {
+        return ExpenseDocument.builder().id(id).userId(userId).expenseId(1L).category(category).build();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.siddesh.expensetracker.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+class ExpenseCursorTest {
+
+    @Test
+    void datedCursorRoundTrips() {
+        ExpenseCursor cursor = new ExpenseCursor(LocalDate.of(2024, 2, 29), 123_456_789L);
+
+        String token = cursor.encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+        assertThat(ExpenseCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void undatedCursorRoundTrips() {
+        ExpenseCursor cursor = new ExpenseCursor(null, 42L);
+
+        assertThat(ExpenseCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        assertThatThrownBy(() -> ExpenseCursor.decode("not base64!")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ExpenseCursor.decode(encoded("2024-01-01"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ExpenseCursor.decode(encoded("yesterday:1"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ExpenseCursor.decode(encoded("2024-01-01:x"))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String encoded(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
\ No newline at end of file
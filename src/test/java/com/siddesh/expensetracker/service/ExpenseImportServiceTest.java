@@ -0,0 +1,167 @@
+package com.siddesh.expensetracker.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import com.siddesh.expensetracker.dto.BatchItemResult;
+import com.siddesh.expensetracker.dto.ImportJobStatus;
+import com.siddesh.expensetracker.entity.Expense;
+import com.siddesh.expensetracker.mongo.document.ImportJobDocument;
+import com.siddesh.expensetracker.mongo.document.ImportJobDocument.Status;
+
+class ExpenseImportServiceTest {
+
+    private static final Long USER = 3L;
+    private static final String CSV = """
+            date,amount,description
+            2024-03-01,1.00,One
+            2024-03-02,2.00,Two
+            2024-03-03,3.00,Three
+            """;
+
+    private ExpenseService expenseService;
+    private MongoOperations mongo;
+    private ExpenseImportService imports;
+    private final List<List<Expense>> written = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        expenseService = mock(ExpenseService.class);
+        mongo = mock(MongoOperations.class);
+        imports = new ExpenseImportService(expenseService, mongo, 2, 1000, 100, Duration.ofMinutes(5));
+
+        when(mongo.insert(any(ImportJobDocument.class))).thenAnswer(invocation -> {
+            ImportJobDocument job = invocation.getArgument(0);
+            job.setId("job-1");
+            return job;
+        });
+        when(mongo.findAndReplace(any(Query.class), any(ImportJobDocument.class)))
+                .thenAnswer(invocation -> invocation.getArgument(1));
+        when(expenseService.reserveExpenseIds(anyInt())).thenReturn(100L);
+        when(expenseService.createExpenses(anyList(), eq(USER), anyLong())).thenAnswer(invocation -> {
+            List<Expense> expenses = invocation.getArgument(0);
+            long firstId = invocation.getArgument(2);
+            written.add(expenses);
+            List<BatchItemResult> results = new ArrayList<>();
+            for (int i = 0; i < expenses.size(); i++) {
+                results.add(BatchItemResult.of(i, firstId + i, BatchItemResult.Status.CREATED));
+            }
+            return results;
+        });
+    }
+
+    @Test
+    void importsInBatchesAndCompletes() {
+        ImportJobStatus status = imports.importStatement(input(CSV), "csv", null, USER);
+
+        assertThat(status.status()).isEqualTo(Status.COMPLETED);
+        assertThat(status.rowsImported()).isEqualTo(3);
+        assertThat(status.committedRows()).isEqualTo(3);
+        assertThat(written).extracting(List::size).containsExactly(2, 1);
+    }
+
+    @Test
+    void resumeDiscardsTheUnfinishedBatchAndSkipsCommittedRows() {
+        ImportJobDocument failed = job(Status.FAILED);
+        failed.setCommittedRows(1);
+        failed.setRowsRead(1);
+        failed.setRowsImported(1);
+        failed.setPendingFirstId(50);
+        failed.setPendingCount(2);
+        claimable(failed);
+        when(expenseService.deleteExpenses(List.of(50L, 51L), USER)).thenReturn(List.of(
+                BatchItemResult.of(0, 50L, BatchItemResult.Status.DELETED),
+                BatchItemResult.of(1, 51L, BatchItemResult.Status.NOT_FOUND)));
+
+        ImportJobStatus status = imports.importStatement(input(CSV), "csv", "job-1", USER);
+
+        verify(expenseService).deleteExpenses(List.of(50L, 51L), USER);
+        assertThat(status.status()).isEqualTo(Status.COMPLETED);
+        assertThat(status.rowsImported()).isEqualTo(3);
+        assertThat(written).hasSize(1);
+        assertThat(written.get(0)).extracting(Expense::getDescription).containsExactly("Two", "Three");
+    }
+
+    @Test
+    void failsTheResumeWhenTheUnfinishedBatchCannotBeDiscarded() {
+        ImportJobDocument failed = job(Status.FAILED);
+        failed.setPendingFirstId(50);
+        failed.setPendingCount(1);
+        claimable(failed);
+        when(expenseService.deleteExpenses(List.of(50L), USER)).thenReturn(List.of(
+                new BatchItemResult(0, 50L, BatchItemResult.Status.FAILED, "timeout")));
+
+        ImportJobStatus status = imports.importStatement(input(CSV), "csv", "job-1", USER);
+
+        assertThat(status.status()).isEqualTo(Status.FAILED);
+        verify(expenseService, never()).createExpenses(anyList(), any(), anyLong());
+    }
+
+    @Test
+    void refusesAJobAnotherUploadHolds() {
+        when(mongo.findOne(any(Query.class), eq(ImportJobDocument.class))).thenReturn(job(Status.RUNNING));
+
+        assertThatThrownBy(() -> imports.importStatement(input(CSV), "csv", "job-1", USER))
+                .isInstanceOf(IllegalStateException.class);
+        verify(expenseService, never()).createExpenses(anyList(), any(), anyLong());
+    }
+
+    @Test
+    void stopsWritingOnceTheLeaseIsLost() {
+        when(mongo.findAndReplace(any(Query.class), any(ImportJobDocument.class))).thenReturn(null);
+
+        assertThatThrownBy(() -> imports.importStatement(input(CSV), "csv", null, USER))
+                .isInstanceOf(IllegalStateException.class);
+        verify(expenseService, never()).createExpenses(anyList(), any(), anyLong());
+    }
+
+    @Test
+    void createdJobsArePendingUntilTheirUpload() {
+        ImportJobStatus created = imports.createJob("CSV", USER);
+
+        assertThat(created.jobId()).isEqualTo("job-1");
+        assertThat(created.status()).isEqualTo(Status.PENDING);
+        assertThatThrownBy(() -> imports.createJob("xlsx", USER)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void claimable(ImportJobDocument job) {
+        when(mongo.findOne(any(Query.class), eq(ImportJobDocument.class))).thenReturn(job);
+        when(mongo.findAndModify(any(Query.class), any(UpdateDefinition.class), any(FindAndModifyOptions.class),
+                eq(ImportJobDocument.class))).thenAnswer(invocation -> {
+                    job.setStatus(Status.RUNNING);
+                    job.setLeaseOwner("upload-2");
+                    return job;
+                });
+    }
+
+    private static ImportJobDocument job(Status status) {
+        return ImportJobDocument.builder().id("job-1").userId(USER).format("csv").status(status).build();
+    }
+
+    private static InputStream input(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,173 @@
+package com.siddesh.expensetracker.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.data.mongodb.gridfs.GridFsOperations;
+import org.springframework.scheduling.TaskScheduler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.result.UpdateResult;
+import com.siddesh.expensetracker.dto.ReportJobStatus;
+import com.siddesh.expensetracker.dto.ReportRequest;
+import com.siddesh.expensetracker.mongo.document.ReportJobDocument;
+import com.siddesh.expensetracker.mongo.document.ReportJobDocument.Format;
+import com.siddesh.expensetracker.mongo.document.ReportJobDocument.Grouping;
+import com.siddesh.expensetracker.mongo.document.ReportJobDocument.Status;
+import com.siddesh.expensetracker.mongo.service.UserDataVersionService;
+
+class ExpenseReportServiceTest {
+
+    private static final Long USER = 6L;
+    private static final ReportRequest REQUEST = new ReportRequest(LocalDate.of(2024, 1, 1), null, "month", "json");
+
+    private MongoOperations mongo;
+    private GridFsOperations gridFs;
+    private ExpenseService expenses;
+    private ExpenseReportService reports;
+
+    @BeforeEach
+    void setUp() {
+        mongo = mock(MongoOperations.class);
+        gridFs = mock(GridFsOperations.class);
+        expenses = mock(ExpenseService.class);
+        UserDataVersionService versions = mock(UserDataVersionService.class);
+        when(versions.currentVersion(USER)).thenReturn(7L);
+        when(mongo.insert(any(ReportJobDocument.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        reports = new ExpenseReportService(mongo, gridFs, expenses, versions, new ObjectMapper().findAndRegisterModules(),
+                mock(TaskScheduler.class), 1, Duration.ofMinutes(1), Duration.ofSeconds(10), Duration.ofDays(7), 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reports.close();
+    }
+
+    @Test
+    void jobsAreKeyedByTheirParametersAndTheDataVersion() {
+        ReportJobStatus status = reports.submit(USER, REQUEST);
+
+        ArgumentCaptor<ReportJobDocument> inserted = ArgumentCaptor.forClass(ReportJobDocument.class);
+        verify(mongo).insert(inserted.capture());
+        assertThat(inserted.getValue().getParamsKey()).isEqualTo("MONTH:JSON:2024-01-01:null:7");
+        assertThat(status.status()).isEqualTo(Status.QUEUED);
+    }
+
+    @Test
+    void repeatedRequestReturnsTheExistingJob() {
+        ReportJobDocument existing = job(Status.COMPLETED);
+        when(mongo.findOne(any(Query.class), eq(ReportJobDocument.class))).thenReturn(existing);
+
+        ReportJobStatus status = reports.submit(USER, REQUEST);
+
+        assertThat(status.jobId()).isEqualTo(existing.getId());
+        verify(mongo, never()).insert(any(ReportJobDocument.class));
+    }
+
+    @Test
+    void concurrentSubmissionsShareOneJob() {
+        ReportJobDocument winner = job(Status.QUEUED);
+        when(mongo.findOne(any(Query.class), eq(ReportJobDocument.class))).thenReturn(null, winner);
+        when(mongo.insert(any(ReportJobDocument.class))).thenThrow(new DuplicateKeyException("params_key"));
+
+        assertThat(reports.submit(USER, REQUEST).jobId()).isEqualTo(winner.getId());
+    }
+
+    @Test
+    void claimsTakeQueuedJobsAndExpiredLeasesWithAttemptsLeft() {
+        reports.submit(USER, REQUEST);
+
+        ArgumentCaptor<Query> claim = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongo).findAndModify(claim.capture(), update.capture(), any(FindAndModifyOptions.class), eq(ReportJobDocument.class));
+        Document query = claim.getValue().getQueryObject();
+        assertThat(query.toString()).contains("status=QUEUED", "status=RUNNING", "leaseExpiresAt");
+        assertThat(query.get("attempts", Document.class)).containsEntry("$lt", 3);
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertThat(set).containsEntry("status", Status.RUNNING).containsKey("leaseOwner");
+        assertThat(update.getValue().getUpdateObject().get("$inc", Document.class)).containsEntry("attempts", 1);
+    }
+
+    @Test
+    void resultOfAJobWhoseLeaseWasLostIsDiscarded() {
+        ReportJobDocument claimed = job(Status.RUNNING);
+        when(mongo.findAndModify(any(Query.class), any(UpdateDefinition.class), any(FindAndModifyOptions.class), eq(ReportJobDocument.class)))
+                .thenReturn(claimed, (ReportJobDocument) null);
+        when(expenses.streamExpenses(USER, claimed.getFrom(), claimed.getTo())).thenReturn(Stream.empty());
+        ObjectId fileId = new ObjectId();
+        when(gridFs.store(any(InputStream.class), anyString(), anyString(), any(Document.class))).thenReturn(fileId);
+        when(mongo.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(ReportJobDocument.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        reports.submit(USER, REQUEST);
+
+        ArgumentCaptor<Query> deleted = ArgumentCaptor.forClass(Query.class);
+        verify(gridFs, timeout(5000)).delete(deleted.capture());
+        assertThat(deleted.getValue().getQueryObject().toJson()).contains(fileId.toHexString());
+    }
+
+    @Test
+    void jobInterruptedByShutdownIsHandedBackWithoutCountingTheAttempt() throws InterruptedException {
+        ReportJobDocument claimed = job(Status.RUNNING);
+        when(mongo.findAndModify(any(Query.class), any(UpdateDefinition.class), any(FindAndModifyOptions.class), eq(ReportJobDocument.class)))
+                .thenReturn(claimed, (ReportJobDocument) null);
+        CountDownLatch started = new CountDownLatch(1);
+        when(expenses.streamExpenses(USER, claimed.getFrom(), claimed.getTo())).thenAnswer(invocation -> {
+            started.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException ex) {
+                // Like the Mongo driver: the interrupt surfaces as a runtime exception with the flag cleared
+                throw new IllegalStateException("Interrupted while reading", ex);
+            }
+            return Stream.empty();
+        });
+        reports.submit(USER, REQUEST);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        reports.close();
+
+        verify(mongo).updateMulti(any(Query.class), any(UpdateDefinition.class), eq(ReportJobDocument.class));
+        verify(mongo, after(500).never()).updateFirst(any(Query.class), any(UpdateDefinition.class), eq(ReportJobDocument.class));
+    }
+
+    private static ReportJobDocument job(Status status) {
+        return ReportJobDocument.builder()
+                .id("job-1")
+                .userId(USER)
+                .paramsKey("MONTH:JSON:2024-01-01:null:7")
+                .from(LocalDate.of(2024, 1, 1))
+                .grouping(Grouping.MONTH)
+                .format(Format.JSON)
+                .status(status)
+                .attempts(status == Status.RUNNING ? 1 : 0)
+                .build();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,115 @@
+package com.siddesh.expensetracker.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.siddesh.expensetracker.EmbeddedMongo;
+import com.siddesh.expensetracker.dto.CategoryTotal;
+import com.siddesh.expensetracker.dto.PeriodTotal;
+import com.siddesh.expensetracker.mongo.document.ExpenseDocument;
+import com.siddesh.expensetracker.mongo.document.ExpenseRollupDocument;
+import com.siddesh.expensetracker.mongo.service.SequenceGeneratorService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ExpenseRollupServiceTest {
+
+    private static final Long USER = 1L;
+
+    private MongoTemplate mongo;
+    private CategoryDictionary dictionary;
+    private ExpenseRollupService rollups;
+
+    @BeforeEach
+    void setUp() {
+        mongo = EmbeddedMongo.template("rollup_test");
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        dictionary = new CategoryDictionary(mongo, new SequenceGeneratorService(mongo, registry, 10), registry, 100);
+        rollups = new ExpenseRollupService(mongo, dictionary);
+    }
+
+    @Test
+    void incrementalRecordsMatchARebuild() {
+        ExpenseDocument lunch = save(1L, "12.50", "2024-03-02", "Food");
+        ExpenseDocument dinner = save(2L, "30.00", "2024-03-20", "Food");
+        ExpenseDocument train = save(3L, "7.25", "2024-04-01", "Travel");
+        rollups.record(List.of(), List.of(lunch, dinner, train));
+
+        ExpenseDocument movedDinner = dinner.toBuilder().amount(new BigDecimal("35.00")).date(LocalDate.parse("2024-04-03")).build();
+        mongo.save(movedDinner);
+        rollups.recordUpdated(dinner, movedDinner);
+        mongo.remove(train);
+        rollups.recordDeleted(train);
+
+        List<CategoryTotal> byCategory = rollups.totalsByCategory(USER, null, null);
+        List<PeriodTotal> byMonth = rollups.totalsByMonth(USER, null, null);
+        assertThat(byCategory).containsExactly(new CategoryTotal("Food", new BigDecimal("47.50"), 2));
+        assertThat(byMonth).containsExactly(
+                new PeriodTotal("2024-03", new BigDecimal("12.50"), 1),
+                new PeriodTotal("2024-04", new BigDecimal("35.00"), 1));
+        assertThat(bucketIds()).containsExactlyInAnyOrder("1:2024-03:Food", "1:2024-04:Food");
+
+        rollups.rebuild(USER);
+
+        assertThat(rollups.totalsByCategory(USER, null, null)).isEqualTo(byCategory);
+        assertThat(rollups.totalsByMonth(USER, null, null)).isEqualTo(byMonth);
+    }
+
+    @Test
+    void rebuildRepairsDriftedBucketsInPlaceAndRemovesStaleOnes() {
+        ExpenseDocument lunch = save(1L, "12.50", "2024-03-02", "Food");
+        rollups.recordCreated(lunch);
+        ExpenseDocument ghost = ExpenseDocument.builder().expenseId(9L).userId(USER)
+                .amount(new BigDecimal("99")).date(LocalDate.parse("2024-01-01")).category("Gone").build();
+        rollups.recordCreated(ghost);
+        mongo.updateFirst(Query.query(Criteria.where("_id").is("1:2024-03:Food")),
+                new Update().inc("count", 5), ExpenseRollupDocument.class);
+        ExpenseRollupDocument otherUser = ExpenseRollupDocument.builder().id("2:2024-03:Food").userId(2L)
+                .month("2024-03").category("Food").total(BigDecimal.ONE).count(1).build();
+        mongo.insert(otherUser);
+
+        rollups.rebuild(USER);
+
+        assertThat(bucketIds()).containsExactlyInAnyOrder("1:2024-03:Food", "2:2024-03:Food");
+        assertThat(rollups.totalsByMonth(USER, YearMonth.of(2024, 3), YearMonth.of(2024, 3)))
+                .containsExactly(new PeriodTotal("2024-03", new BigDecimal("12.50"), 1));
+    }
+
+    @Test
+    void rebuildMergesMigratedAndLegacyExpensesOfOneCategory() {
+        save(1L, "10", "2024-03-02", "Food");
+        ExpenseDocument migrated = ExpenseDocument.builder().expenseId(2L).userId(USER).amount(new BigDecimal("5"))
+                .date(LocalDate.parse("2024-03-05")).categoryId(dictionary.idOf(USER, "Food")).build();
+        mongo.insert(migrated);
+
+        rollups.rebuild(USER);
+
+        assertThat(rollups.totalsByCategory(USER, null, null))
+                .containsExactly(new CategoryTotal("Food", new BigDecimal("15"), 2));
+    }
+
+    private ExpenseDocument save(Long expenseId, String amount, String date, String category) {
+        return mongo.insert(ExpenseDocument.builder()
+                .expenseId(expenseId)
+                .userId(USER)
+                .amount(new BigDecimal(amount))
+                .date(LocalDate.parse(date))
+                .category(category)
+                .build());
+    }
+
+    private List<String> bucketIds() {
+        return mongo.findAll(ExpenseRollupDocument.class).stream().map(ExpenseRollupDocument::getId).toList();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,152 @@
+package com.siddesh.expensetracker.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.siddesh.expensetracker.dto.ExpenseSearchRequest;
+import com.siddesh.expensetracker.dto.ExpenseSearchResult;
+import com.siddesh.expensetracker.mongo.document.ExpenseDocument;
+
+class ExpenseSearchServiceTest {
+
+    private static final Long USER = 2L;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_RESULTS = 200;
+
+    private MongoOperations mongo;
+    private CategoryDictionary dictionary;
+    private ExpenseCategoryMigration migration;
+    private ExpenseSearchService search;
+
+    @BeforeEach
+    void setUp() {
+        mongo = mock(MongoOperations.class);
+        dictionary = mock(CategoryDictionary.class);
+        migration = mock(ExpenseCategoryMigration.class);
+        search = new ExpenseSearchService(mongo, dictionary, migration, 20, MAX_PAGE_SIZE, MAX_RESULTS);
+        returning(0);
+    }
+
+    @Test
+    void refusesPagesBeyondMaxResults() {
+        assertThatThrownBy(() -> search.search(USER, request(null, null, 4, 50)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> search.search(USER, request(null, null, -1, 50)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        search.search(USER, request(null, null, 3, 50));
+        assertThat(searchedQuery().getSkip()).isEqualTo(150);
+    }
+
+    @Test
+    void reportsMorePagesOnlyUpToMaxResults() {
+        returning(51);
+
+        ExpenseSearchResult first = search.search(USER, request(null, null, 0, 50));
+        ExpenseSearchResult last = search.search(USER, request(null, null, 3, 50));
+
+        assertThat(first.items()).hasSize(50);
+        assertThat(first.hasMore()).isTrue();
+        assertThat(last.items()).hasSize(50);
+        assertThat(last.hasMore()).isFalse();
+    }
+
+    @Test
+    void clampsThePageSize() {
+        search.search(USER, request(null, null, 0, 10_000));
+        assertThat(searchedQuery().getLimit()).isEqualTo(MAX_PAGE_SIZE + 1);
+
+        search.search(USER, request(null, null, 0, 0));
+        assertThat(searchedQuery().getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void passesTheSearchTextAsOneTextSearchLiteral() {
+        String q = "coffee \"flat white\" -decaf {$where: 1} .*";
+
+        search.search(USER, request(q, null, null, null));
+
+        Query query = searchedQuery();
+        assertThat(query.getQueryObject().get("$text", Document.class).getString("$search")).isEqualTo(q);
+        assertThat(query.getQueryObject().get("userId")).isEqualTo(USER);
+        assertThat(query.getSortObject().keySet()).first().isEqualTo("score");
+    }
+
+    @Test
+    void matchesTheCategoryByIdOrLegacyNameExactly() {
+        when(dictionary.findId(USER, "Food.*")).thenReturn(Optional.of(4L));
+
+        search.search(USER, request(null, "Food.*", null, null));
+
+        String filter = searchedQuery().getQueryObject().toJson();
+        assertThat(filter).contains("\"categoryId\": {\"$in\": [4]}").contains("\"category\": \"Food.*\"");
+        assertThat(filter).doesNotContain("$regex");
+    }
+
+    @Test
+    void matchesOnlyIdsOnceTheMigrationIsComplete() {
+        when(migration.isComplete()).thenReturn(true);
+        when(dictionary.findId(USER, "Food")).thenReturn(Optional.of(4L));
+
+        search.search(USER, request(null, "Food", null, null));
+
+        assertThat(searchedQuery().getQueryObject().toJson()).doesNotContain("\"category\"");
+    }
+
+    @Test
+    void anUnknownCategoryMatchesNothing() {
+        when(migration.isComplete()).thenReturn(true);
+        when(dictionary.findId(USER, "Nope")).thenReturn(Optional.empty());
+
+        search.search(USER, request(null, "Nope", null, null));
+
+        assertThat(searchedQuery().getQueryObject().toJson()).contains("\"categoryId\": {\"$in\": []}");
+    }
+
+    @Test
+    void comparesAmountsAsDecimals() {
+        search.search(USER, new ExpenseSearchRequest(null, null, new BigDecimal("5"), new BigDecimal("9.99"), null, null, null, null));
+
+        List<?> bounds = searchedQuery().getQueryObject().get("$and", List.class);
+        assertThat(bounds).map(bound -> ((AggregationExpression) ((Document) bound).get("$expr")).toDocument().toJson())
+                .containsExactly(
+                        "{\"$gte\": [{\"$toDecimal\": \"$amount\"}, {\"$numberDecimal\": \"5\"}]}",
+                        "{\"$lte\": [{\"$toDecimal\": \"$amount\"}, {\"$numberDecimal\": \"9.99\"}]}");
+    }
+
+    private static ExpenseSearchRequest request(String q, String category, Integer page, Integer size) {
+        return new ExpenseSearchRequest(q, category, null, null, null, null, page, size);
+    }
+
+    private void returning(int count) {
+        List<ExpenseDocument> documents = LongStream.rangeClosed(1, count)
+                .mapToObj(id -> ExpenseDocument.builder().expenseId(id).userId(USER).build())
+                .toList();
+        when(mongo.find(any(Query.class), eq(ExpenseDocument.class))).thenReturn(documents);
+    }
+
+    private Query searchedQuery() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongo, atLeastOnce()).find(query.capture(), eq(ExpenseDocument.class));
+        return query.getValue();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,187 @@
+package com.siddesh.expensetracker.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.siddesh.expensetracker.dto.BatchItemResult;
+import com.siddesh.expensetracker.dto.BatchItemResult.Status;
+import com.siddesh.expensetracker.entity.Expense;
+import com.siddesh.expensetracker.mongo.document.ExpenseDocument;
+import com.siddesh.expensetracker.mongo.service.UserDataVersionService;
+import com.siddesh.expensetracker.service.cache.ExpenseReadCache;
+import com.siddesh.expensetracker.service.events.ExpensesChangedEvent;
+
+class ExpenseServiceImplBatchTest {
+
+    private static final Long USER = 7L;
+
+    private MongoOperations mongo;
+    private BulkOperations bulk;
+    private ExpenseRollupService rollups;
+    private ExpenseSyncService sync;
+    private ApplicationEventPublisher events;
+    private UserDataVersionService versions;
+    private ExpenseServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        mongo = mock(MongoOperations.class);
+        bulk = mock(BulkOperations.class);
+        rollups = mock(ExpenseRollupService.class);
+        sync = mock(ExpenseSyncService.class);
+        events = mock(ApplicationEventPublisher.class);
+        versions = mock(UserDataVersionService.class);
+        when(mongo.bulkOps(any(BulkOperations.BulkMode.class), eq(ExpenseDocument.class))).thenReturn(bulk);
+        when(sync.reserveChanges(eq(USER), anyInt())).thenReturn(100L);
+        service = new ExpenseServiceImpl(null, mongo, null, mock(CategoryDictionary.class), rollups,
+                mock(ExpenseReadCache.class), versions, sync, events, 50, 500, 0, 1000);
+    }
+
+    @Test
+    void createReportsFailedInsertsAndRecordsOnlyTheOthers() {
+        when(bulk.insert(any(List.class))).thenReturn(bulk);
+        when(bulk.execute()).thenThrow(bulkFailure(BulkWriteResult.acknowledged(2, 0, 0, 0, List.of(), List.of()), 1));
+
+        List<BatchItemResult> results = service.createExpenses(List.of(expense(null), expense(null), expense(null)), USER, 10L);
+
+        assertThat(results).extracting(BatchItemResult::status).containsExactly(Status.CREATED, Status.FAILED, Status.CREATED);
+        assertThat(results).extracting(BatchItemResult::id).containsExactly(10L, null, 12L);
+        assertThat(recordedAdded()).extracting(ExpenseDocument::getExpenseId).containsExactly(10L, 12L);
+        verify(versions).bump(USER, 100L);
+    }
+
+    @Test
+    void createThatInsertsNothingReleasesItsChangeSequences() {
+        when(bulk.insert(any(List.class))).thenReturn(bulk);
+        when(bulk.execute()).thenThrow(bulkFailure(BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of()), 0));
+
+        List<BatchItemResult> results = service.createExpenses(List.of(expense(null)), USER, 10L);
+
+        assertThat(results).extracting(BatchItemResult::status).containsExactly(Status.FAILED);
+        verify(versions).release(USER, 100L);
+        verify(versions, never()).bump(eq(USER), any(long[].class));
+    }
+
+    @Test
+    void updateStopsAtTheFirstFailureAndOnlyRecordsAppliedUpdates() {
+        stored(1L, 2L);
+        when(bulk.execute()).thenThrow(bulkFailure(BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of()), 1));
+
+        List<BatchItemResult> results = service.updateExpenses(
+                List.of(expense(1L), expense(2L), expense(1L), expense(3L)), USER);
+
+        assertThat(results).extracting(BatchItemResult::status)
+                .containsExactly(Status.UPDATED, Status.FAILED, Status.FAILED, Status.NOT_FOUND);
+        assertThat(results.get(1).message()).isEqualTo("boom");
+        assertThat(recordedAdded()).extracting(ExpenseDocument::getExpenseId).containsExactly(1L);
+        assertThat(publishedEvents()).hasSize(1);
+    }
+
+    @Test
+    void updateOfAnExpenseDeletedMeanwhileIsNotFound() {
+        when(mongo.find(any(Query.class), eq(ExpenseDocument.class)))
+                .thenReturn(documents(1L, 2L))
+                .thenReturn(documents(1L));
+        when(bulk.execute()).thenReturn(BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of()));
+
+        List<BatchItemResult> results = service.updateExpenses(List.of(expense(1L), expense(2L)), USER);
+
+        assertThat(results).extracting(BatchItemResult::status).containsExactly(Status.UPDATED, Status.NOT_FOUND);
+        assertThat(recordedAdded()).extracting(ExpenseDocument::getExpenseId).containsExactly(1L);
+    }
+
+    @Test
+    void deleteReportsFailuresAndKeepsThemOutOfDerivedState() {
+        stored(1L, 2L);
+        when(bulk.execute()).thenThrow(bulkFailure(BulkWriteResult.acknowledged(0, 0, 1, 0, List.of(), List.of()), 1));
+
+        List<BatchItemResult> results = service.deleteExpenses(List.of(1L, 2L, 3L), USER);
+
+        assertThat(results).extracting(BatchItemResult::status).containsExactly(Status.DELETED, Status.FAILED, Status.NOT_FOUND);
+        assertThat(recordedRemoved()).extracting(ExpenseDocument::getExpenseId).containsExactly(1L);
+        verify(sync).recordDeletions(USER, List.of(1L));
+    }
+
+    @Test
+    void deleteRacingAnotherDeleteRebuildsRollups() {
+        stored(1L, 2L);
+        when(bulk.execute()).thenReturn(BulkWriteResult.acknowledged(0, 0, 1, 0, List.of(), List.of()));
+
+        List<BatchItemResult> results = service.deleteExpenses(List.of(1L, 2L), USER);
+
+        assertThat(results).extracting(BatchItemResult::status).containsExactly(Status.DELETED, Status.DELETED);
+        verify(rollups).rebuild(USER);
+        verify(rollups, never()).record(anyCollection(), anyCollection());
+    }
+
+    private void stored(Long... ids) {
+        when(mongo.find(any(Query.class), eq(ExpenseDocument.class))).thenReturn(documents(ids));
+    }
+
+    private static List<ExpenseDocument> documents(Long... ids) {
+        List<ExpenseDocument> documents = new ArrayList<>();
+        for (Long id : ids) {
+            documents.add(ExpenseDocument.builder().expenseId(id).userId(USER).amount(BigDecimal.ONE)
+                    .date(LocalDate.of(2024, 1, 1)).changeSequence(1L).build());
+        }
+        return documents;
+    }
+
+    private static Expense expense(Long id) {
+        return new Expense(id, "Lunch", new BigDecimal("12.50"), LocalDate.of(2024, 3, 1), "Food", null);
+    }
+
+    private static BulkOperationException bulkFailure(BulkWriteResult result, int failedIndex) {
+        return new BulkOperationException("Bulk write failed", new MongoBulkWriteException(result,
+                List.of(new BulkWriteError(11000, "boom", new BsonDocument(), failedIndex)),
+                null, new ServerAddress(), Set.of()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Collection<ExpenseDocument> recordedAdded() {
+        ArgumentCaptor<Collection<ExpenseDocument>> added = ArgumentCaptor.forClass(Collection.class);
+        verify(rollups).record(anyCollection(), added.capture());
+        return added.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Collection<ExpenseDocument> recordedRemoved() {
+        ArgumentCaptor<Collection<ExpenseDocument>> removed = ArgumentCaptor.forClass(Collection.class);
+        verify(rollups).record(removed.capture(), anyCollection());
+        return removed.getValue();
+    }
+
+    private List<?> publishedEvents() {
+        ArgumentCaptor<ExpensesChangedEvent> event = ArgumentCaptor.forClass(ExpensesChangedEvent.class);
+        verify(events).publishEvent(event.capture());
+        return event.getValue().events();
+    }
+}
\ No newline at end of file
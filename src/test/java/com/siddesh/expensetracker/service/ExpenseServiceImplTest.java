@@ -0,0 +1,171 @@
+package com.siddesh.expensetracker.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.mongodb.client.result.UpdateResult;
+import com.siddesh.expensetracker.entity.Expense;
+import com.siddesh.expensetracker.mongo.document.ExpenseDocument;
+import com.siddesh.expensetracker.mongo.repository.ExpenseDocumentRepository;
+import com.siddesh.expensetracker.mongo.service.SequenceGeneratorService;
+import com.siddesh.expensetracker.mongo.service.UserDataVersionService;
+import com.siddesh.expensetracker.service.cache.ExpenseReadCache;
+import com.siddesh.expensetracker.service.events.ExpensesChangedEvent;
+
+class ExpenseServiceImplTest {
+
+    private static final Long USER = 7L;
+
+    private ExpenseDocumentRepository repository;
+    private MongoOperations mongo;
+    private ExpenseRollupService rollups;
+    private ExpenseSyncService sync;
+    private UserDataVersionService versions;
+    private ExpenseReadCache cache;
+    private ApplicationEventPublisher events;
+    private ExpenseServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ExpenseDocumentRepository.class);
+        mongo = mock(MongoOperations.class);
+        rollups = mock(ExpenseRollupService.class);
+        sync = mock(ExpenseSyncService.class);
+        versions = mock(UserDataVersionService.class);
+        cache = mock(ExpenseReadCache.class);
+        events = mock(ApplicationEventPublisher.class);
+        SequenceGeneratorService sequences = mock(SequenceGeneratorService.class);
+        when(sequences.getNextSequence("expense_sequence")).thenReturn(1L);
+        when(sync.reserveChanges(eq(USER), anyInt())).thenReturn(100L, 101L, 102L);
+        when(sync.recordDeletions(eq(USER), any())).thenReturn(new long[] {100L});
+        service = new ExpenseServiceImpl(repository, mongo, sequences, mock(CategoryDictionary.class), rollups,
+                cache, versions, sync, events, 50, 500, 0, 1000);
+    }
+
+    @Test
+    void onlyTheDeleteThatRemovedTheExpenseChangesDerivedState() {
+        when(mongo.findAndRemove(any(Query.class), eq(ExpenseDocument.class)))
+                .thenReturn(stored(1L, "10.00"))
+                .thenReturn(null);
+
+        service.deleteExpense(1L, USER);
+        service.deleteExpense(1L, USER);
+
+        verify(rollups, times(1)).recordDeleted(any());
+        verify(sync, times(1)).recordDeletions(USER, List.of(1L));
+        verify(versions, times(1)).bump(USER, 100L);
+    }
+
+    @Test
+    void updateStartsOverWhenTheExpenseChangedSinceItWasRead() {
+        when(repository.findByExpenseIdAndUserId(1L, USER))
+                .thenReturn(Optional.of(stored(1L, "10.00")))
+                .thenReturn(Optional.of(stored(2L, "30.00")));
+        when(mongo.updateFirst(any(Query.class), any(Update.class), eq(ExpenseDocument.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        Optional<Expense> updated = service.updateExpense(1L, details("20.00"), USER);
+
+        assertThat(updated).map(Expense::getAmount).contains(new BigDecimal("20.00"));
+        verify(versions).release(USER, 100L);
+        ArgumentCaptor<ExpenseDocument> before = ArgumentCaptor.forClass(ExpenseDocument.class);
+        verify(rollups).recordUpdated(before.capture(), any());
+        // The delta is taken against the version the write replaced, not the stale first read
+        assertThat(before.getValue().getAmount()).isEqualByComparingTo("30.00");
+        verify(versions).bump(USER, 101L);
+    }
+
+    @Test
+    void updateConditionsOnTheChangeSequenceItRead() {
+        when(repository.findByExpenseIdAndUserId(1L, USER)).thenReturn(Optional.of(stored(5L, "10.00")));
+        when(mongo.updateFirst(any(Query.class), any(Update.class), eq(ExpenseDocument.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        service.updateExpense(1L, details("20.00"), USER);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongo).updateFirst(query.capture(), any(Update.class), eq(ExpenseDocument.class));
+        assertThat(query.getValue().getQueryObject().get("changeSequence")).isEqualTo(5L);
+    }
+
+    @Test
+    void updateGivesUpWhenOtherWritesKeepWinning() {
+        when(repository.findByExpenseIdAndUserId(1L, USER)).thenReturn(Optional.of(stored(1L, "10.00")));
+        when(mongo.updateFirst(any(Query.class), any(Update.class), eq(ExpenseDocument.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        assertThatThrownBy(() -> service.updateExpense(1L, details("20.00"), USER))
+                .isInstanceOf(IllegalStateException.class);
+        verify(rollups, never()).recordUpdated(any(), any());
+        verify(versions, never()).bump(eq(USER), any(long[].class));
+    }
+
+    @Test
+    void updateOfAnExpenseDeletedMeanwhileIsNotFound() {
+        when(repository.findByExpenseIdAndUserId(1L, USER))
+                .thenReturn(Optional.of(stored(1L, "10.00")))
+                .thenReturn(Optional.empty());
+        when(mongo.updateFirst(any(Query.class), any(Update.class), eq(ExpenseDocument.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        assertThat(service.updateExpense(1L, details("20.00"), USER)).isEmpty();
+        verify(rollups, never()).recordUpdated(any(), any());
+    }
+
+    @Test
+    void createStillBumpsAndInvalidatesWhenTheRollupWriteFails() {
+        when(repository.save(any(ExpenseDocument.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(new IllegalStateException("rollup down")).when(rollups).recordCreated(any());
+
+        assertThatThrownBy(() -> service.createExpense(details("20.00"), USER)).hasMessage("rollup down");
+
+        verify(versions).bump(USER, 100L);
+        verify(cache).invalidate(USER);
+        verify(events).publishEvent(any(ExpensesChangedEvent.class));
+    }
+
+    @Test
+    void deleteStillBumpsAndInvalidatesWhenTheRollupWriteFails() {
+        when(mongo.findAndRemove(any(Query.class), eq(ExpenseDocument.class))).thenReturn(stored(1L, "10.00"));
+        doThrow(new IllegalStateException("rollup down")).when(rollups).recordDeleted(any());
+
+        assertThatThrownBy(() -> service.deleteExpense(1L, USER)).hasMessage("rollup down");
+
+        verify(sync).recordDeletions(USER, List.of(1L));
+        verify(versions).bump(USER, 100L);
+        verify(cache).invalidate(USER);
+        verify(events).publishEvent(any(ExpensesChangedEvent.class));
+    }
+
+    private static ExpenseDocument stored(Long changeSequence, String amount) {
+        return ExpenseDocument.builder().expenseId(1L).userId(USER).description("Lunch")
+                .amount(new BigDecimal(amount)).date(LocalDate.of(2024, 3, 1)).changeSequence(changeSequence).build();
+    }
+
+    private static Expense details(String amount) {
+        return new Expense(1L, "Lunch", new BigDecimal(amount), LocalDate.of(2024, 3, 1), "Food", null);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,155 @@
+package com.siddesh.expensetracker.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.siddesh.expensetracker.EmbeddedMongo;
+import com.siddesh.expensetracker.dto.CategoryTotal;
+import com.siddesh.expensetracker.dto.PeriodTotal;
+import com.siddesh.expensetracker.mongo.document.ExpenseDocument;
+import com.siddesh.expensetracker.mongo.service.SequenceGeneratorService;
+import com.siddesh.expensetracker.service.cache.NoOpExpenseReadCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ExpenseSummaryServiceTest {
+
+    private static final Long USER = 1L;
+
+    private MongoOperations mongo;
+    private CategoryDictionary dictionary;
+
+    private ExpenseSummaryService summaries(ExpenseRollupService rollups) {
+        return new ExpenseSummaryService(mongo, rollups, new NoOpExpenseReadCache(), dictionary);
+    }
+
+    // Cases that need Mongo's aggregation semantics start with this; they are skipped when no mongod is available
+    private MongoTemplate withMongo() {
+        MongoTemplate template = EmbeddedMongo.template("summary_test");
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        mongo = template;
+        dictionary = new CategoryDictionary(template, new SequenceGeneratorService(template, registry, 10), registry, 100);
+        return template;
+    }
+
+    @Test
+    void totalsAmountsStoredAsStringsAndDecimalsExactly() {
+        MongoTemplate template = withMongo();
+        save(template, 1L, "0.10", "2024-03-02", "Food", false);
+        save(template, 2L, "0.20", "2024-03-02", "Food", true);
+        save(template, 3L, "19.99", "2024-04-15", "Travel", true);
+        save(template, 4L, "5", "2024-04-15", "Food", false);
+
+        ExpenseSummaryService summaries = summaries(notReady());
+
+        assertThat(summaries.totalsByCategory(USER, null, null)).containsExactly(
+                new CategoryTotal("Food", new BigDecimal("5.30"), 3),
+                new CategoryTotal("Travel", new BigDecimal("19.99"), 1));
+        assertThat(summaries.totalsByMonth(USER, null, null)).containsExactly(
+                new PeriodTotal("2024-03", new BigDecimal("0.30"), 2),
+                new PeriodTotal("2024-04", new BigDecimal("24.99"), 2));
+        assertThat(summaries.totalsByDay(USER, LocalDate.parse("2024-04-01"), LocalDate.parse("2024-04-30")))
+                .containsExactly(new PeriodTotal("2024-04-15", new BigDecimal("24.99"), 2));
+    }
+
+    @Test
+    void rollupsAnswerWholeMonthsLikeTheAggregationDoes() {
+        MongoTemplate template = withMongo();
+        ExpenseRollupService rollups = new ExpenseRollupService(template, dictionary);
+        rollups.rebuildAll();
+        List<ExpenseDocument> saved = new ArrayList<>();
+        saved.add(save(template, 1L, "0.10", "2024-02-29", "Food", false));
+        saved.add(save(template, 2L, "0.20", "2024-03-01", "Food", true));
+        saved.add(save(template, 3L, "19.99", "2024-03-31", "Travel", true));
+        saved.add(save(template, 4L, "5", "2024-04-01", "Food", false));
+        saved.add(save(template, 5L, "7.125", "2024-04-30", null, true));
+        rollups.record(List.of(), saved);
+
+        ExpenseSummaryService fromRollups = summaries(rollups);
+        ExpenseSummaryService fromExpenses = summaries(notReady());
+        LocalDate from = LocalDate.parse("2024-03-01");
+        LocalDate to = LocalDate.parse("2024-04-30");
+
+        assertThat(rollups.isReady()).isTrue();
+        assertThat(fromRollups.totalsByCategory(USER, from, to))
+                .isEqualTo(fromExpenses.totalsByCategory(USER, from, to))
+                .hasSize(3);
+        assertThat(fromRollups.totalsByMonth(USER, from, to))
+                .isEqualTo(fromExpenses.totalsByMonth(USER, from, to))
+                .hasSize(2);
+        assertThat(fromRollups.totalsByCategory(USER, null, null)).isEqualTo(fromExpenses.totalsByCategory(USER, null, null));
+        assertThat(fromRollups.totalsByMonth(USER, null, null)).isEqualTo(fromExpenses.totalsByMonth(USER, null, null));
+    }
+
+    @Test
+    void wholeMonthRangesAreReadFromRollups() {
+        mongo = mock(MongoOperations.class);
+        ExpenseRollupService rollups = mock(ExpenseRollupService.class);
+        when(rollups.isReady()).thenReturn(true);
+        List<CategoryTotal> totals = List.of(new CategoryTotal("Food", BigDecimal.TEN, 2));
+        when(rollups.totalsByCategory(USER, YearMonth.of(2024, 1), YearMonth.of(2024, 2))).thenReturn(totals);
+
+        assertThat(summaries(rollups).totalsByCategory(USER, LocalDate.parse("2024-01-01"), LocalDate.parse("2024-02-29")))
+                .isEqualTo(totals);
+        verify(mongo, never()).aggregate(any(TypedAggregation.class), eq(Document.class));
+    }
+
+    @Test
+    void partialMonthsAndUnfinishedBackfillsFallBackToTheAggregation() {
+        mongo = mock(MongoOperations.class);
+        when(mongo.aggregate(any(TypedAggregation.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(), new Document()));
+        ExpenseRollupService ready = mock(ExpenseRollupService.class);
+        when(ready.isReady()).thenReturn(true);
+
+        summaries(ready).totalsByCategory(USER, LocalDate.parse("2024-01-02"), LocalDate.parse("2024-02-29"));
+        summaries(ready).totalsByMonth(USER, LocalDate.parse("2024-01-01"), LocalDate.parse("2024-02-28"));
+        summaries(notReady()).totalsByMonth(USER, null, null);
+
+        verify(ready, never()).totalsByCategory(any(), any(), any());
+        verify(ready, never()).totalsByMonth(any(), any(), any());
+    }
+
+    private static ExpenseRollupService notReady() {
+        return mock(ExpenseRollupService.class);
+    }
+
+    // Amounts are stored as strings by default; decimal ones are rewritten as Decimal128 in place
+    private static ExpenseDocument save(MongoTemplate template, Long expenseId, String amount, String date,
+                                        String category, boolean decimal) {
+        ExpenseDocument expense = template.insert(ExpenseDocument.builder()
+                .expenseId(expenseId)
+                .userId(USER)
+                .amount(new BigDecimal(amount))
+                .date(LocalDate.parse(date))
+                .category(category)
+                .build());
+        if (decimal) {
+            template.updateFirst(Query.query(Criteria.where("expenseId").is(expenseId)),
+                    new Update().set("amount", new Decimal128(new BigDecimal(amount))), ExpenseDocument.class);
+        }
+        return expense;
+    }
+}
\ No newline at end of file
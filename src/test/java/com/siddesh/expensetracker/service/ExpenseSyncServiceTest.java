@@ -0,0 +1,88 @@
+package com.siddesh.expensetracker.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.siddesh.expensetracker.dto.ExpenseChanges;
+import com.siddesh.expensetracker.mongo.document.ExpenseDocument;
+import com.siddesh.expensetracker.mongo.document.ExpenseTombstoneDocument;
+import com.siddesh.expensetracker.mongo.service.UserDataVersionService;
+
+class ExpenseSyncServiceTest {
+
+    private static final Long USER = 5L;
+
+    private MongoOperations mongo;
+    private UserDataVersionService versions;
+    private ExpenseSyncService sync;
+
+    @BeforeEach
+    void setUp() {
+        mongo = mock(MongoOperations.class);
+        versions = mock(UserDataVersionService.class);
+        sync = new ExpenseSyncService(mongo, versions, mock(CategoryDictionary.class), Duration.ofDays(30), 100);
+    }
+
+    @Test
+    void watermarkOlderThanTheTombstonesIsRefused() {
+        String since = new SyncWatermark(40, Instant.now().minus(Duration.ofDays(31))).encode();
+
+        assertThat(sync.changesSince(USER, since, null)).isEmpty();
+        verifyNoInteractions(mongo);
+    }
+
+    @Test
+    void changesStopAtTheCommittedSequence() {
+        when(versions.committedChangeSequence(USER)).thenReturn(42L);
+        when(mongo.find(any(Query.class), eq(ExpenseTombstoneDocument.class)))
+                .thenReturn(List.of(ExpenseTombstoneDocument.builder().expenseId(9L).userId(USER).changeSequence(42L).build()));
+
+        Optional<ExpenseChanges> changes = sync.changesSince(USER, new SyncWatermark(40, Instant.now()).encode(), null);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongo).find(query.capture(), eq(ExpenseDocument.class));
+        assertThat(query.getValue().getQueryObject().get("changeSequence", Document.class))
+                .containsEntry("$gt", 40L)
+                .containsEntry("$lte", 42L);
+        assertThat(changes).get().satisfies(page -> {
+            assertThat(page.deleted()).containsExactly(9L);
+            assertThat(SyncWatermark.decode(page.watermark()).changeSequence()).isEqualTo(42L);
+        });
+    }
+
+    @Test
+    void watermarkDoesNotMoveWhileEarlierWritesAreInFlight() {
+        when(versions.committedChangeSequence(USER)).thenReturn(40L);
+
+        ExpenseChanges page = sync.changesSince(USER, new SyncWatermark(40, Instant.now()).encode(), null).orElseThrow();
+
+        assertThat(page.upserted()).isEmpty();
+        assertThat(SyncWatermark.decode(page.watermark()).changeSequence()).isEqualTo(40L);
+    }
+
+    @Test
+    void snapshotStartsFromTheCommittedSequence() {
+        when(versions.committedChangeSequence(USER)).thenReturn(17L);
+
+        ExpenseChanges snapshot = sync.changesSince(USER, null, null).orElseThrow();
+
+        assertThat(SyncWatermark.decode(snapshot.watermark()).changeSequence()).isEqualTo(17L);
+    }
+}
\ No newline at end of file
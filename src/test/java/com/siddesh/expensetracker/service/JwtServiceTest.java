@@ -0,0 +1,69 @@
+package com.siddesh.expensetracker.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+import com.siddesh.expensetracker.config.AuthenticatedUser;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JwtServiceTest {
+
+    private static final String SECRET = Base64.getEncoder()
+            .encodeToString("0123456789abcdef0123456789abcdef".getBytes());
+    private static final AuthenticatedUser USER = new AuthenticatedUser(12L, "someone@example.com", null);
+
+    private static JwtService jwtService(String secretKey) {
+        return new JwtService(secretKey, Duration.ofMinutes(15), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void oneParseYieldsSubjectUserIdAndValidity() {
+        JwtService jwtService = jwtService(SECRET);
+        String token = jwtService.generateToken(USER);
+
+        Claims claims = jwtService.parseClaims(token);
+
+        assertThat(claims.getSubject()).isEqualTo("someone@example.com");
+        assertThat(jwtService.extractUserId(claims)).isEqualTo(12L);
+        assertThat(jwtService.isTokenValid(claims, USER)).isTrue();
+        assertThat(jwtService.isTokenValid(claims, new AuthenticatedUser(13L, "other@example.com", null))).isFalse();
+    }
+
+    @Test
+    void rejectsATamperedToken() {
+        JwtService jwtService = jwtService(SECRET);
+        String token = jwtService.generateToken(USER);
+        String[] parts = token.split("\\.");
+        String forged = parts[0] + "." + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"sub\":\"admin@example.com\",\"uid\":1}".getBytes()) + "." + parts[2];
+
+        assertThatThrownBy(() -> jwtService.parseClaims(forged)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void rejectsATokenSignedWithAnotherKey() {
+        String token = jwtService("another-secret-that-is-not-base64!").generateToken(USER);
+
+        assertThatThrownBy(() -> jwtService(SECRET).parseClaims(token)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void derivesAKeyFromAPlainTextSecret() {
+        JwtService jwtService = jwtService("not base64, and short");
+
+        assertThat(jwtService.parseClaims(jwtService.generateToken(USER)).getSubject()).isEqualTo("someone@example.com");
+    }
+
+    @Test
+    void refusesToStartWithoutASecret() {
+        assertThatThrownBy(() -> jwtService(" ")).isInstanceOf(IllegalStateException.class);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.siddesh.expensetracker.service;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.siddesh.expensetracker.dto.LoginRequest;
+import com.siddesh.expensetracker.dto.RegisterRequest;
+import com.siddesh.expensetracker.repository.ReactiveUserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class ReactiveAuthServiceTest {
+
+    @Test
+    void loginsOverTheAccountLimitAreRefusedBeforeAnyLookup() {
+        ReactiveUserRepository users = mock(ReactiveUserRepository.class);
+        when(users.findFirstByEmail(anyString())).thenReturn(Mono.empty());
+        LoginRateLimiter limiter = new LoginRateLimiter(new SimpleMeterRegistry(), Duration.ofMinutes(1), 2, 100, 1000);
+        ReactiveAuthService auth = new ReactiveAuthService(users, mock(PasswordEncoder.class), null, null, limiter);
+        LoginRequest request = new LoginRequest("Someone@Example.com", "wrong");
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> auth.login(request, "10.0.0.1").block()).isInstanceOf(BadCredentialsException.class);
+        }
+        assertThatThrownBy(() -> auth.login(new LoginRequest("someone@example.com", "wrong"), "10.0.0.2").block())
+                .isInstanceOf(AuthThrottledException.class);
+        verify(users, times(2)).findFirstByEmail(anyString());
+    }
+
+    @Test
+    void unknownEmailsAreStillCheckedAgainstAHash() {
+        ReactiveUserRepository users = mock(ReactiveUserRepository.class);
+        when(users.findFirstByEmail(anyString())).thenReturn(Mono.empty());
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        when(encoder.encode(anyString())).thenReturn("dummy-hash");
+        when(encoder.matches(anyString(), anyString())).thenReturn(true);
+        LoginRateLimiter limiter = new LoginRateLimiter(new SimpleMeterRegistry(), Duration.ofMinutes(1), 10, 100, 1000);
+        ReactiveAuthService auth = new ReactiveAuthService(users, encoder, null, null, limiter);
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> auth.login(new LoginRequest("nobody@example.com", "guess"), "10.0.0.1").block())
+                    .isInstanceOf(BadCredentialsException.class);
+        }
+        verify(encoder, times(2)).matches(eq("guess"), eq("dummy-hash"));
+        verify(encoder, times(1)).encode(anyString());
+    }
+
+    @Test
+    void registrationsOverTheAddressLimitAreRefused() {
+        ReactiveUserRepository users = mock(ReactiveUserRepository.class);
+        when(users.existsByEmail(anyString())).thenReturn(Mono.just(true));
+        LoginRateLimiter limiter = new LoginRateLimiter(new SimpleMeterRegistry(), Duration.ofMinutes(1), 10, 1, 1000);
+        ReactiveAuthService auth = new ReactiveAuthService(users, mock(PasswordEncoder.class), null, null, limiter);
+        RegisterRequest request = new RegisterRequest("Some", "One", "someone@example.com", "secret");
+
+        assertThatThrownBy(() -> auth.register(request, "10.0.0.1").block()).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> auth.register(request, "10.0.0.1").block()).isInstanceOf(AuthThrottledException.class);
+        verify(users, times(1)).existsByEmail(anyString());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,70 @@
+package com.siddesh.expensetracker.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.siddesh.expensetracker.mongo.document.CategoryDocument;
+import com.siddesh.expensetracker.mongo.document.ExpenseDocument;
+import com.siddesh.expensetracker.mongo.service.ReactiveSequenceGeneratorService;
+import com.siddesh.expensetracker.mongo.service.SequenceGeneratorService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class ReactiveCategoryDictionaryTest {
+
+    private static final Long USER = 2L;
+
+    private CategoryDictionary categoryDictionary;
+    private ReactiveMongoOperations mongo;
+    private ReactiveSequenceGeneratorService sequences;
+    private ReactiveCategoryDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MongoOperations blocking = mock(MongoOperations.class);
+        categoryDictionary = new CategoryDictionary(blocking, new SequenceGeneratorService(blocking, registry, 10), registry, 100);
+        mongo = mock(ReactiveMongoOperations.class);
+        sequences = mock(ReactiveSequenceGeneratorService.class);
+        dictionary = new ReactiveCategoryDictionary(categoryDictionary, mongo, sequences);
+    }
+
+    @Test
+    void cachedCategoriesAreResolvedWithoutMongo() {
+        categoryDictionary.remember(new CategoryDocument(5L, USER, "Food", "food"));
+
+        assertThat(dictionary.idOf(USER, "Food").block()).isEqualTo(5L);
+        assertThat(dictionary.nameOf(ExpenseDocument.builder().categoryId(5L).build()).block()).isEqualTo("Food");
+        verifyNoInteractions(mongo, sequences);
+    }
+
+    @Test
+    void categoryCreatedConcurrentlyIsReadBack() {
+        when(mongo.findOne(any(Query.class), eq(CategoryDocument.class)))
+                .thenReturn(Mono.empty())
+                .thenReturn(Mono.just(new CategoryDocument(8L, USER, "Travel", "travel")));
+        when(sequences.getNextSequence(CategoryDictionary.CATEGORY_SEQUENCE)).thenReturn(Mono.just(9L));
+        when(mongo.insert(any(CategoryDocument.class))).thenReturn(Mono.error(new DuplicateKeyException("taken")));
+
+        assertThat(dictionary.idOf(USER, "Travel").block()).isEqualTo(8L);
+        assertThat(categoryDictionary.cachedName(8L)).isEqualTo("Travel");
+    }
+
+    @Test
+    void expensesWithoutACategoryHaveNoName() {
+        assertThat(dictionary.nameOf(ExpenseDocument.builder().build()).blockOptional()).isEmpty();
+        assertThat(dictionary.idOf(USER, null).blockOptional()).isEmpty();
+    }
+}
\ No newline at end of file
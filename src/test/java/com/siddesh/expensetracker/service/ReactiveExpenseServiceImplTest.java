@@ -0,0 +1,168 @@
+package com.siddesh.expensetracker.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import com.siddesh.expensetracker.dto.ExpenseEvent;
+import com.siddesh.expensetracker.entity.Expense;
+import com.siddesh.expensetracker.mongo.document.ExpenseDocument;
+import com.siddesh.expensetracker.mongo.document.ExpenseRollupDocument;
+import com.siddesh.expensetracker.mongo.document.ExpenseTombstoneDocument;
+import com.siddesh.expensetracker.mongo.repository.ReactiveExpenseDocumentRepository;
+import com.siddesh.expensetracker.mongo.service.ReactiveUserDataVersionService;
+import com.siddesh.expensetracker.service.cache.ExpenseReadCache;
+import com.siddesh.expensetracker.service.events.ExpensesChangedEvent;
+
+import reactor.core.publisher.Mono;
+
+class ReactiveExpenseServiceImplTest {
+
+    private static final Long USER = 7L;
+
+    private ReactiveExpenseDocumentRepository repository;
+    private ReactiveMongoOperations mongo;
+    private ReactiveBulkOperations bulk;
+    private ReactiveUserDataVersionService versions;
+    private ExpenseReadCache cache;
+    private ApplicationEventPublisher events;
+    private ReactiveExpenseServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ReactiveExpenseDocumentRepository.class);
+        mongo = mock(ReactiveMongoOperations.class);
+        bulk = mock(ReactiveBulkOperations.class);
+        versions = mock(ReactiveUserDataVersionService.class);
+        cache = mock(ExpenseReadCache.class);
+        events = mock(ApplicationEventPublisher.class);
+        ReactiveCategoryDictionary categories = mock(ReactiveCategoryDictionary.class);
+        when(categories.nameOf(any())).thenReturn(Mono.just("Food"));
+        when(categories.idOf(eq(USER), anyString())).thenReturn(Mono.just(3L));
+        when(versions.reserveChanges(eq(USER), anyInt())).thenReturn(Mono.just(100L));
+        when(versions.bump(eq(USER), any(long[].class))).thenReturn(Mono.empty());
+        when(versions.release(eq(USER), any(long[].class))).thenReturn(Mono.empty());
+        when(mongo.upsert(any(Query.class), any(Update.class), eq(ExpenseTombstoneDocument.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(0, 0L, null)));
+        when(mongo.bulkOps(any(BulkOperations.BulkMode.class), eq(ExpenseRollupDocument.class))).thenReturn(bulk);
+        when(mongo.remove(any(Query.class), eq(ExpenseRollupDocument.class))).thenReturn(Mono.just(DeleteResult.acknowledged(0)));
+        when(bulk.execute()).thenReturn(Mono.empty());
+        service = new ReactiveExpenseServiceImpl(repository, mongo, null, categories, versions, cache, events,
+                Duration.ofDays(30), 0);
+    }
+
+    @Test
+    void deleteTakesTheRemovedExpenseOutOfTheRollups() {
+        when(mongo.findAndRemove(any(Query.class), eq(ExpenseDocument.class))).thenReturn(Mono.just(stored("10.00")));
+
+        service.deleteExpense(1L, USER).block();
+
+        verify(bulk).upsert(any(Query.class), any(Update.class));
+        verify(bulk).execute();
+    }
+
+    @Test
+    void deletePublishesTheSameEventAsTheServletService() {
+        when(mongo.findAndRemove(any(Query.class), eq(ExpenseDocument.class))).thenReturn(Mono.just(stored("10.00")));
+
+        service.deleteExpense(1L, USER).block();
+
+        ArgumentCaptor<ExpensesChangedEvent> event = ArgumentCaptor.forClass(ExpensesChangedEvent.class);
+        verify(events).publishEvent(event.capture());
+        assertThat(event.getValue().userId()).isEqualTo(USER);
+        assertThat(event.getValue().events()).containsExactly(ExpenseEvent.deleted(1L));
+    }
+
+    @Test
+    void deleteOfAnAlreadyRemovedExpenseChangesNothing() {
+        when(mongo.findAndRemove(any(Query.class), eq(ExpenseDocument.class))).thenReturn(Mono.empty());
+
+        service.deleteExpense(1L, USER).block();
+
+        verify(mongo, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(ExpenseRollupDocument.class));
+        verify(events, never()).publishEvent(any());
+    }
+
+    @Test
+    void updateTakesTheRollupDeltaAgainstTheVersionItReplaced() {
+        when(repository.findByExpenseIdAndUserId(1L, USER)).thenReturn(Mono.just(stored("30.00")));
+        when(mongo.updateFirst(any(Query.class), any(Update.class), eq(ExpenseDocument.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+
+        Expense updated = service.updateExpense(1L, details("20.00"), USER).block();
+
+        assertThat(updated.getAmount()).isEqualByComparingTo("20.00");
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(bulk).upsert(any(Query.class), update.capture());
+        Document inc = (Document) update.getValue().getUpdateObject().get("$inc");
+        assertThat(((Decimal128) inc.get("total")).bigDecimalValue()).isEqualByComparingTo("-10.00");
+        verify(versions).bump(USER, 100L);
+    }
+
+    @Test
+    void updateGivesUpWhenOtherWritesKeepWinning() {
+        when(repository.findByExpenseIdAndUserId(1L, USER)).thenReturn(Mono.just(stored("30.00")));
+        when(mongo.updateFirst(any(Query.class), any(Update.class), eq(ExpenseDocument.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(0, 0L, null)));
+
+        assertThatThrownBy(() -> service.updateExpense(1L, details("20.00"), USER).block())
+                .isInstanceOf(IllegalStateException.class);
+        verify(versions, times(3)).release(USER, 100L);
+        verify(mongo, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(ExpenseRollupDocument.class));
+    }
+
+    @Test
+    void updateOfAnExpenseDeletedMeanwhileIsNotFound() {
+        when(repository.findByExpenseIdAndUserId(1L, USER)).thenReturn(Mono.empty());
+
+        assertThat(service.updateExpense(1L, details("20.00"), USER).blockOptional()).isEmpty();
+        verify(mongo, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(ExpenseRollupDocument.class));
+    }
+
+    @Test
+    void deleteStillBumpsAndInvalidatesWhenTheRollupWriteFails() {
+        when(mongo.findAndRemove(any(Query.class), eq(ExpenseDocument.class))).thenReturn(Mono.just(stored("10.00")));
+        when(bulk.execute()).thenReturn(Mono.error(new IllegalStateException("rollup down")));
+
+        assertThatThrownBy(() -> service.deleteExpense(1L, USER).block()).hasMessageContaining("rollup down");
+
+        verify(versions).bump(USER, 100L);
+        verify(cache).invalidate(USER);
+        verify(events).publishEvent(any(ExpensesChangedEvent.class));
+    }
+
+    private static ExpenseDocument stored(String amount) {
+        return ExpenseDocument.builder().expenseId(1L).userId(USER).description("Lunch")
+                .amount(new BigDecimal(amount)).date(LocalDate.of(2024, 3, 1)).categoryId(3L).changeSequence(5L).build();
+    }
+
+    private static Expense details(String amount) {
+        return new Expense(1L, "Lunch", new BigDecimal(amount), LocalDate.of(2024, 3, 1), "Food", null);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,112 @@
+package com.siddesh.expensetracker.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.siddesh.expensetracker.EmbeddedMongo;
+import com.siddesh.expensetracker.config.AuthenticatedUser;
+import com.siddesh.expensetracker.dto.AuthResponse;
+import com.siddesh.expensetracker.mongo.document.RefreshTokenDocument;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RefreshTokenServiceTest {
+
+    private static final AuthenticatedUser USER = new AuthenticatedUser(4L, "someone@example.com", null);
+
+    private JwtService jwtService;
+    private MongoTemplate mongo;
+    private RefreshTokenService tokens;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService("refresh-token-test-secret-key-for-expense-tracker", Duration.ofMinutes(15),
+                new SimpleMeterRegistry());
+    }
+
+    // Cases that need Mongo's query semantics start with this; they are skipped when no mongod is available
+    private void withMongo() {
+        mongo = EmbeddedMongo.template("refresh_token_test");
+        tokens = new RefreshTokenService(mongo, jwtService, Duration.ofDays(30));
+    }
+
+    @Test
+    void refreshRotatesTheTokenAndKeepsTheUser() {
+        withMongo();
+        AuthResponse login = tokens.issue(USER);
+
+        Optional<AuthResponse> refreshed = tokens.refresh(login.refreshToken());
+
+        assertThat(refreshed).isPresent();
+        assertThat(refreshed.get().refreshToken()).isNotEqualTo(login.refreshToken());
+        assertThat(jwtService.extractUserId(refreshed.get().token())).isEqualTo(USER.getId());
+        assertThat(tokens.refresh(refreshed.get().refreshToken())).isPresent();
+    }
+
+    @Test
+    void reusingARotatedTokenRevokesTheWholeFamily() {
+        withMongo();
+        AuthResponse login = tokens.issue(USER);
+        AuthResponse other = tokens.issue(USER);
+        AuthResponse rotated = tokens.refresh(login.refreshToken()).orElseThrow();
+
+        assertThat(tokens.refresh(login.refreshToken())).isEmpty();
+
+        assertThat(tokens.refresh(rotated.refreshToken())).isEmpty();
+        assertThat(tokens.refresh(other.refreshToken())).isPresent();
+    }
+
+    @Test
+    void logoutRevokesTheFamily() {
+        withMongo();
+        AuthResponse login = tokens.issue(USER);
+        AuthResponse rotated = tokens.refresh(login.refreshToken()).orElseThrow();
+
+        tokens.revoke(rotated.refreshToken());
+
+        assertThat(mongo.findAll(RefreshTokenDocument.class)).isEmpty();
+        assertThat(tokens.refresh(rotated.refreshToken())).isEmpty();
+    }
+
+    @Test
+    void reuseIsDetectedFromTheRotatedRecord() {
+        MongoOperations operations = mock(MongoOperations.class);
+        when(operations.findById(anyString(), eq(RefreshTokenDocument.class)))
+                .thenReturn(RefreshTokenDocument.builder().family("f1").rotatedAt(Instant.now()).build());
+        RefreshTokenService service = new RefreshTokenService(operations, jwtService, Duration.ofDays(30));
+
+        assertThat(service.refresh("copied")).isEmpty();
+
+        ArgumentCaptor<Query> revoked = ArgumentCaptor.forClass(Query.class);
+        verify(operations).remove(revoked.capture(), eq(RefreshTokenDocument.class));
+        assertThat(revoked.getValue().getQueryObject()).containsEntry("family", "f1");
+        verify(operations, never()).insert(any(RefreshTokenDocument.class));
+    }
+
+    @Test
+    void unknownTokensAreRefusedWithoutRevokingAnything() {
+        MongoOperations operations = mock(MongoOperations.class);
+        RefreshTokenService service = new RefreshTokenService(operations, jwtService, Duration.ofDays(30));
+
+        assertThat(service.refresh("unknown")).isEmpty();
+        assertThat(service.refresh(" ")).isEmpty();
+        verify(operations, never()).remove(any(Query.class), eq(RefreshTokenDocument.class));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.siddesh.expensetracker.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ExpenseReadCacheTest {
+
+    static List<ExpenseReadCache> backends() {
+        return List.of(
+                new CaffeineExpenseReadCache(1000, Duration.ofMinutes(10), new SimpleMeterRegistry()),
+                new SpringCacheExpenseReadCache(new ConcurrentMapCache("expenses")));
+    }
+
+    @ParameterizedTest
+    @MethodSource("backends")
+    void repeatedReadsAreServedFromTheCache(ExpenseReadCache cache) {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, "summary", loads::incrementAndGet);
+        Integer second = cache.get(1L, "summary", loads::incrementAndGet);
+
+        assertThat(second).isEqualTo(1);
+        assertThat(loads).hasValue(1);
+    }
+
+    @ParameterizedTest
+    @MethodSource("backends")
+    void invalidationMovesOnlyThatUserToANewGeneration(ExpenseReadCache cache) {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(1L, "summary", loads::incrementAndGet);
+        cache.get(2L, "summary", loads::incrementAndGet);
+
+        cache.invalidate(1L);
+
+        assertThat(cache.get(1L, "summary", loads::incrementAndGet)).isEqualTo(3);
+        assertThat(cache.get(2L, "summary", loads::incrementAndGet)).isEqualTo(2);
+        assertThat(loads).hasValue(3);
+    }
+
+    @ParameterizedTest
+    @MethodSource("backends")
+    void invalidationBeforeTheFirstReadStillCaches(ExpenseReadCache cache) {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.invalidate(1L);
+        cache.get(1L, "list", loads::incrementAndGet);
+        cache.get(1L, "list", loads::incrementAndGet);
+
+        assertThat(loads).hasValue(1);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.siddesh.expensetracker.service.events;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.siddesh.expensetracker.dto.ExpenseEvent;
+
+class EventBufferTest {
+
+    private static final Duration NO_WAIT = Duration.ZERO;
+
+    @Test
+    void deliversEventsInOrderWhileThereIsRoom() throws InterruptedException {
+        EventBuffer buffer = new EventBuffer(3);
+
+        assertThat(buffer.offer(List.of(ExpenseEvent.deleted(1L), ExpenseEvent.deleted(2L)))).isTrue();
+
+        assertThat(buffer.poll(NO_WAIT)).isEqualTo(ExpenseEvent.deleted(1L));
+        assertThat(buffer.poll(NO_WAIT)).isEqualTo(ExpenseEvent.deleted(2L));
+        assertThat(buffer.poll(NO_WAIT)).isNull();
+    }
+
+    @Test
+    void overflowReplacesEverythingPendingWithOneResync() throws InterruptedException {
+        EventBuffer buffer = new EventBuffer(2);
+        buffer.offer(List.of(ExpenseEvent.deleted(1L)));
+
+        assertThat(buffer.offer(List.of(ExpenseEvent.deleted(2L), ExpenseEvent.deleted(3L), ExpenseEvent.deleted(4L))))
+                .isFalse();
+
+        assertThat(buffer.poll(NO_WAIT)).isSameAs(EventBuffer.RESYNC);
+        assertThat(buffer.poll(NO_WAIT)).isNull();
+    }
+
+    @Test
+    void laterEventsQueueBehindTheResync() throws InterruptedException {
+        EventBuffer buffer = new EventBuffer(2);
+        buffer.offer(List.of(ExpenseEvent.deleted(1L), ExpenseEvent.deleted(2L), ExpenseEvent.deleted(3L)));
+
+        assertThat(buffer.offer(List.of(ExpenseEvent.deleted(4L)))).isTrue();
+
+        assertThat(buffer.poll(NO_WAIT)).isSameAs(EventBuffer.RESYNC);
+        assertThat(buffer.poll(NO_WAIT)).isEqualTo(ExpenseEvent.deleted(4L));
+    }
+}
\ No newline at end of file
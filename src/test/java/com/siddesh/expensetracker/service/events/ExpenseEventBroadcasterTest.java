@@ -0,0 +1,27 @@
+package com.siddesh.expensetracker.service.events;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ExpenseEventBroadcasterTest {
+
+    @Test
+    void limitsOpenConnectionsPerUser() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ExpenseEventBroadcaster broadcaster = new ExpenseEventBroadcaster(registry, 16, 2,
+                Duration.ofSeconds(20), Duration.ofMinutes(1));
+
+        assertThat(broadcaster.subscribe(1L)).isPresent();
+        assertThat(broadcaster.subscribe(1L)).isPresent();
+        assertThat(broadcaster.subscribe(1L)).isEmpty();
+        // The limit is per user, not global
+        assertThat(broadcaster.subscribe(2L)).isPresent();
+
+        assertThat(registry.get("expenses.events.connections").gauge().value()).isEqualTo(3);
+    }
+}
\ No newline at end of file
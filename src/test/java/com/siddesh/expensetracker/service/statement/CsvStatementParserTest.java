@@ -0,0 +1,75 @@
+package com.siddesh.expensetracker.service.statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class CsvStatementParserTest {
+
+    @Test
+    void readsQuotedFieldsWithCommasQuotesAndLineBreaks() throws IOException {
+        List<StatementRow> rows = parse("Date,Amount,Description,Category\r\n"
+                + "2024-03-01,12.50,\"Lunch, with \"\"Bob\"\"\",Food\r\n"
+                + "2024-03-02,7.25,\"Train\r\nto work\",Travel\n"
+                + "2024-03-03,3.00,Coffee,\n");
+
+        assertThat(rows).hasSize(3);
+        assertThat(rows.get(0).expense().getDescription()).isEqualTo("Lunch, with \"Bob\"");
+        assertThat(rows.get(0).expense().getAmount()).isEqualTo(new BigDecimal("12.50"));
+        assertThat(rows.get(1).expense().getDescription()).isEqualTo("Train\nto work");
+        assertThat(rows.get(1).expense().getDate()).isEqualTo(LocalDate.of(2024, 3, 2));
+        assertThat(rows.get(2).expense().getCategory()).isNull();
+        assertThat(rows).extracting(StatementRow::number).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void rejectsInvalidRowsAndSkipsBlankLines() throws IOException {
+        List<StatementRow> rows = parse("""
+                date,amount
+                2024-13-01,1
+
+                2024-03-01,abc
+                2024-03-01,2
+                """);
+
+        assertThat(rows).extracting(StatementRow::error)
+                .containsExactly("Invalid date: 2024-13-01", "Invalid amount: abc", null);
+        assertThat(rows).extracting(StatementRow::number).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void rejectsAnOversizedRowAndCarriesOnAfterIt() throws IOException {
+        String unbalanced = "2024-03-01,1,\"never closed" + "x".repeat(CsvStatementParser.MAX_RECORD_LENGTH);
+        List<StatementRow> rows = parse("date,amount,description\n" + unbalanced + "\n2024-03-02,5,Fine\n");
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).error()).startsWith("Row is longer than");
+        assertThat(rows.get(1).expense().getDescription()).isEqualTo("Fine");
+    }
+
+    @Test
+    void requiresDateAndAmountColumns() {
+        assertThatThrownBy(() -> new CsvStatementParser(new StringReader("date,description\n")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CsvStatementParser(new StringReader("")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<StatementRow> parse(String csv) throws IOException {
+        CsvStatementParser parser = new CsvStatementParser(new StringReader(csv));
+        List<StatementRow> rows = new ArrayList<>();
+        StatementRow row;
+        while ((row = parser.next()) != null) {
+            rows.add(row);
+        }
+        return rows;
+    }
+}
\ No newline at end of file